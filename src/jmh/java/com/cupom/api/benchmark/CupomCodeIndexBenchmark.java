@@ -0,0 +1,87 @@
+package com.cupom.api.benchmark;
+
+import com.cupom.api.cache.CupomCodeIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consulta de código no {@link CupomCodeIndex} contra um {@code HashMap<String, Long>} com os mesmos cupons.
+ * Metade das consultas é de códigos inexistentes. Rodar com {@code -prof gc} e comparar também o heap
+ * ocupado após a carga (o log de GC mostra ~12 bytes por posição no índice contra ~100 bytes por cupom
+ * no mapa: String, array de bytes, Long e nó do mapa).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g", "-Xlog:gc"})
+public class CupomCodeIndexBenchmark {
+
+    private static final int PROBES = 4096;
+
+    // Espalha os IDs sequenciais pelo espaço de códigos (36^6), como códigos escolhidos pelos usuários
+    private static final long CODE_SPACE = 2_176_782_336L;
+    private static final long STRIDE = 1_000_003L;
+
+    @Param({"1000000", "10000000"})
+    public int cupons;
+
+    private CupomCodeIndex index;
+    private Map<String, Long> map;
+    private String[] probes;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        index = new CupomCodeIndex(cupons);
+        map = new HashMap<>();
+        index.beginLoad();
+        for (long id = 1; id <= cupons; id++) {
+            String code = code(id);
+            index.load(id, code, true, false);
+            map.put(code, id);
+        }
+        index.finishLoad();
+
+        probes = new String[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            long id = ThreadLocalRandom.current().nextLong(1, cupons + 1L);
+            // Ímpares: IDs além dos carregados, código inexistente
+            probes[i] = code(i % 2 == 0 ? id : id + cupons);
+        }
+    }
+
+    @Benchmark
+    public long primitiveIndex() {
+        return index.find(probe());
+    }
+
+    @Benchmark
+    public Long hashMapBaseline() {
+        return map.get(probe());
+    }
+
+    private String probe() {
+        return probes[ThreadLocalRandom.current().nextInt(PROBES)];
+    }
+
+    private static String code(long id) {
+        String code = Long.toString(id * STRIDE % CODE_SPACE, 36).toUpperCase();
+        return "000000".substring(code.length()) + code;
+    }
+}
@@ -0,0 +1,89 @@
+package com.cupom.api.benchmark;
+
+import com.cupom.api.cache.CupomCodeSpace;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.security.SecureRandom;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sorteio e reserva de um código livre no {@link CupomCodeSpace} (bitmap de 36^6 bits) contra um
+ * {@code HashSet<String>} com os mesmos códigos ocupados, partindo de N códigos já existentes.
+ * {@code secureRandom} mostra o custo do sorteio usado pelo gerador; rodar com {@code -prof gc} para comparar
+ * a alocação (o bitmap não aloca por código, só a String devolvida).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g"})
+public class CupomCodeSpaceBenchmark {
+
+    @Param({"1000000", "10000000"})
+    public int existing;
+
+    private CupomCodeSpace space;
+    private Set<String> set;
+    private SplittableRandom random;
+    private SecureRandom secureRandom;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        random = new SplittableRandom(42);
+        secureRandom = new SecureRandom();
+        space = new CupomCodeSpace();
+        set = new HashSet<>(existing * 2);
+        space.beginLoad();
+        for (int i = 0; i < existing; i++) {
+            String code = CupomCodeSpace.toCode(random.nextLong(CupomCodeSpace.SIZE));
+            space.load(code);
+            set.add(code);
+        }
+        space.finishLoad();
+    }
+
+    @Benchmark
+    public String bitmapClaim() {
+        while (true) {
+            long packed = random.nextLong(CupomCodeSpace.SIZE);
+            if (space.tryClaim(packed)) {
+                return CupomCodeSpace.toCode(packed);
+            }
+        }
+    }
+
+    @Benchmark
+    public String bitmapClaimSecureRandom() {
+        while (true) {
+            long packed = secureRandom.nextLong(CupomCodeSpace.SIZE);
+            if (space.tryClaim(packed)) {
+                return CupomCodeSpace.toCode(packed);
+            }
+        }
+    }
+
+    @Benchmark
+    public String hashSetBaseline() {
+        while (true) {
+            String code = CupomCodeSpace.toCode(random.nextLong(CupomCodeSpace.SIZE));
+            if (set.add(code)) {
+                return code;
+            }
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.cupom.api.benchmark;
+
+import com.cupom.api.CrudCupomApplication;
+import com.cupom.api.dto.CupomRequest;
+import com.cupom.api.dto.CupomResponse;
+import com.cupom.api.service.CupomService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput e latência de cauda dos endpoints do {@code CupomController} sob alta concorrência,
+ * comparando o pool de threads de plataforma do Tomcat com o modo virtual threads
+ * (profile Spring {@code virtual}). O modo virtual só tem efeito rodando em Java 21:
+ * {@code mvn -Pjmh,java21 -DskipTests verify -Djmh.includes=CupomControllerConcurrencyBenchmark}.
+ *
+ * Em modo SampleTime o JSON do JMH traz os percentis (p50, p99, p99.9) por endpoint.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Threads(400)
+@Fork(1)
+public class CupomControllerConcurrencyBenchmark {
+
+    private static final int SEEDED_CUPONS = 1000;
+
+    @Param({"platform", "virtual"})
+    private String threads;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private String baseUrl;
+    private long firstId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(CrudCupomApplication.class)
+                .profiles("virtual".equals(threads) ? new String[] {"virtual"} : new String[0])
+                .properties(
+                    "server.port=0",
+                    "spring.datasource.url=jdbc:h2:mem:cupomconcurrency;DB_CLOSE_DELAY=-1",
+                    "spring.jpa.show-sql=false",
+                    "spring.h2.console.enabled=false",
+                    "logging.level.root=WARN",
+                    "logging.level.com.cupom.api=WARN",
+                    "logging.level.org.hibernate.SQL=WARN"
+                )
+                .run();
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        baseUrl = "http://localhost:" + port + "/api/cupons";
+
+        CupomService cupomService = context.getBean(CupomService.class);
+        for (int i = 0; i < SEEDED_CUPONS; i++) {
+            CupomResponse cupom = cupomService.createCupom(CupomRequest.builder()
+                    .code(String.format("VT%04d", i))
+                    .description("Cupom de concorrência " + i)
+                    .discountValue(new BigDecimal("10.00"))
+                    .expirationDate(LocalDate.now().plusDays(30))
+                    .published(true)
+                    .build());
+            if (i == 0) {
+                firstId = cupom.getId();
+            }
+        }
+
+        httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int getCupomById() throws Exception {
+        long id = firstId + ThreadLocalRandom.current().nextInt(SEEDED_CUPONS);
+        return get(baseUrl + "/" + id);
+    }
+
+    @Benchmark
+    public int getCupomByCode() throws Exception {
+        return get(baseUrl + "/code/" + String.format("VT%04d", ThreadLocalRandom.current().nextInt(SEEDED_CUPONS)));
+    }
+
+    @Benchmark
+    public int getActiveCuponsPage() throws Exception {
+        return get(baseUrl + "?limit=50");
+    }
+
+    private int get(String url) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url)).GET().build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,141 @@
+package com.cupom.api.benchmark;
+
+import com.cupom.api.CrudCupomApplication;
+import com.cupom.api.dto.CupomResponse;
+import com.cupom.api.dto.CupomSearchRequest;
+import com.cupom.api.dto.CupomSearchResult;
+import com.cupom.api.entity.Cupom;
+import com.cupom.api.index.CupomDescriptionIndex;
+import com.cupom.api.repository.CupomRepository;
+import com.cupom.api.repository.specification.CupomSearchSort;
+import com.cupom.api.repository.specification.CupomSpecifications;
+import com.cupom.api.service.CupomDescriptionIndexLoader;
+import com.cupom.api.service.CupomSearchService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Busca por termo na descrição: {@link CupomDescriptionIndex} (via {@link CupomSearchService}) contra o
+ * predicado LIKE da descrição no H2, com 100 mil a 5 milhões de linhas. Modo SampleTime para os percentis.
+ * Cada descrição tem uma campanha entre 50 mil (termo raro, ~linhas/50 mil cupons) e uma estação entre
+ * quatro (termo frequente). Termos raros são o caso em que o LIKE percorre a tabela inteira.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class CupomDescriptionSearchBenchmark {
+
+    private static final int PAGE_SIZE = 50;
+
+    private static final int CAMPAIGNS = 50_000;
+
+    private static final String[] SEASONS = {"verao", "outono", "inverno", "primavera"};
+
+    @Param({"100000", "1000000", "5000000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private CupomSearchService cupomSearchService;
+    private CupomRepository cupomRepository;
+    private TransactionTemplate transactionTemplate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(CrudCupomApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                    "spring.datasource.url=jdbc:h2:mem:cupomdescription;DB_CLOSE_DELAY=-1",
+                    "spring.jpa.show-sql=false",
+                    "spring.h2.console.enabled=false",
+                    "logging.level.root=WARN",
+                    "logging.level.com.cupom.api=WARN",
+                    "logging.level.org.hibernate.SQL=WARN"
+                )
+                .run();
+        cupomSearchService = context.getBean(CupomSearchService.class);
+        cupomRepository = context.getBean(CupomRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        jdbcTemplate.update("INSERT INTO cupons (id, code, description, discount_value, expiration_date, published, "
+                + "used_count, deleted, created_at) "
+                + "SELECT X, " + CupomListingScaleBenchmark.CODE_FROM_ID + ", "
+                + "'Campanha c' || LPAD(CAST(MOD(X, " + CAMPAIGNS + ") AS VARCHAR), 5, '0') || ' de ' || "
+                + "CASEWHEN(MOD(X, 4) = 0, 'verao', CASEWHEN(MOD(X, 4) = 1, 'outono', "
+                + "CASEWHEN(MOD(X, 4) = 2, 'inverno', 'primavera'))), "
+                + "10, DATEADD('DAY', 30, CURRENT_DATE), TRUE, 0, FALSE, CURRENT_TIMESTAMP "
+                + "FROM SYSTEM_RANGE(1, ?)", rows);
+        jdbcTemplate.execute("ANALYZE");
+        // Dados inseridos via JDBC: a carga do início da aplicação já passou
+        context.getBean(CupomDescriptionIndexLoader.class).rebuild();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public CupomSearchResult rareTermIndexed() {
+        return cupomSearchService.search(CupomSearchRequest.builder().q(rareTerm()).limit(PAGE_SIZE).build());
+    }
+
+    @Benchmark
+    public List<CupomResponse> rareTermSqlLike() {
+        return sqlLike(rareTerm());
+    }
+
+    @Benchmark
+    public CupomSearchResult frequentTermIndexed() {
+        return cupomSearchService.search(CupomSearchRequest.builder().q(frequentTerm()).limit(PAGE_SIZE).build());
+    }
+
+    @Benchmark
+    public List<CupomResponse> frequentTermSqlLike() {
+        return sqlLike(frequentTerm());
+    }
+
+    /**
+     * Linha de base: a mesma consulta da busca, só com o LIKE, sem os candidatos do índice
+     */
+    private List<CupomResponse> sqlLike(String term) {
+        Specification<Cupom> spec = Specification.where(CupomSpecifications.notDeleted())
+                .and(CupomSpecifications.descriptionMatches(term));
+        return transactionTemplate.execute(status ->
+            cupomRepository.search(spec, CupomSearchSort.ID, false, PAGE_SIZE + 1, LocalDate.now()));
+    }
+
+    private static String rareTerm() {
+        // Largura fixa: nenhum código de campanha é prefixo de outro
+        return String.format("c%05d", ThreadLocalRandom.current().nextInt(CAMPAIGNS));
+    }
+
+    private static String frequentTerm() {
+        return SEASONS[ThreadLocalRandom.current().nextInt(SEASONS.length)];
+    }
+}
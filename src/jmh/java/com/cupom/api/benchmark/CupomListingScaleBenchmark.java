@@ -0,0 +1,129 @@
+package com.cupom.api.benchmark;
+
+import com.cupom.api.CrudCupomApplication;
+import com.cupom.api.dto.CupomPageResponse;
+import com.cupom.api.entity.Cupom;
+import com.cupom.api.repository.CupomRepository;
+import com.cupom.api.repository.projection.CupomStateCounts;
+import com.cupom.api.service.CupomService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede as consultas de listagem/filtro do {@link CupomRepository} conforme a tabela cresce
+ * (10 mil a 5 milhões de linhas), com os índices criados pelas migrações Flyway.
+ * Distribuição: 10% deletados, 50% publicados e metade dos cupons já expirada.
+ * Os parâmetros variam a cada chamada para o H2 não reaproveitar o resultado da execução anterior.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class CupomListingScaleBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+
+    private static final String ALPHABET = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+
+    /**
+     * Código de 6 caracteres em base 36 derivado do ID (X), mesmo formato de {@link Cupom#normalizeCode}
+     */
+    static final String CODE_FROM_ID = "SUBSTRING('0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ', MOD(X / 60466176, 36) + 1, 1) || "
+            + "SUBSTRING('0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ', MOD(X / 1679616, 36) + 1, 1) || "
+            + "SUBSTRING('0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ', MOD(X / 46656, 36) + 1, 1) || "
+            + "SUBSTRING('0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ', MOD(X / 1296, 36) + 1, 1) || "
+            + "SUBSTRING('0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ', MOD(X / 36, 36) + 1, 1) || "
+            + "SUBSTRING('0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ', MOD(X, 36) + 1, 1)";
+
+    @Param({"10000", "100000", "1000000", "5000000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private CupomService cupomService;
+    private CupomRepository cupomRepository;
+    private JdbcTemplate jdbcTemplate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(CrudCupomApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                    "spring.datasource.url=jdbc:h2:mem:cupomscale;DB_CLOSE_DELAY=-1",
+                    "spring.jpa.show-sql=false",
+                    "spring.h2.console.enabled=false",
+                    "logging.level.root=WARN",
+                    "logging.level.com.cupom.api=WARN",
+                    "logging.level.org.hibernate.SQL=WARN"
+                )
+                .run();
+        cupomService = context.getBean(CupomService.class);
+        cupomRepository = context.getBean(CupomRepository.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        jdbcTemplate.update("INSERT INTO cupons (id, code, description, discount_value, expiration_date, published, "
+                + "used_count, deleted, created_at) "
+                + "SELECT X, " + CODE_FROM_ID + ", 'Cupom de benchmark', 10.00, "
+                + "DATEADD('DAY', MOD(X, 360) - 180, CURRENT_DATE), MOD(X, 2) = 0, 0, MOD(X, 10) = 0, CURRENT_TIMESTAMP "
+                + "FROM SYSTEM_RANGE(1, ?)", rows);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public CupomPageResponse firstPage() {
+        return cupomService.getActiveCuponsPage(null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public CupomPageResponse deepPage() {
+        return cupomService.getActiveCuponsPage(ThreadLocalRandom.current().nextLong(rows / 2, rows), PAGE_SIZE);
+    }
+
+    @Benchmark
+    public CupomStateCounts countByState() {
+        return cupomRepository.countByState(LocalDate.now().plusDays(ThreadLocalRandom.current().nextInt(365)));
+    }
+
+    @Benchmark
+    public Optional<Cupom> findByCodeAndNotDeleted() {
+        return cupomRepository.findByCodeAndNotDeleted(codeOf(ThreadLocalRandom.current().nextLong(1, rows + 1L)));
+    }
+
+    /**
+     * Mesmo código gerado por {@link #CODE_FROM_ID} para o ID informado
+     */
+    private static String codeOf(long id) {
+        char[] code = new char[Cupom.CODE_LENGTH];
+        for (int i = code.length - 1; i >= 0; i--) {
+            code[i] = ALPHABET.charAt((int) (id % ALPHABET.length()));
+            id /= ALPHABET.length();
+        }
+        return new String(code);
+    }
+}
@@ -0,0 +1,123 @@
+package com.cupom.api.benchmark;
+
+import com.cupom.api.CrudCupomApplication;
+import com.cupom.api.dto.CupomSearchRequest;
+import com.cupom.api.dto.CupomSearchResult;
+import com.cupom.api.service.CupomSearchService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede a busca por filtros ({@link CupomSearchService}) em tabelas de 100 mil a 5 milhões de linhas,
+ * com os índices das migrações Flyway. Modo SampleTime para obter os percentis (p99) da latência.
+ * Mesma distribuição de {@link CupomListingScaleBenchmark}, com descontos de 1 a 100 e descrições
+ * de 50 campanhas diferentes. Os parâmetros variam a cada chamada.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class CupomSearchBenchmark {
+
+    private static final int PAGE_SIZE = 50;
+
+    private static final String ALPHABET = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+
+    @Param({"100000", "1000000", "5000000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private CupomSearchService cupomSearchService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(CrudCupomApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                    "spring.datasource.url=jdbc:h2:mem:cupomsearch;DB_CLOSE_DELAY=-1",
+                    "spring.jpa.show-sql=false",
+                    "spring.h2.console.enabled=false",
+                    "logging.level.root=WARN",
+                    "logging.level.com.cupom.api=WARN",
+                    "logging.level.org.hibernate.SQL=WARN"
+                )
+                .run();
+        cupomSearchService = context.getBean(CupomSearchService.class);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        jdbcTemplate.update("INSERT INTO cupons (id, code, description, discount_value, expiration_date, published, "
+                + "used_count, deleted, created_at) "
+                + "SELECT X, " + CupomListingScaleBenchmark.CODE_FROM_ID + ", 'Campanha ' || MOD(X, 50) || ' de benchmark', "
+                + "MOD(X, 100) + 1, DATEADD('DAY', MOD(X, 360) - 180, CURRENT_DATE), MOD(X, 2) = 0, 0, MOD(X, 10) = 0, "
+                + "DATEADD('SECOND', X, TIMESTAMP '2024-01-01 00:00:00') "
+                + "FROM SYSTEM_RANGE(1, ?)", rows);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public CupomSearchResult byCodePrefix() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String prefix = "" + ALPHABET.charAt(random.nextInt(2)) + ALPHABET.charAt(random.nextInt(36))
+                + ALPHABET.charAt(random.nextInt(36));
+        return cupomSearchService.search(CupomSearchRequest.builder().codePrefix(prefix).limit(PAGE_SIZE).build());
+    }
+
+    @Benchmark
+    public CupomSearchResult byDiscountRangeSortedDesc() {
+        int min = ThreadLocalRandom.current().nextInt(1, 95);
+        return cupomSearchService.search(CupomSearchRequest.builder()
+                .minDiscount(BigDecimal.valueOf(min))
+                .maxDiscount(BigDecimal.valueOf(min + 5L))
+                .sort("discountValue,desc")
+                .limit(PAGE_SIZE)
+                .build());
+    }
+
+    @Benchmark
+    public CupomSearchResult byExpirationWindowAndPublished() {
+        LocalDate from = LocalDate.now().plusDays(ThreadLocalRandom.current().nextInt(-180, 170));
+        return cupomSearchService.search(CupomSearchRequest.builder()
+                .expirationFrom(from)
+                .expirationTo(from.plusDays(7))
+                .published(true)
+                .sort("expirationDate")
+                .limit(PAGE_SIZE)
+                .build());
+    }
+
+    @Benchmark
+    public CupomSearchResult recentlyCreated() {
+        return cupomSearchService.search(CupomSearchRequest.builder()
+                .q("campanha " + ThreadLocalRandom.current().nextInt(50))
+                .sort("createdAt,desc")
+                .limit(PAGE_SIZE)
+                .build());
+    }
+}
@@ -0,0 +1,111 @@
+package com.cupom.api.benchmark;
+
+import com.cupom.api.CrudCupomApplication;
+import com.cupom.api.cache.CupomCodeCache;
+import com.cupom.api.dto.CupomRequest;
+import com.cupom.api.dto.CupomResponse;
+import com.cupom.api.service.CupomService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Benchmark ponta a ponta de {@link CupomService} (transação + JPA) contra H2 embarcado.
+ * Sobe o contexto Spring sem servidor web, uma vez por fork.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CupomServiceH2Benchmark {
+
+    private static final String ALPHABET = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private ConfigurableApplicationContext context;
+    private CupomService cupomService;
+    private CupomCodeCache cupomCodeCache;
+    private String existingCode;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(CrudCupomApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                    "spring.datasource.url=jdbc:h2:mem:cupombench;DB_CLOSE_DELAY=-1",
+                    "spring.jpa.show-sql=false",
+                    "spring.h2.console.enabled=false",
+                    "logging.level.root=WARN",
+                    "logging.level.com.cupom.api=WARN",
+                    "logging.level.org.hibernate.SQL=WARN"
+                )
+                .run();
+        cupomService = context.getBean(CupomService.class);
+        cupomCodeCache = context.getBean(CupomCodeCache.class);
+        existingCode = cupomService.createCupom(request(nextCode())).getCode();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public CupomResponse createCupom() {
+        return cupomService.createCupom(request(nextCode()));
+    }
+
+    @Benchmark
+    public CupomResponse getCupomByCodeCached() {
+        return cupomService.getCupomByCode(existingCode);
+    }
+
+    @Benchmark
+    public CupomResponse getCupomByCodeUncached() {
+        cupomCodeCache.invalidateAll();
+        return cupomService.getCupomByCode(existingCode);
+    }
+
+    /**
+     * Gera códigos únicos de 6 caracteres em base 36 a partir de um contador
+     */
+    private String nextCode() {
+        long value = sequence.getAndIncrement();
+        char[] code = new char[6];
+        for (int i = code.length - 1; i >= 0; i--) {
+            code[i] = ALPHABET.charAt((int) (value % ALPHABET.length()));
+            value /= ALPHABET.length();
+        }
+        return new String(code);
+    }
+
+    private static CupomRequest request(String code) {
+        return CupomRequest.builder()
+                .code(code)
+                .description("Cupom de benchmark")
+                .discountValue(new BigDecimal("10.00"))
+                .expirationDate(LocalDate.now().plusDays(30))
+                .published(false)
+                .build();
+    }
+}
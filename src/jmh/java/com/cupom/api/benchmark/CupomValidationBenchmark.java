@@ -0,0 +1,53 @@
+package com.cupom.api.benchmark;
+
+import com.cupom.api.entity.Cupom;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark das regras de validação da entidade {@link Cupom} (caminho feliz)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CupomValidationBenchmark {
+
+    private BigDecimal discountValue;
+    private LocalDate expirationDate;
+    private LocalDate today;
+
+    @Setup
+    public void setUp() {
+        discountValue = new BigDecimal("10.00");
+        today = LocalDate.now();
+        expirationDate = today.plusDays(30);
+    }
+
+    @Benchmark
+    public void validateDiscountValue(Blackhole blackhole) {
+        Cupom.validateDiscountValue(discountValue);
+        blackhole.consume(discountValue);
+    }
+
+    @Benchmark
+    public void validateExpirationDate(Blackhole blackhole) {
+        Cupom.validateExpirationDate(expirationDate, today);
+        blackhole.consume(expirationDate);
+    }
+}
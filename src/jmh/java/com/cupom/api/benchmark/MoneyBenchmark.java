@@ -0,0 +1,69 @@
+package com.cupom.api.benchmark;
+
+import com.cupom.api.entity.Cupom;
+import com.cupom.api.entity.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validação do desconto mínimo: centavos ({@link Money}) contra {@link BigDecimal} comparado com uma
+ * constante e contra {@code new BigDecimal("0.5")} a cada chamada (implementação original), além do
+ * custo de converter o valor recebido em centavos na borda.
+ * Comparar {@code gc.alloc.rate.norm} (profiler {@code gc}, padrão do perfil jmh).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyBenchmark {
+
+    private BigDecimal discountValue;
+    private long discountCents;
+
+    @Setup
+    public void setUp() {
+        discountValue = new BigDecimal("10.00");
+        discountCents = Money.toCents(discountValue);
+    }
+
+    @Benchmark
+    public boolean validateMinAllocating() {
+        // Implementação original de Cupom.validateDiscountValue
+        return discountValue.compareTo(new BigDecimal("0.5")) < 0;
+    }
+
+    @Benchmark
+    public boolean validateMinDecimalConstant() {
+        return discountValue.compareTo(Cupom.MIN_DISCOUNT_VALUE) < 0;
+    }
+
+    @Benchmark
+    public BigDecimal validateDiscountValue() {
+        Cupom.validateDiscountValue(discountValue);
+        return discountValue;
+    }
+
+    @Benchmark
+    public long validateDiscountCents() {
+        Cupom.validateDiscountCents(discountCents);
+        return discountCents;
+    }
+
+    @Benchmark
+    public long toCents() {
+        return Money.toCents(discountValue);
+    }
+}
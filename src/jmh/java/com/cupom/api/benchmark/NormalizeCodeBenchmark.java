@@ -0,0 +1,41 @@
+package com.cupom.api.benchmark;
+
+import com.cupom.api.entity.Cupom;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark de {@link Cupom#normalizeCode(String)} contra a implementação original com regex.
+ * Rodar com {@code -prof gc} para comparar alocação por operação.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NormalizeCodeBenchmark {
+
+    @Param({"ABC123", "abc-123", "AB@C-12#3!", "promo natal 2025 - desconto especial"})
+    private String rawCode;
+
+    @Benchmark
+    public String singlePass() {
+        return Cupom.normalizeCode(rawCode);
+    }
+
+    @Benchmark
+    public String regexBaseline() {
+        return rawCode.replaceAll("[^a-zA-Z0-9]", "").toUpperCase().substring(0, 6);
+    }
+}
@@ -0,0 +1,98 @@
+package com.cupom.api.service;
+
+import com.cupom.api.dto.CupomResponse;
+import com.cupom.api.entity.Cupom;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark do mapeamento entidade → DTO ({@link CupomService#mapToResponse(Cupom, LocalDate)})
+ * e da serialização Jackson de listas de {@link CupomResponse}.
+ * Fica no pacote do serviço para acessar o mapeamento, que é package-private.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CupomMappingBenchmark {
+
+    private Cupom cupom;
+    private LocalDate today;
+
+    @Setup
+    public void setUp() {
+        cupom = sampleCupom(1);
+        today = LocalDate.now();
+    }
+
+    @Benchmark
+    public CupomResponse mapToResponse() {
+        return CupomService.mapToResponse(cupom, today);
+    }
+
+    @Benchmark
+    public byte[] serializeResponseList(ResponseList list) throws Exception {
+        return list.objectMapper.writeValueAsBytes(list.responses);
+    }
+
+    /**
+     * Lista de respostas já mapeadas, parametrizada pelo tamanho
+     */
+    @State(Scope.Benchmark)
+    public static class ResponseList {
+
+        @Param({"1", "100", "1000"})
+        private int size;
+
+        private List<CupomResponse> responses;
+        private ObjectMapper objectMapper;
+
+        @Setup
+        public void setUp() {
+            // Mesma configuração de datas da aplicação Spring Boot
+            objectMapper = Jackson2ObjectMapperBuilder.json()
+                    .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                    .build();
+
+            responses = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                responses.add(CupomService.mapToResponse(sampleCupom(i), LocalDate.now()));
+            }
+        }
+    }
+
+    private static Cupom sampleCupom(long id) {
+        return Cupom.builder()
+                .id(id)
+                .code(String.format("C%05d", id % 100_000))
+                .description("Desconto de campanha número " + id)
+                .discountValue(new BigDecimal("10.00"))
+                .expirationDate(LocalDate.now().plusDays(30))
+                .published(id % 2 == 0)
+                .deleted(false)
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,109 @@
+package com.cupom.api.service;
+
+import com.cupom.api.CrudCupomApplication;
+import com.cupom.api.dto.CupomPageResponse;
+import com.cupom.api.dto.CupomResponse;
+import com.cupom.api.entity.Cupom;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara a leitura de uma página de cupons via entidades gerenciadas + {@link CupomService#mapToResponse}
+ * (caminho anterior) com a projeção direta em {@link CupomResponse} usada por {@link CupomService}.
+ * A alocação por operação aparece em {@code gc.alloc.rate.norm} (profiler {@code gc}, padrão do profile jmh).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CupomReadPathBenchmark {
+
+    private static final int ROWS = 50_000;
+
+    @Param({"100", "1000"})
+    public int limit;
+
+    private ConfigurableApplicationContext context;
+    private CupomService cupomService;
+    private EntityManager entityManager;
+    private TransactionTemplate readOnlyTransaction;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(CrudCupomApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                    "spring.datasource.url=jdbc:h2:mem:cupomreadpath;DB_CLOSE_DELAY=-1",
+                    "spring.jpa.show-sql=false",
+                    "spring.h2.console.enabled=false",
+                    "logging.level.root=WARN",
+                    "logging.level.com.cupom.api=WARN",
+                    "logging.level.org.hibernate.SQL=WARN"
+                )
+                .run();
+        cupomService = context.getBean(CupomService.class);
+        entityManager = context.getBean(EntityManager.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+
+        context.getBean(JdbcTemplate.class).update("INSERT INTO cupons (id, code, description, discount_value, "
+                + "expiration_date, published, used_count, deleted, created_at) "
+                + "SELECT X, 'R' || LPAD(CAST(X AS VARCHAR), 5, '0'), 'Cupom de benchmark', 10.00, "
+                + "DATEADD('DAY', MOD(X, 60) - 30, CURRENT_DATE), MOD(X, 2) = 0, 0, FALSE, CURRENT_TIMESTAMP "
+                + "FROM SYSTEM_RANGE(1, ?)", ROWS);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<CupomResponse> entityPage() {
+        long after = nextCursor();
+        return readOnlyTransaction.execute(status -> entityManager
+                .createQuery("SELECT c FROM Cupom c WHERE c.deleted = false AND c.id > :after ORDER BY c.id", Cupom.class)
+                .setParameter("after", after)
+                .setMaxResults(limit + 1)
+                .getResultList()
+                .stream()
+                .map(CupomService::mapToResponse)
+                .toList());
+    }
+
+    @Benchmark
+    public CupomPageResponse projectionPage() {
+        return cupomService.getActiveCuponsPage(nextCursor(), limit);
+    }
+
+    /**
+     * Cursor aleatório para o H2 não reaproveitar o resultado da execução anterior
+     */
+    private long nextCursor() {
+        return ThreadLocalRandom.current().nextLong(ROWS - limit);
+    }
+}
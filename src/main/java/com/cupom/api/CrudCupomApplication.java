@@ -5,11 +5,16 @@ import io.swagger.v3.oas.annotations.info.Contact;
 import io.swagger.v3.oas.annotations.info.Info;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.time.Clock;
 
 /**
  * Classe principal da aplicação CRUD Cupom
  */
 @SpringBootApplication
+@EnableScheduling
 @OpenAPIDefinition(
     info = @Info(
         title = "CRUD Cupom API",
@@ -26,4 +31,13 @@ public class CrudCupomApplication {
     public static void main(String[] args) {
         SpringApplication.run(CrudCupomApplication.class, args);
     }
+
+    /**
+     * Relógio da aplicação: cada requisição obtém a data corrente uma única vez a partir dele
+     * (substituível por {@link Clock#fixed} nos testes)
+     */
+    @Bean
+    public Clock clock() {
+        return Clock.systemDefaultZone();
+    }
 }
@@ -0,0 +1,286 @@
+package com.cupom.api.cache;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Filtro de Bloom dos códigos de cupons não deletados: responde "com certeza não existe" sem ir ao banco.
+ * REGRAS:
+ * - Sem falso negativo: código ausente do filtro não existe; código presente pode não existir
+ *   (taxa de falso positivo configurada em {@code cupom.code-filter.fpp})
+ * - Resposta negativa vira 404 sem consulta; só a positiva vai ao banco
+ * - Só recebe inclusões (após o commit); códigos deletados continuam no filtro até a próxima reconstrução,
+ *   o que só aumenta os falsos positivos (a busca cai no banco)
+ * - Só responde após a carga a partir da tabela ({@link #isReady()}); a reconstrução periódica descarta os
+ *   deletados e redimensiona o filtro se a quantidade de códigos passou da esperada
+ *
+ * Cerca de 1,2 byte por código com 1% de falso positivo, contra ~16 do {@link CupomCodeIndex}: alternativa
+ * para quando o índice exato não cabe em memória ({@code cupom.code-index.enabled=false}); enquanto o índice
+ * exato não está carregado, é ele que a busca consulta. Inclusões e consultas não usam lock (bits gravados com CAS).
+ */
+@Slf4j
+@Component
+public class CupomCodeBloomFilter implements MeterBinder {
+
+    private final boolean enabled;
+    private final long expectedInsertions;
+    private final double fpp;
+
+    private volatile Bits bits;
+    // Filtro em construção: recebe também as inclusões feitas durante a carga
+    private volatile Bits building;
+    private volatile boolean ready;
+
+    public CupomCodeBloomFilter(
+            // Por padrão, ligado só quando o índice exato está desligado (com ele carregado o filtro não é consultado)
+            @Value("${cupom.code-filter.enabled:#{!${cupom.code-index.enabled:true}}}") boolean enabled,
+            @Value("${cupom.code-filter.expected-insertions:1000000}") long expectedInsertions,
+            @Value("${cupom.code-filter.fpp:0.01}") double fpp) {
+        if (fpp <= 0 || fpp >= 1) {
+            throw new IllegalArgumentException("cupom.code-filter.fpp deve estar entre 0 e 1: " + fpp);
+        }
+        this.enabled = enabled;
+        this.expectedInsertions = Math.max(1, expectedInsertions);
+        this.fpp = fpp;
+        this.bits = enabled ? Bits.create(this.expectedInsertions, fpp) : Bits.create(1, fpp);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Indica se a carga a partir da tabela já terminou
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * {@code false} se com certeza não existe cupom não deletado com o código normalizado
+     */
+    public boolean mightContain(String normalizedCode) {
+        long packed = CupomCodeIndex.pack(normalizedCode);
+        return packed >= 0 && bits.mightContain(packed);
+    }
+
+    /**
+     * Inclui o código após o commit da transação
+     */
+    public void add(String normalizedCode) {
+        if (!enabled || normalizedCode == null) {
+            return;
+        }
+        long packed = CupomCodeIndex.pack(normalizedCode);
+        if (packed < 0) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    put(packed);
+                }
+            });
+        } else {
+            put(packed);
+        }
+    }
+
+    /**
+     * Inicia a (re)construção a partir da tabela. Se o filtro atual já recebeu mais códigos que o esperado,
+     * o novo é dimensionado para o dobro deles
+     */
+    public void beginLoad() {
+        long current = insertions();
+        building = Bits.create(current > expectedInsertions ? current * 2 : expectedInsertions, fpp);
+    }
+
+    /**
+     * Inclui um código lido da tabela no filtro em construção
+     */
+    public void load(String normalizedCode) {
+        long packed = CupomCodeIndex.pack(normalizedCode);
+        Bits target = building;
+        if (packed >= 0 && target != null) {
+            target.put(packed);
+        }
+    }
+
+    /**
+     * Troca o filtro atual pelo construído: o filtro passa a responder
+     */
+    public void finishLoad() {
+        Bits loaded = building;
+        if (loaded == null) {
+            return;
+        }
+        bits = loaded;
+        building = null;
+        ready = true;
+        log.info("Filtro de Bloom de códigos carregado: {} códigos, {} KB, {} funções de hash",
+            loaded.insertions.sum(), loaded.memoryBytes() / 1024, loaded.hashFunctions);
+    }
+
+    /**
+     * Descarta a construção em andamento (falha na leitura da tabela)
+     */
+    public void abortLoad() {
+        building = null;
+    }
+
+    /**
+     * Códigos incluídos no filtro atual (inclusive os já deletados)
+     */
+    public long insertions() {
+        return bits.insertions.sum();
+    }
+
+    /**
+     * Taxa de falso positivo estimada pela fração de bits ligados
+     */
+    public double estimatedFpp() {
+        return bits.estimatedFpp();
+    }
+
+    /**
+     * Memória dos bits do filtro atual
+     */
+    public long memoryBytes() {
+        return bits.memoryBytes();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (!enabled) {
+            return;
+        }
+        Gauge.builder("cupom.code.filter.fpp", this, filter -> filter.fpp)
+                .description("Taxa de falso positivo do filtro de Bloom de códigos")
+                .tag("type", "configured")
+                .register(registry);
+        Gauge.builder("cupom.code.filter.fpp", this, CupomCodeBloomFilter::estimatedFpp)
+                .description("Taxa de falso positivo do filtro de Bloom de códigos")
+                .tag("type", "estimated")
+                .register(registry);
+        Gauge.builder("cupom.code.filter.memory", this, CupomCodeBloomFilter::memoryBytes)
+                .description("Memória ocupada pelos bits do filtro de Bloom de códigos")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("cupom.code.filter.insertions", this, CupomCodeBloomFilter::insertions)
+                .description("Códigos incluídos no filtro de Bloom desde a última reconstrução")
+                .register(registry);
+    }
+
+    private void put(long packed) {
+        // Lê o filtro em construção antes do atual: se a troca acontecer no meio, o código chega ao novo de todo jeito
+        Bits target = building;
+        Bits current = bits;
+        current.put(packed);
+        if (target != null && target != current) {
+            target.put(packed);
+        }
+    }
+
+    /**
+     * Array de bits com k posições por código (hash duplo: h1 + i * h2)
+     */
+    private static final class Bits {
+
+        private final AtomicLongArray words;
+        private final long bitCount;
+        private final int hashFunctions;
+        private final LongAdder bitsSet = new LongAdder();
+        private final LongAdder insertions = new LongAdder();
+
+        private Bits(long bitCount, int hashFunctions) {
+            this.words = new AtomicLongArray((int) ((bitCount + 63) / 64));
+            this.bitCount = (long) words.length() * 64;
+            this.hashFunctions = hashFunctions;
+        }
+
+        /**
+         * Tamanho ótimo: m = -n ln p / (ln 2)^2 bits e k = m / n ln 2 funções
+         */
+        static Bits create(long expectedInsertions, double fpp) {
+            double ln2 = Math.log(2);
+            long bitCount = Math.max(64, (long) Math.ceil(-expectedInsertions * Math.log(fpp) / (ln2 * ln2)));
+            int hashFunctions = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * ln2));
+            return new Bits(Math.min(bitCount, (long) Integer.MAX_VALUE * 64), hashFunctions);
+        }
+
+        boolean mightContain(long packed) {
+            long hash = mix(packed);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashFunctions; i++) {
+                long bit = index(h1 + (long) i * h2);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        void put(long packed) {
+            long hash = mix(packed);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashFunctions; i++) {
+                long bit = index(h1 + (long) i * h2);
+                if (set((int) (bit >>> 6), 1L << bit)) {
+                    bitsSet.increment();
+                }
+            }
+            insertions.increment();
+        }
+
+        double estimatedFpp() {
+            return Math.pow((double) bitsSet.sum() / bitCount, hashFunctions);
+        }
+
+        long memoryBytes() {
+            return (long) words.length() * Long.BYTES;
+        }
+
+        private long index(long combined) {
+            return (combined & Long.MAX_VALUE) % bitCount;
+        }
+
+        /**
+         * Liga o bit com CAS; {@code true} se ele estava desligado
+         */
+        private boolean set(int word, long mask) {
+            long current;
+            do {
+                current = words.get(word);
+                if ((current & mask) != 0) {
+                    return false;
+                }
+            } while (!words.compareAndSet(word, current, current | mask));
+            return true;
+        }
+
+        /**
+         * Finalizador de 64 bits do MurmurHash3: espalha o código compactado pelos 64 bits
+         */
+        private static long mix(long value) {
+            long h = value;
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb9fe1a85ec53L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
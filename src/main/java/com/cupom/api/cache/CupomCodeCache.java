@@ -0,0 +1,156 @@
+package com.cupom.api.cache;
+
+import com.cupom.api.dto.CupomResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Cache em memória das buscas de cupom por código normalizado.
+ * REGRAS:
+ * - Limitado por tamanho e por tempo de vida (TTL)
+ * - Cache negativo: códigos inexistentes também são guardados, com TTL menor
+ * - Invalidação precisa por código, repetida após o commit da transação
+ * Hits, misses e evições também são publicados no Micrometer como cache {@code cupom.code}.
+ */
+@Slf4j
+@Component
+public class CupomCodeCache implements MeterBinder {
+
+    private final Cache<String, Optional<CupomResponse>> cache;
+
+    public CupomCodeCache(
+            @Value("${cupom.cache.code.maximum-size:10000}") long maximumSize,
+            @Value("${cupom.cache.code.ttl:PT5M}") Duration ttl,
+            @Value("${cupom.cache.code.negative-ttl:PT30S}") Duration negativeTtl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new PresenceAwareExpiry(ttl.toNanos(), negativeTtl.toNanos()))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Busca o cupom pelo código normalizado, carregando via {@code loader} em caso de miss.
+     * Chamadas concorrentes para o mesmo código compartilham um único carregamento.
+     */
+    public Optional<CupomResponse> get(String normalizedCode, Function<String, Optional<CupomResponse>> loader) {
+        return cache.get(normalizedCode, loader);
+    }
+
+    /**
+     * Busca vários códigos normalizados de uma vez; os ausentes do cache são carregados juntos por {@code loader},
+     * que deve devolver uma entrada para cada código pedido ({@code Optional.empty()} para os inexistentes)
+     */
+    public Map<String, Optional<CupomResponse>> getAll(
+            Collection<String> normalizedCodes,
+            Function<Set<? extends String>, Map<String, Optional<CupomResponse>>> loader) {
+        return cache.getAll(normalizedCodes, loader);
+    }
+
+    /**
+     * Invalida o código agora e novamente após o commit, evitando que uma leitura
+     * concorrente recoloque no cache o valor anterior à transação.
+     */
+    public void invalidate(String normalizedCode) {
+        cache.invalidate(normalizedCode);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(normalizedCode);
+                }
+            });
+        }
+        log.debug("Cache de código invalidado: {}", normalizedCode);
+    }
+
+    /**
+     * Invalida vários códigos de uma vez (agora e após o commit)
+     */
+    public void invalidateAll(Collection<String> normalizedCodes) {
+        cache.invalidateAll(normalizedCodes);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidateAll(normalizedCodes);
+                }
+            });
+        }
+        log.debug("Cache de código invalidado para {} códigos", normalizedCodes.size());
+    }
+
+    /**
+     * Remove todas as entradas do cache
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "cupom.code");
+    }
+
+    /**
+     * Contadores acumulados de hits, misses e evições
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    /**
+     * Quantidade aproximada de entradas no cache
+     */
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    /**
+     * Expiração distinta para entradas positivas (cupom encontrado) e negativas (não encontrado)
+     */
+    private static final class PresenceAwareExpiry implements Expiry<String, Optional<CupomResponse>> {
+
+        private final long ttlNanos;
+        private final long negativeTtlNanos;
+
+        private PresenceAwareExpiry(long ttlNanos, long negativeTtlNanos) {
+            this.ttlNanos = ttlNanos;
+            this.negativeTtlNanos = negativeTtlNanos;
+        }
+
+        @Override
+        public long expireAfterCreate(String key, Optional<CupomResponse> value, long currentTime) {
+            return value.isPresent() ? ttlNanos : negativeTtlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Optional<CupomResponse> value,
+                                      long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Optional<CupomResponse> value,
+                                    long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
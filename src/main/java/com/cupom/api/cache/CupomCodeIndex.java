@@ -0,0 +1,441 @@
+package com.cupom.api.cache;
+
+import com.cupom.api.entity.Cupom;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Índice compacto em memória dos códigos de cupons não deletados: código → ID e estados.
+ * REGRAS:
+ * - O código normalizado (6 caracteres em [0-9A-Z]) vira um número base 36 (< 36^6, cabe em 32 bits sem sinal)
+ * - Tabela hash de endereçamento aberto sobre dois arrays primitivos ({@code int} do código e {@code long}
+ *   com ID e estados): 12 bytes por posição, sem objeto por cupom e sem pressão no GC
+ * - Alterações são aplicadas após o commit da transação
+ * - Só responde após a carga inicial a partir da tabela ({@link #isReady()}); antes disso quem consulta
+ *   deve usar o banco
+ * - É uma dica, não a fonte da verdade: reflete as escritas desta instância (eventos perdidos, outras instâncias
+ *   e escritas fora da aplicação não chegam aqui). A duplicidade é decidida pelo índice único do banco e a
+ *   ausência de um código é confirmada no banco; a recarga periódica ({@link #beginLoad()}) corrige o índice
+ *
+ * Leituras usam leitura otimista ({@link StampedLock}) e não bloqueiam; escritas são serializadas.
+ */
+@Slf4j
+@Component
+public class CupomCodeIndex implements MeterBinder {
+
+    /**
+     * Resultado de {@link #find} para código ausente
+     */
+    public static final long ABSENT = -1L;
+
+    static final long PUBLISHED = 1L;
+    static final long EXPIRED = 2L;
+    private static final int STATE_BITS = 2;
+
+    private static final int CODE_RADIX = 36;
+
+    /**
+     * Ocupação máxima da tabela antes de dobrar de tamanho
+     */
+    private static final double MAX_LOAD = 0.75;
+
+    /**
+     * Desligado, o índice não é carregado nem mantido (a busca por código usa o {@link CupomCodeBloomFilter})
+     */
+    @Value("${cupom.code-index.enabled:true}")
+    private boolean enabled = true;
+
+    private final StampedLock lock = new StampedLock();
+    private final LongAdder mismatches = new LongAdder();
+    private volatile Table table;
+    private volatile boolean ready;
+    // Tabela em construção pela carga (a atual continua respondendo até a troca); sob o lock
+    private Table loading;
+    // Códigos alterados durante a carga (a leitura da tabela pode ser anterior a eles) → ID da última escrita
+    private Map<Integer, Long> touchedDuringLoad;
+
+    public CupomCodeIndex(@Value("${cupom.code-index.initial-capacity:65536}") int initialCapacity) {
+        this.table = new Table(Integer.highestOneBit(Math.max(16, initialCapacity - 1)) << 1);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Indica se a carga inicial já terminou
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Indica se existe cupom não deletado com o código normalizado
+     */
+    public boolean contains(String normalizedCode) {
+        return find(normalizedCode) != ABSENT;
+    }
+
+    /**
+     * ID e estados do cupom com o código normalizado ({@link #ABSENT} se não houver);
+     * decodificar com {@link #idOf}, {@link #isPublished} e {@link #isExpired}
+     */
+    public long find(String normalizedCode) {
+        int key = key(normalizedCode);
+        if (key == 0) {
+            return ABSENT;
+        }
+        long stamp = lock.tryOptimisticRead();
+        long entry = table.get(key);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                entry = table.get(key);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return entry;
+    }
+
+    public static long idOf(long entry) {
+        return entry >>> STATE_BITS;
+    }
+
+    public static boolean isPublished(long entry) {
+        return (entry & PUBLISHED) != 0;
+    }
+
+    public static boolean isExpired(long entry) {
+        return (entry & EXPIRED) != 0;
+    }
+
+    /**
+     * Registra o estado atual do cupom após o commit: deletados saem do índice, os demais entram ou são atualizados
+     */
+    public void apply(Long id, String code, boolean published, boolean deleted, boolean expired) {
+        if (!enabled || id == null || code == null) {
+            return;
+        }
+        int key = key(code);
+        if (key == 0) {
+            return;
+        }
+        long entry = entry(id, published, expired);
+        afterCommit(() -> write(key, id, deleted ? ABSENT : entry));
+    }
+
+    /**
+     * Remove o código após o commit, se ainda pertencer ao cupom informado
+     */
+    public void remove(Long id, String code) {
+        apply(id, code, false, true, false);
+    }
+
+    /**
+     * Inicia a (re)carga a partir da tabela em uma tabela nova; a atual continua respondendo até
+     * {@link #finishLoad()}, e as alterações feitas até lá prevalecem sobre as linhas carregadas
+     */
+    public void beginLoad() {
+        long stamp = lock.writeLock();
+        try {
+            loading = new Table(table.keys.length);
+            touchedDuringLoad = new HashMap<>();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Carrega um cupom não deletado lido da tabela
+     */
+    public void load(long id, String code, boolean published, boolean expired) {
+        int key = key(code);
+        if (key == 0) {
+            return;
+        }
+        long stamp = lock.writeLock();
+        try {
+            if (loading != null) {
+                loading = put(loading, key, entry(id, published, expired));
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Conclui a carga: aplica à tabela carregada as alterações feitas durante a leitura e a troca pela atual.
+     * Códigos que saíram da tabela desde a carga anterior (deletados fora da aplicação) deixam o índice aqui.
+     */
+    public void finishLoad() {
+        long stamp = lock.writeLock();
+        try {
+            if (loading == null) {
+                return;
+            }
+            Table loaded = loading;
+            for (Map.Entry<Integer, Long> touched : touchedDuringLoad.entrySet()) {
+                int key = touched.getKey();
+                long current = table.get(key);
+                if (current != ABSENT) {
+                    loaded = put(loaded, key, current);
+                } else {
+                    // Removido durante a carga: só sai se a linha carregada for do mesmo cupom
+                    long read = loaded.get(key);
+                    if (read != ABSENT && idOf(read) == touched.getValue()) {
+                        loaded.remove(key);
+                    }
+                }
+            }
+            table = loaded;
+            loading = null;
+            touchedDuringLoad = null;
+            ready = true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        log.info("Índice de códigos carregado: {} cupons, {} posições", size(), table.keys.length);
+    }
+
+    /**
+     * Descarta a carga em andamento (falha na leitura da tabela); a tabela atual continua respondendo
+     */
+    public void abortLoad() {
+        long stamp = lock.writeLock();
+        try {
+            loading = null;
+            touchedDuringLoad = null;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Registra um código que o índice dava como existente e o banco não encontrou
+     */
+    public void recordMismatch() {
+        mismatches.increment();
+    }
+
+    /**
+     * Códigos que o índice dava como existentes e o banco não encontrou
+     */
+    public long mismatches() {
+        return mismatches.sum();
+    }
+
+    /**
+     * Quantidade de códigos no índice
+     */
+    public int size() {
+        return table.size;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("cupom.code.index.size", this, CupomCodeIndex::size)
+                .description("Códigos de cupons não deletados no índice compacto em memória")
+                .register(registry);
+        FunctionCounter.builder("cupom.code.index.mismatches", this, CupomCodeIndex::mismatches)
+                .description("Códigos que o índice de códigos dava como existentes e o banco não encontrou")
+                .register(registry);
+    }
+
+    /**
+     * Código normalizado como número base 36 (dígitos valem 0-9 e letras 10-35);
+     * -1 se o código não estiver normalizado
+     */
+    static long pack(String normalizedCode) {
+        if (normalizedCode.length() != Cupom.CODE_LENGTH) {
+            return -1;
+        }
+        long packed = 0;
+        for (int i = 0; i < Cupom.CODE_LENGTH; i++) {
+            char c = normalizedCode.charAt(i);
+            int digit;
+            if (c >= '0' && c <= '9') {
+                digit = c - '0';
+            } else if (c >= 'A' && c <= 'Z') {
+                digit = c - 'A' + 10;
+            } else {
+                return -1;
+            }
+            packed = packed * CODE_RADIX + digit;
+        }
+        return packed;
+    }
+
+    /**
+     * Inverso de {@link #pack(String)}: código normalizado do número base 36 (0 até 36^6 - 1)
+     */
+    static String unpack(long packed) {
+        char[] code = new char[Cupom.CODE_LENGTH];
+        long remaining = packed;
+        for (int i = Cupom.CODE_LENGTH - 1; i >= 0; i--) {
+            int digit = (int) (remaining % CODE_RADIX);
+            code[i] = (char) (digit < 10 ? '0' + digit : 'A' + digit - 10);
+            remaining /= CODE_RADIX;
+        }
+        return new String(code);
+    }
+
+    /**
+     * Chave da tabela: código compactado + 1 (0 marca posição vazia), em 32 bits sem sinal.
+     * Código não normalizado vira 0: nunca é encontrado nem gravado (a busca por código só usa normalizados)
+     */
+    private static int key(String normalizedCode) {
+        return (int) (pack(normalizedCode) + 1);
+    }
+
+    private static long entry(long id, boolean published, boolean expired) {
+        return (id << STATE_BITS) | (published ? PUBLISHED : 0) | (expired ? EXPIRED : 0);
+    }
+
+    private void write(int key, long id, long entry) {
+        long stamp = lock.writeLock();
+        try {
+            if (touchedDuringLoad != null) {
+                touchedDuringLoad.put(key, id);
+            }
+            if (entry != ABSENT) {
+                table = put(table, key, entry);
+            } else {
+                // Só remove se o código ainda for do mesmo cupom (pode ter sido recriado por outro)
+                long current = table.get(key);
+                if (current != ABSENT && idOf(current) == id) {
+                    table.remove(key);
+                }
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Insere ou substitui, dobrando a tabela quando a ocupação passa de {@link #MAX_LOAD} (sob o lock de escrita)
+     *
+     * @return a tabela com a chave (a própria ou a nova, maior)
+     */
+    private static Table put(Table target, int key, long entry) {
+        Table current = target;
+        if (current.size + 1 > current.keys.length * MAX_LOAD) {
+            current = current.resized();
+        }
+        current.put(key, entry);
+        return current;
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+
+    /**
+     * Tabela de endereçamento aberto com sondagem linear; remoção por deslocamento para trás (sem lápides)
+     */
+    private static final class Table {
+
+        private final int[] keys;
+        private final long[] entries;
+        private final int mask;
+        private int size;
+
+        Table(int capacity) {
+            this.keys = new int[capacity];
+            this.entries = new long[capacity];
+            this.mask = capacity - 1;
+        }
+
+        long get(int key) {
+            // Limitado ao tamanho da tabela: uma leitura otimista concorrente com escrita não entra em laço infinito
+            for (int i = home(key), probes = 0; probes <= mask; i = (i + 1) & mask, probes++) {
+                int current = keys[i];
+                if (current == 0) {
+                    return ABSENT;
+                }
+                if (current == key) {
+                    return entries[i];
+                }
+            }
+            return ABSENT;
+        }
+
+        void put(int key, long entry) {
+            int i = home(key);
+            while (keys[i] != 0 && keys[i] != key) {
+                i = (i + 1) & mask;
+            }
+            if (keys[i] == 0) {
+                keys[i] = key;
+                size++;
+            }
+            entries[i] = entry;
+        }
+
+        void remove(int key) {
+            int i = home(key);
+            while (keys[i] != key) {
+                if (keys[i] == 0) {
+                    return;
+                }
+                i = (i + 1) & mask;
+            }
+            size--;
+            // Puxa para a posição liberada as chaves seguintes cuja posição de origem não está entre ela e a chave
+            int free = i;
+            for (int j = (free + 1) & mask; keys[j] != 0; j = (j + 1) & mask) {
+                int origin = home(keys[j]);
+                boolean reachable = free <= j ? (origin <= free || origin > j) : (origin <= free && origin > j);
+                if (reachable) {
+                    keys[free] = keys[j];
+                    entries[free] = entries[j];
+                    free = j;
+                }
+            }
+            keys[free] = 0;
+            entries[free] = 0;
+        }
+
+        Table resized() {
+            Table bigger = new Table(keys.length << 1);
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != 0) {
+                    bigger.put(keys[i], entries[i]);
+                }
+            }
+            return bigger;
+        }
+
+        private int home(int key) {
+            // Espalha os bits (finalizador do MurmurHash3): códigos sequenciais não formam agrupamentos
+            int h = key;
+            h ^= h >>> 16;
+            h *= 0x85ebca6b;
+            h ^= h >>> 13;
+            h *= 0xc2b2ae35;
+            h ^= h >>> 16;
+            return h & mask;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.cupom.api.cache;
+
+import com.cupom.api.entity.Cupom;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Mantém o {@link CupomCodeIndex}, o {@link CupomCodeBloomFilter} e o {@link CupomCodeSpace} em dia com as
+ * escritas via JPA (inclusive {@code save} direto no repositório).
+ * As escritas por UPDATE nativo (soft delete, publicação, operações em lote, expiração) não passam por aqui:
+ * chegam pelo {@link com.cupom.api.event.CupomChangedEvent}.
+ *
+ * Instanciado pelo Hibernate através do contêiner de beans do Spring.
+ */
+@Component
+@RequiredArgsConstructor
+public class CupomCodeIndexListener {
+
+    private final CupomCodeIndex cupomCodeIndex;
+    private final CupomCodeBloomFilter cupomCodeBloomFilter;
+    private final CupomCodeSpace cupomCodeSpace;
+
+    @PostPersist
+    @PostUpdate
+    public void onSaved(Cupom cupom) {
+        boolean deleted = Boolean.TRUE.equals(cupom.getDeleted());
+        cupomCodeIndex.apply(cupom.getId(), cupom.getCode(), Boolean.TRUE.equals(cupom.getPublished()),
+                deleted, Boolean.TRUE.equals(cupom.getExpired()));
+        if (!deleted) {
+            cupomCodeBloomFilter.add(cupom.getCode());
+        }
+        // Marca já no flush, antes do commit: um código que acabe desfeito só deixa de ser gerado
+        cupomCodeSpace.occupy(cupom.getCode());
+    }
+
+    @PostRemove
+    public void onRemoved(Cupom cupom) {
+        cupomCodeIndex.remove(cupom.getId(), cupom.getCode());
+    }
+}
@@ -0,0 +1,172 @@
+package com.cupom.api.cache;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ocupação do espaço de códigos (36^6 códigos de 6 caracteres [A-Z0-9]) para a geração de códigos no servidor:
+ * um bit por código, indexado pelo código compactado em base 36 ({@link CupomCodeIndex#pack(String)}).
+ * REGRAS:
+ * - Bit ligado = código ocupado (cupom não deletado, gerado nesta execução ou criado desde o início da carga)
+ * - Só liga bits: códigos deletados continuam ocupados até reiniciar a aplicação (o gerador apenas não os reusa)
+ * - {@link #tryClaim(long)} reserva o código com CAS: dois jobs simultâneos nunca recebem o mesmo código
+ *
+ * Os bits ficam em páginas de 8 KB (65.536 códigos) alocadas sob demanda: até ~272 MB com o espaço inteiro
+ * tocado, e nada enquanto o gerador não é usado (a carga só acontece no primeiro job de geração).
+ * O índice único do banco continua sendo a garantia (outras instâncias, escritas fora da JPA).
+ */
+@Slf4j
+@Component
+public class CupomCodeSpace implements MeterBinder {
+
+    /**
+     * Quantidade de códigos possíveis: 36^6
+     */
+    public static final long SIZE = 2_176_782_336L;
+
+    private static final int PAGE_SHIFT = 16;
+    private static final int PAGE_WORDS = (1 << PAGE_SHIFT) / Long.SIZE;
+
+    private final AtomicReferenceArray<AtomicLongArray> pages =
+        new AtomicReferenceArray<>((int) ((SIZE + (1L << PAGE_SHIFT) - 1) >>> PAGE_SHIFT));
+    private final LongAdder occupied = new LongAdder();
+    private final LongAdder allocatedPages = new LongAdder();
+
+    // Escritas via JPA só são acompanhadas a partir do início da carga (antes disso ninguém consulta)
+    private volatile boolean tracking;
+    private volatile boolean ready;
+
+    /**
+     * Indica se a carga a partir da tabela já terminou
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Marca o código como ocupado (escrita via JPA); ignorado enquanto a carga não começou
+     */
+    public void occupy(String normalizedCode) {
+        if (tracking && normalizedCode != null) {
+            set(CupomCodeIndex.pack(normalizedCode));
+        }
+    }
+
+    public boolean isOccupied(String normalizedCode) {
+        long packed = CupomCodeIndex.pack(normalizedCode);
+        if (packed < 0) {
+            return false;
+        }
+        AtomicLongArray page = pages.get((int) (packed >>> PAGE_SHIFT));
+        return page != null && (page.get(word(packed)) & mask(packed)) != 0;
+    }
+
+    /**
+     * Reserva o código compactado (0 até {@link #SIZE} - 1) se estiver livre
+     *
+     * @return {@code false} se o código já estava ocupado
+     */
+    public boolean tryClaim(long packed) {
+        return set(packed);
+    }
+
+    /**
+     * Código normalizado do número base 36 reservado por {@link #tryClaim(long)}
+     */
+    public static String toCode(long packed) {
+        return CupomCodeIndex.unpack(packed);
+    }
+
+    /**
+     * Inicia a carga a partir da tabela: a partir daqui as escritas via JPA também marcam códigos
+     */
+    public void beginLoad() {
+        tracking = true;
+    }
+
+    /**
+     * Marca um código lido da tabela
+     */
+    public void load(String normalizedCode) {
+        set(CupomCodeIndex.pack(normalizedCode));
+    }
+
+    public void finishLoad() {
+        ready = true;
+        log.info("Espaço de códigos carregado: {} códigos ocupados, {} KB", occupied(), memoryBytes() / 1024);
+    }
+
+    /**
+     * Códigos marcados como ocupados
+     */
+    public long occupied() {
+        return occupied.sum();
+    }
+
+    /**
+     * Memória das páginas já alocadas
+     */
+    public long memoryBytes() {
+        return allocatedPages.sum() * PAGE_WORDS * Long.BYTES;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("cupom.code.space.occupied", this, CupomCodeSpace::occupied)
+                .description("Códigos marcados como ocupados no espaço de códigos do gerador")
+                .register(registry);
+        Gauge.builder("cupom.code.space.memory", this, CupomCodeSpace::memoryBytes)
+                .description("Memória das páginas alocadas do espaço de códigos do gerador")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    /**
+     * Liga o bit do código com CAS, alocando a página se preciso; {@code true} se ele estava desligado
+     */
+    private boolean set(long packed) {
+        if (packed < 0 || packed >= SIZE) {
+            return false;
+        }
+        AtomicLongArray page = page((int) (packed >>> PAGE_SHIFT));
+        int word = word(packed);
+        long mask = mask(packed);
+        long current;
+        do {
+            current = page.get(word);
+            if ((current & mask) != 0) {
+                return false;
+            }
+        } while (!page.compareAndSet(word, current, current | mask));
+        occupied.increment();
+        return true;
+    }
+
+    private AtomicLongArray page(int index) {
+        AtomicLongArray page = pages.get(index);
+        if (page == null) {
+            AtomicLongArray allocated = new AtomicLongArray(PAGE_WORDS);
+            if (pages.compareAndSet(index, null, allocated)) {
+                allocatedPages.increment();
+                return allocated;
+            }
+            page = pages.get(index);
+        }
+        return page;
+    }
+
+    private static int word(long packed) {
+        return (int) ((packed >>> 6) & (PAGE_WORDS - 1));
+    }
+
+    private static long mask(long packed) {
+        return 1L << packed;
+    }
+}
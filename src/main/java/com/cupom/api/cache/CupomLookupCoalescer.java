@@ -0,0 +1,45 @@
+package com.cupom.api.cache;
+
+import com.cupom.api.dto.CupomResponse;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Buscas concorrentes do mesmo cupom por ID compartilham uma única ida ao banco: em vez de uma consulta por
+ * requisição, uma consulta por ID, cujo resultado (ou exceção) vale para todas que chegaram enquanto ela estava
+ * em andamento. A busca por código não passa por aqui: o {@link CupomCodeCache} já compartilha a carga em
+ * andamento para o mesmo código.
+ * Chamadas aproveitadas são publicadas no Micrometer em {@code cupom.lookup.coalesced}.
+ */
+@Component
+public class CupomLookupCoalescer implements MeterBinder {
+
+    private final SingleFlight<Long, Optional<CupomResponse>> byId = new SingleFlight<>();
+
+    /**
+     * Busca por ID, compartilhando a busca já em andamento para o mesmo ID
+     */
+    public Optional<CupomResponse> byId(Long id, Supplier<Optional<CupomResponse>> loader) {
+        return byId.execute(id, loader);
+    }
+
+    /**
+     * Total de chamadas que aproveitaram uma busca em andamento
+     */
+    public long coalescedCount() {
+        return byId.coalescedCount();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("cupom.lookup.coalesced", byId, SingleFlight::coalescedCount)
+                .description("Buscas de cupom que aproveitaram uma busca em andamento para a mesma chave")
+                .tag("key", "id")
+                .register(registry);
+    }
+}
@@ -0,0 +1,177 @@
+package com.cupom.api.cache;
+
+import com.cupom.api.dto.CupomResponse;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Snapshot em memória dos cupons publicados e ativos, por código normalizado (near-cache do checkout).
+ * REGRAS:
+ * - O snapshot é imutável e trocado inteiro (leituras sem lock e sempre consistentes); quem consulta
+ *   recebe uma cópia do cupom, nunca a instância guardada
+ * - Alterações que chegam enquanto uma troca está em andamento são aplicadas juntas na troca seguinte:
+ *   uma cópia do mapa por rajada de alterações, não por alteração
+ * - Só contém cupons publicados, não deletados e não expirados na data da carga; a data de expiração
+ *   é conferida de novo na leitura, para a virada do dia
+ * - Alterações de cupons chegam por evento ({@link #apply}); a recarga completa ({@link #replace})
+ *   garante a convergência caso algum evento se perca ou chegue fora de ordem
+ */
+@Slf4j
+@Component
+public class PublishedCupomSnapshot implements MeterBinder {
+
+    private volatile Snapshot snapshot = new Snapshot(Map.of(), Map.of());
+    private volatile boolean loaded;
+
+    /**
+     * Trocas do snapshot são serializadas; as leituras não usam o lock
+     */
+    private final Object writeLock = new Object();
+    // Alterações ainda não aplicadas, na ordem de chegada
+    private final Queue<Change> changes = new ConcurrentLinkedQueue<>();
+    // IDs alterados desde o início da recarga em andamento (null fora de recarga)
+    private Set<Long> changedDuringReload;
+
+    /**
+     * Indica se o snapshot já foi carregado da tabela (antes disso quem consulta deve usar o banco)
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Cupom publicado e ativo em {@code today} com o código normalizado (cópia da entrada do snapshot)
+     */
+    public Optional<CupomResponse> find(String normalizedCode, LocalDate today) {
+        CupomResponse cupom = snapshot.byCode().get(normalizedCode);
+        if (cupom == null || cupom.getExpirationDate().isBefore(today)) {
+            return Optional.empty();
+        }
+        return Optional.of(cupom.toBuilder().build());
+    }
+
+    /**
+     * Marca o início de uma recarga completa: as alterações aplicadas até o {@link #replace}
+     * são devolvidas por ele para serem reaplicadas sobre a carga
+     */
+    public void beginReload() {
+        synchronized (writeLock) {
+            changedDuringReload = new HashSet<>();
+        }
+    }
+
+    /**
+     * Substitui o snapshot pelos cupons carregados da tabela
+     *
+     * @return IDs alterados durante a carga (a leitura da tabela pode ser anterior a eles)
+     */
+    public Set<Long> replace(Collection<CupomResponse> cupons) {
+        Map<String, CupomResponse> byCode = new HashMap<>();
+        Map<Long, String> codeById = new HashMap<>();
+        for (CupomResponse cupom : cupons) {
+            if (isPublishedAndActive(cupom)) {
+                byCode.put(cupom.getCode(), cupom);
+                codeById.put(cupom.getId(), cupom.getCode());
+            }
+        }
+
+        synchronized (writeLock) {
+            // Alterações ainda na fila são de antes da troca: entram no snapshot novo
+            Map<String, CupomResponse> pendingByCode = new HashMap<>(byCode);
+            Map<Long, String> pendingCodeById = new HashMap<>(codeById);
+            drain(pendingByCode, pendingCodeById);
+            snapshot = new Snapshot(Map.copyOf(pendingByCode), Map.copyOf(pendingCodeById));
+            loaded = true;
+            Set<Long> changed = changedDuringReload != null ? changedDuringReload : Set.of();
+            changedDuringReload = null;
+            log.debug("Snapshot de cupons publicados recarregado: {} cupons", pendingByCode.size());
+            return changed;
+        }
+    }
+
+    /**
+     * Aplica o estado atual dos cupons alterados: {@code current} traz os que ainda existem
+     * (publicados e ativos entram, os demais saem); IDs ausentes de {@code current} saem do snapshot.
+     * Ao retornar, a alteração já está visível; se outra troca estava em andamento, esta e as que chegaram
+     * junto são aplicadas numa única cópia do mapa
+     */
+    public void apply(Collection<Long> changedIds, Collection<CupomResponse> current) {
+        changes.add(new Change(changedIds, current));
+        synchronized (writeLock) {
+            if (changes.isEmpty()) {
+                // Já aplicada pela troca de quem tinha o lock
+                return;
+            }
+            Snapshot previous = snapshot;
+            Map<String, CupomResponse> byCode = new HashMap<>(previous.byCode());
+            Map<Long, String> codeById = new HashMap<>(previous.codeById());
+            drain(byCode, codeById);
+            snapshot = new Snapshot(Map.copyOf(byCode), Map.copyOf(codeById));
+        }
+    }
+
+    /**
+     * Quantidade de cupons no snapshot
+     */
+    public int size() {
+        return snapshot.byCode().size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("cupom.published.snapshot.size", this, PublishedCupomSnapshot::size)
+                .description("Cupons publicados e ativos no snapshot em memória do checkout")
+                .register(registry);
+    }
+
+    /**
+     * Aplica aos mapas as alterações da fila, na ordem de chegada (sob o lock)
+     */
+    private void drain(Map<String, CupomResponse> byCode, Map<Long, String> codeById) {
+        Change change;
+        while ((change = changes.poll()) != null) {
+            if (changedDuringReload != null) {
+                changedDuringReload.addAll(change.ids());
+            }
+            for (Long id : change.ids()) {
+                String code = codeById.remove(id);
+                if (code != null) {
+                    byCode.remove(code);
+                }
+            }
+            for (CupomResponse cupom : change.current()) {
+                if (isPublishedAndActive(cupom)) {
+                    // Código reaproveitado por outro cupom (o anterior foi deletado)
+                    CupomResponse replaced = byCode.put(cupom.getCode(), cupom);
+                    if (replaced != null && !replaced.getId().equals(cupom.getId())) {
+                        codeById.remove(replaced.getId());
+                    }
+                    codeById.put(cupom.getId(), cupom.getCode());
+                }
+            }
+        }
+    }
+
+    private static boolean isPublishedAndActive(CupomResponse cupom) {
+        return Boolean.TRUE.equals(cupom.getPublished()) && Boolean.TRUE.equals(cupom.getActive());
+    }
+
+    private record Snapshot(Map<String, CupomResponse> byCode, Map<Long, String> codeById) {
+    }
+
+    private record Change(Collection<Long> ids, Collection<CupomResponse> current) {
+    }
+}
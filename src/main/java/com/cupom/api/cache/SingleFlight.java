@@ -0,0 +1,76 @@
+package com.cupom.api.cache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Deduplicação de carregamentos em andamento por chave (single-flight).
+ * REGRAS:
+ * - A primeira chamada para a chave executa o carregamento na própria thread
+ * - Chamadas concorrentes para a mesma chave esperam esse carregamento e recebem o mesmo resultado
+ *   ou a mesma exceção
+ * - Nada é guardado depois que o carregamento termina: a próxima chamada carrega de novo (cache é com quem chama)
+ *
+ * O carregamento não pode pedir a mesma chave de novo na mesma thread (esperaria por si mesmo).
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder coalesced = new LongAdder();
+
+    /**
+     * Executa {@code loader} para a chave, ou espera o carregamento já em andamento para ela
+     */
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> pending = inFlight.putIfAbsent(key, mine);
+        if (pending != null) {
+            coalesced.increment();
+            return await(pending);
+        }
+
+        try {
+            V value = loader.get();
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /**
+     * Chamadas que aproveitaram um carregamento em andamento em vez de executar o próprio
+     */
+    public long coalescedCount() {
+        return coalesced.sum();
+    }
+
+    /**
+     * Chaves com carregamento em andamento
+     */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private static <V> V await(CompletableFuture<V> pending) {
+        try {
+            return pending.join();
+        } catch (CompletionException e) {
+            // Exceção do carregamento compartilhado, sem o invólucro do CompletableFuture
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
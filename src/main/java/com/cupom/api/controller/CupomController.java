@@ -1,13 +1,41 @@
 package com.cupom.api.controller;
 
+import com.cupom.api.dto.CacheStatsResponse;
+import com.cupom.api.dto.CupomBatchRequest;
+import com.cupom.api.dto.CupomBatchResponse;
+import com.cupom.api.dto.CupomBulkProgress;
+import com.cupom.api.dto.CupomBulkRequest;
+import com.cupom.api.dto.CupomCodeLookupRequest;
+import com.cupom.api.dto.CupomCodeLookupResponse;
+import com.cupom.api.dto.CupomGenerateRequest;
+import com.cupom.api.dto.CupomPageResponse;
+import com.cupom.api.dto.CupomRedemptionRequest;
+import com.cupom.api.dto.CupomRedemptionResponse;
 import com.cupom.api.dto.CupomRequest;
 import com.cupom.api.dto.CupomResponse;
+import com.cupom.api.dto.CupomSearchRequest;
+import com.cupom.api.dto.CupomSearchResult;
+import com.cupom.api.repository.projection.CupomRevision;
+import com.cupom.api.service.CupomBatchService;
+import com.cupom.api.service.CupomBulkService;
+import com.cupom.api.service.CupomCodeGeneratorService;
+import com.cupom.api.service.CupomCodeLookupService;
+import com.cupom.api.service.CupomRedemptionService;
+import com.cupom.api.service.CupomSearchService;
 import com.cupom.api.service.CupomService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -15,10 +43,20 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Controller REST para gerenciamento de cupons
@@ -29,7 +67,18 @@ import java.util.List;
 @RequiredArgsConstructor
 public class CupomController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final String NDJSON_MEDIA_TYPE = "application/x-ndjson";
+
     private final CupomService cupomService;
+    private final CupomBatchService cupomBatchService;
+    private final CupomCodeLookupService cupomCodeLookupService;
+    private final CupomBulkService cupomBulkService;
+    private final CupomCodeGeneratorService cupomCodeGeneratorService;
+    private final CupomRedemptionService cupomRedemptionService;
+    private final CupomSearchService cupomSearchService;
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
 
     @Operation(summary = "Criar cupom", description = "Cria um novo cupom de desconto")
     @PostMapping
@@ -38,54 +87,250 @@ public class CupomController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
-    @Operation(summary = "Listar cupons ativos", description = "Lista todos os cupons ativos (não deletados)")
+    @Operation(summary = "Criar cupons em lote",
+            description = "Cria vários cupons em uma única transação com INSERTs em batch; "
+                    + "retorna o resultado de cada item (CREATED, DUPLICATE ou INVALID)")
+    @PostMapping("/batch")
+    public ResponseEntity<CupomBatchResponse> createCupons(@Valid @RequestBody CupomBatchRequest request) {
+        CupomBatchResponse response = cupomBatchService.createCupons(request.getCupons());
+        return ResponseEntity.ok(response);
+    }
+
+    @Operation(summary = "Gerar cupons",
+            description = "Cria a quantidade pedida de cupons com códigos únicos gerados pelo servidor, em blocos com "
+                    + "transação própria; cada bloco confirmado envia em NDJSON os códigos criados, os totais e a vazão")
+    @PostMapping(value = "/generate", produces = NDJSON_MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> generateCupons(@Valid @RequestBody CupomGenerateRequest request) {
+        cupomCodeGeneratorService.validate(request);
+        return ndjson(consumer -> cupomCodeGeneratorService.generate(request, consumer::accept));
+    }
+
+    @Operation(summary = "Listar cupons ativos",
+            description = "Lista cupons ativos (não deletados) paginados por cursor. "
+                    + "O cabeçalho X-Next-Cursor traz o valor de 'after' da próxima página.")
     @GetMapping
-    public ResponseEntity<List<CupomResponse>> getAllActiveCupons() {
-        List<CupomResponse> cupons = cupomService.getAllActiveCupons();
-        return ResponseEntity.ok(cupons);
+    public ResponseEntity<List<CupomResponse>> getActiveCupons(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "" + CupomService.DEFAULT_PAGE_LIMIT) int limit) {
+        CupomPageResponse page = cupomService.getActiveCuponsPage(after, limit);
+        // Só ETag: a remoção de um item muda a página sem aumentar a maior data de modificação
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(CupomHttpValidators.etag(page.getItems(), page.getNextCursor()))
+                .cacheControl(CupomHttpValidators.CACHE_CONTROL);
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor().toString());
+        }
+        return response.body(page.getItems());
+    }
+
+    @Operation(summary = "Buscar cupons por filtros",
+            description = "Busca cupons não deletados por prefixo de código, termo na descrição (q), faixa de desconto, "
+                    + "janela de expiração e publicação, com ordenação (sort=campo[,desc]). Paginação por cursor: "
+                    + "o cabeçalho X-Next-Cursor traz o valor de 'after' da próxima página.")
+    @GetMapping("/search")
+    public ResponseEntity<List<CupomResponse>> searchCupons(@Valid @ParameterObject CupomSearchRequest request) {
+        CupomSearchResult result = cupomSearchService.search(request);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (result.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, result.getNextCursor());
+        }
+        return response.body(result.getItems());
+    }
+
+    @Operation(summary = "Exportar cupons ativos",
+            description = "Exporta todos os cupons ativos em NDJSON (um JSON por linha), em streaming")
+    @GetMapping(value = "/stream", produces = NDJSON_MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> streamActiveCupons() {
+        // Sem flush por registro: o gerador descarrega no socket conforme o buffer enche
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.setRootValueSeparator(null);
+                cupomService.streamActiveCupons(cupom -> {
+                    try {
+                        writer.writeValue(generator, cupom);
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON_MEDIA_TYPE))
+                .body(body);
     }
 
-    @Operation(summary = "Buscar cupom por ID", description = "Retorna um cupom específico pelo ID")
+    @Operation(summary = "Buscar cupom por ID",
+            description = "Retorna um cupom específico pelo ID. Suporta If-None-Match / If-Modified-Since (304).")
     @GetMapping("/{id}")
-    public ResponseEntity<CupomResponse> getCupomById(@PathVariable Long id) {
-        CupomResponse cupom = cupomService.getCupomById(id);
-        return ResponseEntity.ok(cupom);
+    public ResponseEntity<CupomResponse> getCupomById(@PathVariable Long id, HttpServletRequest request) {
+        if (isConditional(request)) {
+            // Revalidação: compara só versão, contador e datas antes de carregar a representação inteira
+            CupomRevision revision = cupomService.getCupomRevision(id);
+            LocalDate today = LocalDate.now(clock);
+            LocalDateTime lastModified = CupomHttpValidators.lastModified(revision, today);
+            String etag = CupomHttpValidators.etag(revision, today);
+            if (new ServletWebRequest(request).checkNotModified(etag, toEpochMilli(lastModified))) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(etag)
+                        .lastModified(CupomHttpValidators.toZoned(lastModified))
+                        .cacheControl(CupomHttpValidators.CACHE_CONTROL)
+                        .build();
+            }
+        }
+        return withValidators(cupomService.getCupomById(id));
     }
 
-    @Operation(summary = "Buscar cupom por código", description = "Retorna um cupom específico pelo código")
+    @Operation(summary = "Buscar cupom por código",
+            description = "Retorna um cupom específico pelo código. Suporta If-None-Match / If-Modified-Since (304).")
     @GetMapping("/code/{code}")
     public ResponseEntity<CupomResponse> getCupomByCode(@PathVariable String code) {
-        CupomResponse cupom = cupomService.getCupomByCode(code);
-        return ResponseEntity.ok(cupom);
+        // Vem do cache por código: a verificação condicional não consulta o banco
+        return withValidators(cupomService.getCupomByCode(code));
     }
 
-    @Operation(summary = "Atualizar cupom", description = "Atualiza um cupom existente")
+    @Operation(summary = "Buscar cupons por vários códigos",
+            description = "Busca vários códigos de uma vez (validação de carrinho), com consultas por conjunto; "
+                    + "retorna o resultado de cada código (FOUND, NOT_FOUND ou INVALID) na ordem recebida")
+    @PostMapping("/code/lookup")
+    public ResponseEntity<CupomCodeLookupResponse> getCuponsByCodes(@Valid @RequestBody CupomCodeLookupRequest request) {
+        return ResponseEntity.ok(cupomCodeLookupService.getCuponsByCodes(request.getCodes()));
+    }
+
+    @Operation(summary = "Resgatar cupom",
+            description = "Resgata um cupom publicado e ativo em um pedido, respeitando o limite de resgates")
+    @PostMapping("/code/{code}/redeem")
+    public ResponseEntity<CupomRedemptionResponse> redeemCupom(
+            @PathVariable String code,
+            @Valid @RequestBody CupomRedemptionRequest request) {
+        CupomRedemptionResponse response = cupomRedemptionService.redeem(code, request.getOrderId());
+        return ResponseEntity.ok(response);
+    }
+
+    @Operation(summary = "Estatísticas do cache por código",
+            description = "Retorna tamanho, hits, misses e evições do cache de busca por código")
+    @GetMapping("/cache/stats")
+    public ResponseEntity<CacheStatsResponse> getCodeCacheStats() {
+        return ResponseEntity.ok(cupomService.getCodeCacheStats());
+    }
+
+    @Operation(summary = "Atualizar cupom",
+            description = "Atualiza um cupom existente. Com If-Match, responde 412 se o cupom mudou desde a leitura.")
     @PutMapping("/{id}")
     public ResponseEntity<CupomResponse> updateCupom(
             @PathVariable Long id,
-            @Valid @RequestBody CupomRequest request) {
-        CupomResponse cupom = cupomService.updateCupom(id, request);
-        return ResponseEntity.ok(cupom);
+            @Valid @RequestBody CupomRequest request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        CupomResponse cupom = cupomService.updateCupom(id, request, CupomHttpValidators.expectedVersion(id, ifMatch));
+        return withValidators(cupom);
     }
 
-    @Operation(summary = "Deletar cupom", description = "Deleta um cupom (soft delete)")
+    @Operation(summary = "Deletar cupom",
+            description = "Deleta um cupom (soft delete). Com If-Match, responde 412 se o cupom mudou desde a leitura.")
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteCupom(@PathVariable Long id) {
-        cupomService.deleteCupom(id);
+    public ResponseEntity<Void> deleteCupom(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        cupomService.deleteCupom(id, CupomHttpValidators.expectedVersion(id, ifMatch));
         return ResponseEntity.noContent().build();
     }
 
-    @Operation(summary = "Publicar cupom", description = "Publica um cupom")
+    @Operation(summary = "Publicar cupom",
+            description = "Publica um cupom. Com If-Match, responde 412 se o cupom mudou desde a leitura.")
     @PostMapping("/{id}/publish")
-    public ResponseEntity<CupomResponse> publishCupom(@PathVariable Long id) {
-        CupomResponse cupom = cupomService.publishCupom(id);
-        return ResponseEntity.ok(cupom);
+    public ResponseEntity<CupomResponse> publishCupom(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        CupomResponse cupom = cupomService.publishCupom(id, CupomHttpValidators.expectedVersion(id, ifMatch));
+        return withValidators(cupom);
     }
 
-    @Operation(summary = "Despublicar cupom", description = "Despublica um cupom")
+    @Operation(summary = "Despublicar cupom",
+            description = "Despublica um cupom. Com If-Match, responde 412 se o cupom mudou desde a leitura.")
     @PostMapping("/{id}/unpublish")
-    public ResponseEntity<CupomResponse> unpublishCupom(@PathVariable Long id) {
-        CupomResponse cupom = cupomService.unpublishCupom(id);
-        return ResponseEntity.ok(cupom);
+    public ResponseEntity<CupomResponse> unpublishCupom(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        CupomResponse cupom = cupomService.unpublishCupom(id, CupomHttpValidators.expectedVersion(id, ifMatch));
+        return withValidators(cupom);
+    }
+
+    @Operation(summary = "Publicar cupons em massa",
+            description = "Publica os cupons selecionados por IDs e/ou critérios em blocos com transação própria; "
+                    + "o progresso de cada bloco é enviado em NDJSON")
+    @PostMapping(value = "/bulk/publish", produces = NDJSON_MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> bulkPublish(@Valid @RequestBody CupomBulkRequest request) {
+        return bulk(CupomBulkProgress.Action.PUBLISH, request);
+    }
+
+    @Operation(summary = "Despublicar cupons em massa",
+            description = "Despublica os cupons selecionados por IDs e/ou critérios em blocos com transação própria; "
+                    + "o progresso de cada bloco é enviado em NDJSON")
+    @PostMapping(value = "/bulk/unpublish", produces = NDJSON_MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> bulkUnpublish(@Valid @RequestBody CupomBulkRequest request) {
+        return bulk(CupomBulkProgress.Action.UNPUBLISH, request);
+    }
+
+    @Operation(summary = "Deletar cupons em massa",
+            description = "Deleta (soft delete) os cupons selecionados por IDs e/ou critérios em blocos com transação "
+                    + "própria; o progresso de cada bloco é enviado em NDJSON")
+    @PostMapping(value = "/bulk/delete", produces = NDJSON_MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> bulkDelete(@Valid @RequestBody CupomBulkRequest request) {
+        return bulk(CupomBulkProgress.Action.DELETE, request);
+    }
+
+    /**
+     * Valida a seleção (erros saem como 400 antes do streaming) e envia uma linha NDJSON por bloco confirmado
+     */
+    private ResponseEntity<StreamingResponseBody> bulk(CupomBulkProgress.Action action, CupomBulkRequest request) {
+        cupomBulkService.validate(request);
+        return ndjson(consumer -> cupomBulkService.execute(action, request, consumer::accept));
+    }
+
+    /**
+     * Executa o job enviando uma linha NDJSON por progresso informado, com flush imediato para o cliente
+     * acompanhar o job
+     */
+    private ResponseEntity<StreamingResponseBody> ndjson(Consumer<Consumer<Object>> job) {
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.setRootValueSeparator(null);
+                job.accept(progress -> {
+                    try {
+                        objectMapper.writeValue(generator, progress);
+                        generator.writeRaw('\n');
+                        generator.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON_MEDIA_TYPE))
+                .body(body);
+    }
+
+    /**
+     * Resposta 200 com ETag e Last-Modified; o Spring responde 304 sem serializar o corpo
+     * quando If-None-Match / If-Modified-Since conferem
+     */
+    private static ResponseEntity<CupomResponse> withValidators(CupomResponse cupom) {
+        LocalDateTime lastModified = CupomHttpValidators.lastModified(cupom);
+        return ResponseEntity.ok()
+                .eTag(CupomHttpValidators.etag(cupom))
+                .lastModified(CupomHttpValidators.toZoned(lastModified))
+                .cacheControl(CupomHttpValidators.CACHE_CONTROL)
+                .body(cupom);
+    }
+
+    private static boolean isConditional(HttpServletRequest request) {
+        return request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                || request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null;
+    }
+
+    private static long toEpochMilli(LocalDateTime dateTime) {
+        return CupomHttpValidators.toZoned(dateTime).toInstant().toEpochMilli();
     }
 }
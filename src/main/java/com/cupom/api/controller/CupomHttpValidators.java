@@ -0,0 +1,133 @@
+package com.cupom.api.controller;
+
+import com.cupom.api.dto.CupomResponse;
+import com.cupom.api.repository.projection.CupomRevision;
+import org.springframework.http.CacheControl;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Validadores HTTP (ETag forte e Last-Modified) das representações de cupom.
+ * <p>
+ * O ETag é {@code "<id>-<version>-<usedCount>"}, com o sufixo {@code -x} quando o cupom está expirado:
+ * muda a cada escrita (versão), a cada resgate gravado (contador) e quando o cupom expira.
+ * O Last-Modified é o {@code updatedAt}; para cupom expirado, no mínimo o início do dia seguinte à expiração.
+ */
+final class CupomHttpValidators {
+
+    /**
+     * Caches (edge e clientes) podem guardar a resposta, mas devem revalidá-la a cada uso
+     */
+    static final CacheControl CACHE_CONTROL = CacheControl.noCache();
+
+    /**
+     * Versão que nunca confere: If-Match sem nenhuma tag forte deste cupom
+     */
+    static final long NO_MATCHING_VERSION = -1L;
+
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    // Bytes do SHA-256 usados no ETag da listagem
+    private static final int LIST_ETAG_BYTES = 16;
+
+    private CupomHttpValidators() {
+    }
+
+    static String etag(CupomResponse cupom) {
+        return etag(cupom.getId(), cupom.getVersion(), cupom.getUsedCount(), Boolean.TRUE.equals(cupom.getExpired()));
+    }
+
+    static String etag(CupomRevision cupom, LocalDate today) {
+        return etag(cupom.getId(), cupom.getVersion(), cupom.getUsedCount(), cupom.getExpirationDate().isBefore(today));
+    }
+
+    /**
+     * ETag de uma página: SHA-256 do ETag de cada item e do cursor da próxima página (128 bits iniciais).
+     * Um resumo criptográfico, e não {@code hashCode}, porque o ETag forte não pode repetir para páginas diferentes.
+     */
+    static String etag(List<CupomResponse> cupons, Long nextCursor) {
+        MessageDigest digest = sha256();
+        for (CupomResponse cupom : cupons) {
+            digest.update(etag(cupom).getBytes(StandardCharsets.US_ASCII));
+        }
+        digest.update(String.valueOf(nextCursor).getBytes(StandardCharsets.US_ASCII));
+        byte[] hash = digest.digest();
+        return "\"" + cupons.size() + "-" + HexFormat.of().formatHex(hash, 0, LIST_ETAG_BYTES) + "\"";
+    }
+
+    static LocalDateTime lastModified(CupomResponse cupom) {
+        return lastModified(cupom.getCreatedAt(), cupom.getUpdatedAt(), cupom.getExpirationDate(),
+            Boolean.TRUE.equals(cupom.getExpired()));
+    }
+
+    static LocalDateTime lastModified(CupomRevision cupom, LocalDate today) {
+        return lastModified(cupom.getCreatedAt(), cupom.getUpdatedAt(), cupom.getExpirationDate(),
+            cupom.getExpirationDate().isBefore(today));
+    }
+
+    /**
+     * Versão esperada a partir do cabeçalho If-Match.
+     * Sem cabeçalho ou com {@code *}, não há condição (null). Tags fracas nunca conferem (comparação forte).
+     * Só a versão é comparada: resgates gravados entre a leitura e a escrita não invalidam uma edição.
+     */
+    static Long expectedVersion(Long id, String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || "*".equals(ifMatch.trim())) {
+            return null;
+        }
+        String prefix = id + "-";
+        for (String tag : ifMatch.split(",")) {
+            tag = tag.trim();
+            if (tag.length() < 2 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+                continue;
+            }
+            String value = tag.substring(1, tag.length() - 1);
+            if (!value.startsWith(prefix)) {
+                continue;
+            }
+            String[] parts = value.split("-");
+            try {
+                return Long.parseLong(parts[1]);
+            } catch (NumberFormatException e) {
+                // Tag malformada: tenta as demais
+            }
+        }
+        return NO_MATCHING_VERSION;
+    }
+
+    static ZonedDateTime toZoned(LocalDateTime dateTime) {
+        return dateTime.atZone(ZONE);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // Todo JRE é obrigado a oferecer SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String etag(Long id, Long version, Long usedCount, boolean expired) {
+        return "\"" + id + "-" + version + "-" + usedCount + (expired ? "-x" : "") + "\"";
+    }
+
+    private static LocalDateTime lastModified(LocalDateTime createdAt, LocalDateTime updatedAt,
+                                              LocalDate expirationDate, boolean expired) {
+        LocalDateTime modified = updatedAt != null ? updatedAt : createdAt;
+        if (expired) {
+            LocalDateTime expiredAt = expirationDate.plusDays(1).atStartOfDay();
+            if (modified == null || expiredAt.isAfter(modified)) {
+                modified = expiredAt;
+            }
+        }
+        return modified;
+    }
+}
@@ -0,0 +1,31 @@
+package com.cupom.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado da criação de um item do lote
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CupomBatchItemResult {
+
+    /**
+     * Situação do item após o processamento do lote
+     */
+    public enum Status {
+        CREATED,
+        DUPLICATE,
+        INVALID
+    }
+
+    private int index;
+    private String code;
+    private Status status;
+    private Long id;
+    private String message;
+}
@@ -0,0 +1,23 @@
+package com.cupom.api.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO para criação de cupons em lote.
+ * Os itens são validados individualmente pelo serviço, que reporta o resultado de cada um.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CupomBatchRequest {
+
+    @NotEmpty(message = "Lista de cupons é obrigatória")
+    private List<CupomRequest> cupons;
+}
@@ -0,0 +1,22 @@
+package com.cupom.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO de resposta da criação de cupons em lote
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CupomBatchResponse {
+    private int total;
+    private int created;
+    private int failed;
+    private List<CupomBatchItemResult> results;
+}
@@ -0,0 +1,40 @@
+package com.cupom.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Progresso de uma operação em massa, emitido a cada bloco confirmado.
+ * Os totais são acumulados; o último registro tem {@code done = true}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CupomBulkProgress {
+
+    /**
+     * Operação aplicada aos cupons selecionados
+     */
+    public enum Action {
+        PUBLISH,
+        UNPUBLISH,
+        DELETE
+    }
+
+    private Action action;
+    private int chunks;
+    /**
+     * Cupons selecionados que ainda não estavam no estado de destino
+     */
+    private long matched;
+    private long updated;
+    /**
+     * Maior ID já processado (retomada: reenviar a operação continua de onde parou, pois os já
+     * alterados não são selecionados de novo)
+     */
+    private Long lastId;
+    private boolean done;
+}
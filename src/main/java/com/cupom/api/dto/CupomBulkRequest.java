@@ -0,0 +1,36 @@
+package com.cupom.api.dto;
+
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTO de seleção dos cupons de uma operação em massa (publicar, despublicar, deletar).
+ * Os critérios informados são combinados com E; ao menos um é obrigatório.
+ * Intervalos são inclusivos e podem ser abertos em uma das pontas.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CupomBulkRequest {
+
+    private List<Long> ids;
+
+    @Pattern(regexp = "[A-Za-z0-9]{1,6}", message = "Prefixo de código deve ter de 1 a 6 caracteres alfanuméricos")
+    private String codePrefix;
+
+    private LocalDate expirationFrom;
+
+    private LocalDate expirationTo;
+
+    private LocalDateTime createdFrom;
+
+    private LocalDateTime createdTo;
+}
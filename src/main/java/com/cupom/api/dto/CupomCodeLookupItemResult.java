@@ -0,0 +1,31 @@
+package com.cupom.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado da consulta de um código do lote
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CupomCodeLookupItemResult {
+
+    /**
+     * Situação do código consultado
+     */
+    public enum Status {
+        FOUND,
+        NOT_FOUND,
+        INVALID
+    }
+
+    private int index;
+    private String code;
+    private Status status;
+    private CupomResponse cupom;
+    private String message;
+}
@@ -0,0 +1,23 @@
+package com.cupom.api.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO de consulta de vários códigos de uma vez (validação de carrinho).
+ * Os códigos são brutos: a normalização é feita pelo serviço, que reporta o resultado de cada um.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CupomCodeLookupRequest {
+
+    @NotEmpty(message = "Lista de códigos é obrigatória")
+    private List<String> codes;
+}
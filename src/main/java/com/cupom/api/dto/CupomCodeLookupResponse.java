@@ -0,0 +1,21 @@
+package com.cupom.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO de resposta da consulta de vários códigos, na ordem dos códigos recebidos
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CupomCodeLookupResponse {
+    private int total;
+    private int found;
+    private List<CupomCodeLookupItemResult> results;
+}
@@ -0,0 +1,38 @@
+package com.cupom.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Progresso de uma geração de cupons, emitido a cada bloco confirmado.
+ * Os totais são acumulados; {@code codes} traz só os códigos criados no bloco.
+ * O último registro tem {@code done = true} e não traz códigos.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CupomGenerateProgress {
+
+    private int chunks;
+    private long created;
+    /**
+     * Códigos sorteados que já estavam ocupados (sorteados de novo)
+     */
+    private long collisions;
+    /**
+     * Blocos reenviados após conflito no índice único (código criado por outra instância ou fora da JPA)
+     */
+    private int retries;
+    private long elapsedMillis;
+    /**
+     * Vazão desde o início do job: cupons criados por segundo
+     */
+    private long createdPerSecond;
+    private List<String> codes;
+    private boolean done;
+}
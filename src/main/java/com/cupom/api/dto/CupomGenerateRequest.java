@@ -0,0 +1,45 @@
+package com.cupom.api.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * DTO de geração de cupons com códigos gerados pelo servidor (campanha).
+ * Todos os cupons gerados recebem os mesmos dados; só o código muda.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CupomGenerateRequest {
+
+    @NotNull(message = "Quantidade é obrigatória")
+    @Min(value = 1, message = "Quantidade deve ser no mínimo 1")
+    private Integer count;
+
+    @NotBlank(message = "Descrição é obrigatória")
+    @Size(max = 500, message = "Descrição deve ter no máximo 500 caracteres")
+    private String description;
+
+    @NotNull(message = "Valor de desconto é obrigatório")
+    @DecimalMin(value = "0.5", message = "Valor de desconto deve ser no mínimo 0.5")
+    private BigDecimal discountValue;
+
+    @NotNull(message = "Data de expiração é obrigatória")
+    private LocalDate expirationDate;
+
+    private Boolean published;
+
+    @Min(value = 1, message = "Limite de resgates deve ser no mínimo 1")
+    private Integer maxUses;
+}
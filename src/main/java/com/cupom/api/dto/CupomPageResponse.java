@@ -0,0 +1,20 @@
+package com.cupom.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO de página de cupons paginada por cursor (keyset sobre o ID)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CupomPageResponse {
+    private List<CupomResponse> items;
+    private Long nextCursor;
+}
@@ -0,0 +1,22 @@
+package com.cupom.api.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO para resgate de cupom em um pedido
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CupomRedemptionRequest {
+
+    @NotBlank(message = "Pedido é obrigatório")
+    @Size(max = 100, message = "Pedido deve ter no máximo 100 caracteres")
+    private String orderId;
+}
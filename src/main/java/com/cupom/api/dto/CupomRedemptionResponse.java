@@ -0,0 +1,23 @@
+package com.cupom.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO de resposta do resgate de cupom
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CupomRedemptionResponse {
+    private Long cupomId;
+    private String code;
+    private String orderId;
+    private Integer maxUses;
+    private Long usedCount;
+    private Long remainingUses;
+    private Boolean alreadyRedeemed;
+}
@@ -1,6 +1,7 @@
 package com.cupom.api.dto;
 
 import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
@@ -37,4 +38,7 @@ public class CupomRequest {
     private LocalDate expirationDate;
 
     private Boolean published;
+
+    @Min(value = 1, message = "Limite de resgates deve ser no mínimo 1")
+    private Integer maxUses;
 }
@@ -13,7 +13,7 @@ import java.time.LocalDateTime;
  * DTO de resposta de cupons
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class CupomResponse {
@@ -23,6 +23,9 @@ public class CupomResponse {
     private BigDecimal discountValue;
     private LocalDate expirationDate;
     private Boolean published;
+    private Integer maxUses;
+    private Long usedCount;
+    private Long version;
     private Boolean deleted;
     private Boolean active;
     private Boolean expired;
@@ -0,0 +1,56 @@
+package com.cupom.api.dto;
+
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Parâmetros da busca de cupons (query string). Todos os filtros são opcionais e combinados com E;
+ * só os informados viram predicados na consulta. A busca considera apenas cupons não deletados.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CupomSearchRequest {
+
+    @Pattern(regexp = "[A-Za-z0-9]{1,6}", message = "Prefixo de código deve ter de 1 a 6 caracteres alfanuméricos")
+    private String codePrefix;
+
+    /**
+     * Palavras no início de palavras da descrição (sem diferenciar maiúsculas nem acentos)
+     */
+    @Size(min = 2, max = 100, message = "Termo de busca deve ter entre 2 e 100 caracteres")
+    private String q;
+
+    private BigDecimal minDiscount;
+
+    private BigDecimal maxDiscount;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate expirationFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate expirationTo;
+
+    private Boolean published;
+
+    /**
+     * Campo de ordenação e direção, ex.: {@code expirationDate,desc} (padrão {@code id,asc})
+     */
+    private String sort;
+
+    /**
+     * Cursor opaco devolvido em X-Next-Cursor pela página anterior
+     */
+    private String after;
+
+    private Integer limit;
+}
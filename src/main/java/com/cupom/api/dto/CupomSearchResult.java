@@ -0,0 +1,23 @@
+package com.cupom.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Página de resultados da busca de cupons
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CupomSearchResult {
+    private List<CupomResponse> items;
+    /**
+     * Cursor opaco da próxima página (null quando não há mais itens)
+     */
+    private String nextCursor;
+}
@@ -1,28 +1,40 @@
 package com.cupom.api.entity;
 
+import com.cupom.api.cache.CupomCodeIndexListener;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
-import jakarta.persistence.PrePersist;
-import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 /**
  * Entidade de domínio que representa um Cupom de desconto.
  * Encapsula todas as regras de negócio relacionadas a cupons.
+ *
+ * {@code @DynamicUpdate}: o UPDATE da edição grava só as colunas alteradas (mais versão e updatedAt),
+ * não a linha inteira.
+ *
+ * {@link CupomCodeIndexListener}: as escritas via JPA atualizam o índice de códigos em memória após o commit.
+ * {@link CupomTimestampListener}: createdAt e updatedAt vêm do {@code Clock} da aplicação.
  */
 @Entity
+@EntityListeners({CupomTimestampListener.class, CupomCodeIndexListener.class})
+@DynamicUpdate
 @Table(name = "cupons")
 @Getter
 @Setter
@@ -31,11 +43,42 @@ import java.time.LocalDateTime;
 @Builder
 public class Cupom {
 
+    /**
+     * Tamanho fixo do código normalizado
+     */
+    public static final int CODE_LENGTH = 6;
+
+    /**
+     * Tamanho do bloco de IDs reservado por acesso à sequence (otimizador pooled do Hibernate).
+     * Com IDENTITY o Hibernate precisa executar cada INSERT na hora para obter o ID, o que
+     * impede o batching JDBC; com a sequence os IDs já são conhecidos antes do flush.
+     */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    /**
+     * Índice único dos códigos de cupons não deletados
+     */
+    public static final String ACTIVE_CODE_CONSTRAINT = "uk_cupons_active_code";
+
+    /**
+     * Valor mínimo de desconto, em centavos ({@link Money})
+     */
+    public static final long MIN_DISCOUNT_CENTS = 50;
+
+    /**
+     * Valor mínimo de desconto (decimal de {@link #MIN_DISCOUNT_CENTS}, para as bordas)
+     */
+    public static final BigDecimal MIN_DISCOUNT_VALUE = Money.toBigDecimal(MIN_DISCOUNT_CENTS);
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cupons_seq")
+    @SequenceGenerator(name = "cupons_seq", sequenceName = "cupons_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
-    @Column(nullable = false, unique = true, length = 6)
+    /**
+     * Único apenas entre cupons não deletados (índice {@link #ACTIVE_CODE_CONSTRAINT}, criado na migração V3)
+     */
+    @Column(nullable = false, length = 6)
     private String code;
 
     @Column(nullable = false, length = 500)
@@ -51,10 +94,39 @@ public class Cupom {
     @Builder.Default
     private Boolean published = false;
 
+    /**
+     * Limite de resgates (null = ilimitado)
+     */
+    @Column(name = "max_uses")
+    private Integer maxUses;
+
+    /**
+     * Resgates já gravados no banco. Só é alterado pelo flush em lote dos contadores de resgate
+     * (UPDATE incremental), nunca pelo UPDATE da entidade, para não sobrescrever incrementos.
+     */
+    @Column(name = "used_count", nullable = false, updatable = false)
+    @Builder.Default
+    private Long usedCount = 0L;
+
     @Column(nullable = false)
     @Builder.Default
     private Boolean deleted = false;
 
+    /**
+     * Expiração já registrada pelo varredor diário (CupomExpiryService). Permite filtrar e indexar
+     * expirados sem depender da data corrente; as regras de negócio usam {@link #isExpired(LocalDate)}.
+     */
+    @Column(nullable = false)
+    @Builder.Default
+    private Boolean expired = false;
+
+    /**
+     * Versão para lock otimista; nula até o primeiro persist (o Spring Data usa isso para detectar entidade nova)
+     */
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
@@ -64,21 +136,14 @@ public class Cupom {
     @Column(name = "deleted_at")
     private LocalDateTime deletedAt;
 
-    @PrePersist
-    protected void onCreate() {
-        createdAt = LocalDateTime.now();
-        updatedAt = LocalDateTime.now();
-    }
-
-    @PreUpdate
-    protected void onUpdate() {
-        updatedAt = LocalDateTime.now();
-    }
-
     /**
      * Normaliza o código do cupom removendo caracteres especiais.
      * REGRA DE NEGÓCIO: Remove caracteres especiais e garante 6 caracteres.
      * 
+     * Passagem única, sem regex: aceita apenas [a-zA-Z0-9] (ASCII), converte para
+     * maiúsculas e para ao completar 6 caracteres. Se o código já estiver normalizado,
+     * retorna a própria instância recebida.
+     * 
      * @param rawCode código bruto fornecido
      * @return código normalizado com 6 caracteres alfanuméricos
      */
@@ -86,34 +151,59 @@ public class Cupom {
         if (rawCode == null || rawCode.isEmpty()) {
             throw new IllegalArgumentException("Código do cupom não pode ser vazio");
         }
-        
-        // Remove caracteres especiais, mantendo apenas alfanuméricos
-        String normalized = rawCode.replaceAll("[^a-zA-Z0-9]", "").toUpperCase();
-        
-        if (normalized.length() < 6) {
+
+        if (rawCode.length() == CODE_LENGTH && isNormalized(rawCode)) {
+            return rawCode;
+        }
+
+        char[] normalized = new char[CODE_LENGTH];
+        int length = 0;
+        for (int i = 0; i < rawCode.length() && length < CODE_LENGTH; i++) {
+            char c = rawCode.charAt(i);
+            if (c >= 'a' && c <= 'z') {
+                normalized[length++] = (char) (c - ('a' - 'A'));
+            } else if ((c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')) {
+                normalized[length++] = c;
+            }
+        }
+
+        if (length < CODE_LENGTH) {
             throw new IllegalArgumentException(
                 "Código deve ter pelo menos 6 caracteres alfanuméricos após remover caracteres especiais. "
-                + "Código fornecido resulta em apenas " + normalized.length() + " caracteres."
+                + "Código fornecido resulta em apenas " + length + " caracteres."
             );
         }
-        
-        // Garante exatamente 6 caracteres
-        return normalized.substring(0, 6);
+
+        return new String(normalized);
+    }
+
+    /**
+     * Verifica se todos os caracteres já estão no alfabeto normalizado [A-Z0-9]
+     */
+    private static boolean isNormalized(String code) {
+        for (int i = 0; i < code.length(); i++) {
+            char c = code.charAt(i);
+            if (!((c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9'))) {
+                return false;
+            }
+        }
+        return true;
     }
 
     /**
-     * Valida se a data de expiração está no futuro.
+     * Valida se a data de expiração não é anterior a {@code today} (data corrente já obtida pelo chamador).
      * REGRA DE NEGÓCIO: Data de expiração não pode ser no passado.
-     * 
+     *
      * @param expirationDate data de expiração
+     * @param today data corrente
      * @throws IllegalArgumentException se a data for no passado
      */
-    public static void validateExpirationDate(LocalDate expirationDate) {
+    public static void validateExpirationDate(LocalDate expirationDate, LocalDate today) {
         if (expirationDate == null) {
             throw new IllegalArgumentException("Data de expiração é obrigatória");
         }
         
-        if (expirationDate.isBefore(LocalDate.now())) {
+        if (expirationDate.isBefore(today)) {
             throw new IllegalArgumentException(
                 "Data de expiração não pode ser no passado. Data fornecida: " + expirationDate
             );
@@ -131,46 +221,66 @@ public class Cupom {
         if (discountValue == null) {
             throw new IllegalArgumentException("Valor de desconto é obrigatório");
         }
-        
-        BigDecimal minValue = new BigDecimal("0.5");
-        if (discountValue.compareTo(minValue) < 0) {
-            throw new IllegalArgumentException(
-                "Valor de desconto deve ser no mínimo 0.5. Valor fornecido: " + discountValue
-            );
+
+        // Centavos arredondados para baixo: ficam abaixo do mínimo exatamente quando o valor fica (0.499 -> 49)
+        if (Money.toCents(discountValue, RoundingMode.FLOOR) < MIN_DISCOUNT_CENTS) {
+            throw belowMinDiscount(discountValue);
         }
     }
 
     /**
-     * Verifica se o cupom está expirado.
+     * Valida o valor de desconto já em centavos ({@link Money}), sem {@link BigDecimal}.
+     * REGRA DE NEGÓCIO: mínimo de {@link #MIN_DISCOUNT_CENTS} centavos, sem máximo.
+     *
+     * @param discountCents valor do desconto em centavos
+     * @throws IllegalArgumentException se o valor for inválido
+     */
+    public static void validateDiscountCents(long discountCents) {
+        if (discountCents < MIN_DISCOUNT_CENTS) {
+            throw belowMinDiscount(Money.toBigDecimal(discountCents));
+        }
+    }
+
+    private static IllegalArgumentException belowMinDiscount(BigDecimal discountValue) {
+        return new IllegalArgumentException(
+            "Valor de desconto deve ser no mínimo 0.5. Valor fornecido: " + discountValue
+        );
+    }
+
+    /**
+     * Verifica se o cupom está expirado em {@code today}.
      * 
+     * @param today data corrente
      * @return true se expirado
      */
-    public boolean isExpired() {
-        return LocalDate.now().isAfter(this.expirationDate);
+    public boolean isExpired(LocalDate today) {
+        return today.isAfter(this.expirationDate);
     }
 
     /**
      * Marca o cupom como deletado (soft delete).
      * REGRA DE NEGÓCIO: Soft delete - não perde informações.
      * 
+     * @param now instante da deleção
      * @throws IllegalStateException se o cupom já estiver deletado
      */
-    public void softDelete() {
+    public void softDelete(LocalDateTime now) {
         if (this.deleted) {
             throw new IllegalStateException("Cupom já está deletado");
         }
         
         this.deleted = true;
-        this.deletedAt = LocalDateTime.now();
+        this.deletedAt = now;
     }
 
     /**
-     * Verifica se o cupom está ativo (não deletado e não expirado).
+     * Verifica se o cupom está ativo (não deletado e não expirado) em {@code today}.
      * 
+     * @param today data corrente
      * @return true se ativo
      */
-    public boolean isActive() {
-        return !this.deleted && !isExpired();
+    public boolean isActive(LocalDate today) {
+        return !this.deleted && !isExpired(today);
     }
 
     /**
@@ -0,0 +1,47 @@
+package com.cupom.api.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Registro de um resgate de cupom em um pedido.
+ * REGRA DE NEGÓCIO: um pedido resgata cada cupom no máximo uma vez.
+ * As linhas são gravadas em lote pelo flush dos contadores de resgate.
+ */
+@Entity
+@Table(
+    name = "cupom_redemptions",
+    uniqueConstraints = @UniqueConstraint(columnNames = {"cupom_id", "order_id"})
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CupomRedemption {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "cupom_id", nullable = false)
+    private Long cupomId;
+
+    @Column(name = "order_id", nullable = false, length = 100)
+    private String orderId;
+
+    @Column(name = "redeemed_at", nullable = false)
+    private LocalDateTime redeemedAt;
+}
@@ -0,0 +1,34 @@
+package com.cupom.api.entity;
+
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+
+/**
+ * Preenche createdAt e updatedAt das escritas via JPA com o {@link Clock} da aplicação,
+ * o mesmo que as escritas por UPDATE nativo recebem dos serviços.
+ *
+ * Instanciado pelo Hibernate através do contêiner de beans do Spring.
+ */
+@Component
+@RequiredArgsConstructor
+public class CupomTimestampListener {
+
+    private final Clock clock;
+
+    @PrePersist
+    public void onCreate(Cupom cupom) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        cupom.setCreatedAt(now);
+        cupom.setUpdatedAt(now);
+    }
+
+    @PreUpdate
+    public void onUpdate(Cupom cupom) {
+        cupom.setUpdatedAt(LocalDateTime.now(clock));
+    }
+}
@@ -0,0 +1,48 @@
+package com.cupom.api.entity;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Valores monetários em ponto fixo: centavos em {@code long} (escala 2, a mesma da coluna
+ * {@code discount_value NUMERIC(10,2)}).
+ * REGRAS:
+ * - {@link BigDecimal} só nas bordas (JPA e JSON); as regras comparam centavos com constantes
+ * - {@link #toCents(BigDecimal)} arredonda com HALF_UP, como o banco ao gravar na coluna de escala 2:
+ *   {@code toBigDecimal(toCents(v))} é igual a {@code v.setScale(2, HALF_UP)}
+ */
+public final class Money {
+
+    /**
+     * Casas decimais da representação em centavos
+     */
+    public static final int SCALE = 2;
+
+    private Money() {
+    }
+
+    /**
+     * Centavos do valor, arredondado para {@link #SCALE} casas com HALF_UP (como a coluna)
+     *
+     * @throws ArithmeticException se o valor não couber em {@code long}
+     */
+    public static long toCents(BigDecimal value) {
+        return toCents(value, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Centavos do valor, arredondado para {@link #SCALE} casas com {@code rounding}
+     *
+     * @throws ArithmeticException se o valor não couber em {@code long}
+     */
+    public static long toCents(BigDecimal value, RoundingMode rounding) {
+        return value.setScale(SCALE, rounding).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Valor decimal (escala {@link #SCALE}) dos centavos
+     */
+    public static BigDecimal toBigDecimal(long cents) {
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+}
@@ -0,0 +1,41 @@
+package com.cupom.api.event;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Cupons criados ou alterados por uma transação (edição, publicação, deleção, expiração, resgates).
+ * Publicado dentro da transação; os ouvintes em memória o tratam após o commit.
+ *
+ * @param ids IDs dos cupons afetados
+ * @param codeStateChanged se a transação alterou publicação, deleção ou expiração por UPDATE nativo, fora do
+ *                         entity listener: só então o índice de códigos precisa reler o estado dos cupons
+ */
+public record CupomChangedEvent(Collection<Long> ids, boolean codeStateChanged) {
+
+    public CupomChangedEvent {
+        ids = List.copyOf(ids);
+    }
+
+    /**
+     * Escrita via JPA (o entity listener já aplicou o estado do código) ou que não altera esse estado
+     */
+    public static CupomChangedEvent of(Collection<Long> ids) {
+        return new CupomChangedEvent(ids, false);
+    }
+
+    public static CupomChangedEvent of(Long id) {
+        return of(List.of(id));
+    }
+
+    /**
+     * UPDATE nativo que altera publicação, deleção ou expiração
+     */
+    public static CupomChangedEvent ofCodeStateChange(Collection<Long> ids) {
+        return new CupomChangedEvent(ids, true);
+    }
+
+    public static CupomChangedEvent ofCodeStateChange(Long id) {
+        return ofCodeStateChange(List.of(id));
+    }
+}
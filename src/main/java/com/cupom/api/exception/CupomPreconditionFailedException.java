@@ -0,0 +1,10 @@
+package com.cupom.api.exception;
+
+/**
+ * Exceção lançada quando a versão informada em If-Match não é a versão atual do cupom
+ */
+public class CupomPreconditionFailedException extends RuntimeException {
+    public CupomPreconditionFailedException(String message) {
+        super(message);
+    }
+}
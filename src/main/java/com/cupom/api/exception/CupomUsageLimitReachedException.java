@@ -0,0 +1,10 @@
+package com.cupom.api.exception;
+
+/**
+ * Exceção lançada quando o cupom atingiu o limite de resgates
+ */
+public class CupomUsageLimitReachedException extends RuntimeException {
+    public CupomUsageLimitReachedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,396 @@
+package com.cupom.api.index;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Índice invertido em memória das descrições de cupons não deletados: termo → IDs ordenados.
+ * REGRAS:
+ * - Termos são as palavras da descrição em minúsculas e sem acentos, com ao menos {@link #MIN_TERM_LENGTH} caracteres,
+ *   separadas pela mesma regra do SQL da busca ({@link #tokenize})
+ * - Cada palavra da consulta casa com os termos que começam por ela; as palavras são combinadas com E
+ * - Alterações são aplicadas após o commit da transação (um rollback não suja o índice)
+ * - Só responde após a primeira reconstrução a partir da tabela ({@link #isReady()}); antes disso
+ *   quem consulta deve usar o SQL
+ *
+ * As listas de IDs são arrays de {@code long} ordenados: sem objetos por entrada, e os IDs novos
+ * (sequence crescente) entram no fim da lista. A remoção não precisa de mapa ID → termos porque
+ * quem chama informa a descrição anterior.
+ */
+@Slf4j
+@Component
+public class CupomDescriptionIndex {
+
+    /**
+     * Tamanho mínimo de um termo indexado (e de cada palavra da consulta)
+     */
+    public static final int MIN_TERM_LENGTH = 2;
+
+    /**
+     * Letras acentuadas (minúsculas) e a letra sem acento correspondente, e separadores de palavra trocados
+     * por espaço. É o {@code TRANSLATE} da descrição no predicado SQL da busca e na expressão do índice
+     * {@code idx_cupons_description_words_trgm} (PostgreSQL, migração V8): alterar os três juntos.
+     */
+    private static final String ACCENTED = "áàâãäåāéèêëēíìîïīóòôõöōúùûüūçñýÿ";
+    private static final String UNACCENTED = "aaaaaaaeeeeeiiiiioooooouuuuucnyy";
+    private static final String SEPARATORS = ".,;:!?()[]{}/\\-_'\"*+&%#@$=<>|~^–—“”‘’«»°";
+    public static final String FOLD_FROM = ACCENTED + SEPARATORS;
+    public static final String FOLD_TO = UNACCENTED + " ".repeat(SEPARATORS.length());
+
+    // FOLD_FROM -> FOLD_TO por caractere (os demais ficam como estão)
+    private static final char[] FOLD = foldTable();
+
+    private final boolean enabled;
+
+    private volatile Postings live = new Postings();
+    private volatile Rebuild rebuild;
+    private volatile boolean ready;
+
+    public CupomDescriptionIndex(@Value("${cupom.search.description-index.enabled:true}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Indica se o índice está habilitado (recebe alterações, mesmo antes da primeira carga)
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Indica se o índice está habilitado e já foi carregado da tabela
+     */
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    /**
+     * Indexa a descrição de um cupom recém-criado
+     */
+    public void add(Long id, String description) {
+        update(id, null, description);
+    }
+
+    /**
+     * Troca os termos do cupom da descrição anterior para a nova (sem efeito se forem iguais)
+     */
+    public void update(Long id, String previousDescription, String description) {
+        if (!enabled || id == null) {
+            return;
+        }
+        String[] removed = tokenize(previousDescription);
+        String[] added = tokenize(description);
+        if (Arrays.equals(removed, added)) {
+            return;
+        }
+        afterCommit(() -> apply(id, removed, added));
+    }
+
+    /**
+     * Remove do índice um cupom deletado, pelos termos da descrição que ele tinha
+     */
+    public void remove(Long id, String description) {
+        update(id, description, null);
+    }
+
+    /**
+     * IDs dos cupons cuja descrição contém todas as palavras da consulta (como início de termo),
+     * em ordem crescente, a partir do primeiro ID maior que {@code afterId}
+     *
+     * @param limit quantidade máxima de IDs
+     */
+    public List<Long> search(String query, long afterId, int limit) {
+        String[] words = tokenize(query);
+        List<Long> ids = new ArrayList<>();
+        if (words.length == 0 || limit <= 0) {
+            return ids;
+        }
+
+        Postings postings = live;
+        List<Collection<PostingList>> terms = new ArrayList<>(words.length);
+        for (String word : words) {
+            Collection<PostingList> matches = postings.withPrefix(word);
+            if (matches.isEmpty()) {
+                return ids;
+            }
+            terms.add(matches);
+        }
+
+        // Interseção por saltos (leapfrog): cada palavra avança até o menor ID >= candidato; o candidato
+        // só é aceito quando todas concordam. Para ao atingir o limite, sem percorrer as listas inteiras.
+        long candidate = afterId + 1;
+        while (ids.size() < limit) {
+            boolean agreed = true;
+            for (Collection<PostingList> term : terms) {
+                long next = ceiling(term, candidate);
+                if (next < 0) {
+                    return ids;
+                }
+                if (next != candidate) {
+                    candidate = next;
+                    agreed = false;
+                    break;
+                }
+            }
+            if (agreed) {
+                ids.add(candidate);
+                candidate++;
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Indica se a consulta tem ao menos uma palavra indexável (com {@link #MIN_TERM_LENGTH} caracteres ou mais)
+     */
+    public static boolean isSearchable(String query) {
+        return tokenize(query).length > 0;
+    }
+
+    /**
+     * Inicia uma reconstrução: um índice novo é carregado por {@link #load} enquanto as consultas
+     * continuam no atual. Alterações feitas durante a carga valem para os dois, e a carga ignora os
+     * cupons alterados (a leitura da tabela pode ser anterior à alteração).
+     */
+    public void beginRebuild() {
+        rebuild = new Rebuild();
+    }
+
+    /**
+     * Carrega um cupom lido da tabela no índice em reconstrução
+     */
+    public void load(Long id, String description) {
+        Rebuild current = rebuild;
+        if (current == null) {
+            throw new IllegalStateException("Nenhuma reconstrução do índice em andamento");
+        }
+        synchronized (current) {
+            if (!current.touched.contains(id)) {
+                current.target.add(id, tokenize(description));
+            }
+        }
+    }
+
+    /**
+     * Conclui a reconstrução: as consultas passam a usar o índice carregado
+     */
+    public void finishRebuild() {
+        Rebuild current = rebuild;
+        if (current == null) {
+            throw new IllegalStateException("Nenhuma reconstrução do índice em andamento");
+        }
+        live = current.target;
+        rebuild = null;
+        ready = true;
+        log.info("Índice de descrições reconstruído: {} termos", current.target.terms.size());
+    }
+
+    /**
+     * Descarta uma reconstrução interrompida, mantendo o índice atual
+     */
+    public void abortRebuild() {
+        rebuild = null;
+    }
+
+    /**
+     * Quantidade de termos distintos no índice
+     */
+    public int termCount() {
+        return live.terms.size();
+    }
+
+    /**
+     * Termos de um texto, com a mesma regra do predicado SQL da busca: o texto em minúsculas passa pelo
+     * {@code TRANSLATE} de {@link #FOLD_FROM} para {@link #FOLD_TO} (tira os acentos e troca a pontuação por
+     * espaço) e é separado nos espaços. Termos distintos, na ordem em que aparecem, descartando os menores
+     * que {@link #MIN_TERM_LENGTH}. Também dá as palavras da consulta no predicado SQL.
+     */
+    public static String[] tokenize(String text) {
+        if (text == null || text.isEmpty()) {
+            return new String[0];
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        Set<String> terms = new LinkedHashSet<>();
+        StringBuilder term = new StringBuilder();
+        for (int i = 0; i < lower.length(); i++) {
+            char ch = lower.charAt(i);
+            if (ch < FOLD.length) {
+                ch = FOLD[ch];
+            }
+            if (ch == ' ') {
+                addTerm(terms, term);
+            } else {
+                term.append(ch);
+            }
+        }
+        addTerm(terms, term);
+        return terms.toArray(new String[0]);
+    }
+
+    private static void addTerm(Set<String> terms, StringBuilder term) {
+        if (term.length() >= MIN_TERM_LENGTH) {
+            terms.add(term.toString());
+        }
+        term.setLength(0);
+    }
+
+    private static char[] foldTable() {
+        char max = 0;
+        for (int i = 0; i < FOLD_FROM.length(); i++) {
+            max = (char) Math.max(max, FOLD_FROM.charAt(i));
+        }
+        char[] table = new char[max + 1];
+        for (int ch = 0; ch < table.length; ch++) {
+            table[ch] = (char) ch;
+        }
+        for (int i = 0; i < FOLD_FROM.length(); i++) {
+            table[FOLD_FROM.charAt(i)] = FOLD_TO.charAt(i);
+        }
+        return table;
+    }
+
+    /**
+     * Menor ID >= {@code from} em qualquer das listas (-1 se nenhuma tiver)
+     */
+    private static long ceiling(Collection<PostingList> lists, long from) {
+        long min = -1;
+        for (PostingList list : lists) {
+            long next = list.ceiling(from);
+            if (next >= 0 && (min < 0 || next < min)) {
+                min = next;
+            }
+        }
+        return min;
+    }
+
+    /**
+     * Aplica a alteração ao índice em uso e, durante uma reconstrução, também ao novo
+     */
+    private void apply(Long id, String[] removed, String[] added) {
+        // Lê a reconstrução antes do índice em uso: se ela já terminou, live é o índice novo
+        Rebuild current = rebuild;
+        Postings postings = live;
+        if (current != null) {
+            synchronized (current) {
+                current.touched.add(id);
+                current.target.remove(id, removed);
+                current.target.add(id, added);
+            }
+            if (current.target == postings) {
+                return;
+            }
+        }
+        postings.remove(id, removed);
+        postings.add(id, added);
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+
+    /**
+     * Dicionário ordenado de termos (permite buscar por prefixo) com a lista de IDs de cada termo
+     */
+    private static final class Postings {
+
+        private final ConcurrentSkipListMap<String, PostingList> terms = new ConcurrentSkipListMap<>();
+
+        void add(long id, String[] tokens) {
+            for (String token : tokens) {
+                terms.computeIfAbsent(token, t -> new PostingList()).add(id);
+            }
+        }
+
+        void remove(long id, String[] tokens) {
+            // Listas vazias ficam no dicionário até a próxima reconstrução (removê-las competiria com add)
+            for (String token : tokens) {
+                PostingList list = terms.get(token);
+                if (list != null) {
+                    list.remove(id);
+                }
+            }
+        }
+
+        Collection<PostingList> withPrefix(String prefix) {
+            ConcurrentNavigableMap<String, PostingList> matches =
+                    terms.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+            return matches.values();
+        }
+    }
+
+    /**
+     * IDs de um termo em um array ordenado. Inserir no fim (IDs novos) não copia o array;
+     * inserir no meio e remover deslocam os elementos seguintes.
+     */
+    private static final class PostingList {
+
+        private long[] ids = new long[4];
+        private int size;
+
+        synchronized void add(long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0) {
+                return;
+            }
+            int insertAt = -index - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size + (size >> 1) + 1);
+            }
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            ids[insertAt] = id;
+            size++;
+        }
+
+        synchronized void remove(long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index < 0) {
+                return;
+            }
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            size--;
+        }
+
+        /**
+         * Menor ID >= {@code from} (-1 se não houver)
+         */
+        synchronized long ceiling(long from) {
+            int index = Arrays.binarySearch(ids, 0, size, from);
+            if (index < 0) {
+                index = -index - 1;
+            }
+            return index < size ? ids[index] : -1;
+        }
+    }
+
+    /**
+     * Índice em carga e IDs alterados desde o início da carga
+     */
+    private static final class Rebuild {
+
+        private final Postings target = new Postings();
+        private final Set<Long> touched = new HashSet<>();
+    }
+}
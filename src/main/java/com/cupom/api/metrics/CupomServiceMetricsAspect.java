@@ -0,0 +1,112 @@
+package com.cupom.api.metrics;
+
+import com.cupom.api.exception.CupomAlreadyDeletedException;
+import com.cupom.api.exception.CupomNotFoundException;
+import com.cupom.api.exception.CupomPreconditionFailedException;
+import com.cupom.api.exception.CupomUsageLimitReachedException;
+import com.cupom.api.exception.DuplicateCupomCodeException;
+import com.cupom.api.exception.InvalidCupomException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Mede as operações públicas dos serviços de cupom chamadas pela API.
+ * Tarefas em segundo plano (agendadas, listeners de evento, encerramento) e os serviços que só mantêm
+ * índices e snapshots ficam de fora. Registra o timer {@value #TIMER_NAME} (histograma de latência) com as tags
+ * {@code service}, {@code method} e {@code result}; a contagem do timer por {@code result}
+ * é o contador de desfechos (success, not-found, duplicate, invalid, limit-reached, error).
+ * Executa por fora da transação, então a latência inclui o commit. Cada timer é registrado uma vez
+ * por serviço, método e desfecho e reaproveitado nas chamadas seguintes.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class CupomServiceMetricsAspect {
+
+    public static final String TIMER_NAME = "cupom.service";
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+
+    @Pointcut("within(com.cupom.api.service.CupomService) || within(com.cupom.api.service.CupomBatchService)"
+            + " || within(com.cupom.api.service.CupomBulkService)"
+            + " || within(com.cupom.api.service.CupomCodeGeneratorService)"
+            + " || within(com.cupom.api.service.CupomCodeLookupService)"
+            + " || within(com.cupom.api.service.CupomSearchService)"
+            + " || within(com.cupom.api.service.CupomRedemptionService)")
+    void requestServices() {
+    }
+
+    @Pointcut("@annotation(org.springframework.scheduling.annotation.Scheduled)"
+            + " || @annotation(org.springframework.context.event.EventListener)"
+            + " || @annotation(org.springframework.transaction.event.TransactionalEventListener)"
+            + " || @annotation(jakarta.annotation.PreDestroy)")
+    void backgroundTasks() {
+    }
+
+    @Around("execution(public * *(..)) && requestServices() && !backgroundTasks() && !execution(* bindTo(..))")
+    public Object measure(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String result = "success";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            result = resultOf(e);
+            throw e;
+        } finally {
+            sample.stop(timer(new TimerKey(joinPoint.getSignature().getDeclaringType(),
+                    joinPoint.getSignature().getName(), result)));
+        }
+    }
+
+    private Timer timer(TimerKey key) {
+        Timer timer = timers.get(key);
+        if (timer != null) {
+            return timer;
+        }
+        return timers.computeIfAbsent(key, k -> Timer.builder(TIMER_NAME)
+                .description("Latência e desfecho das operações de cupom")
+                .tag("service", k.service().getSimpleName())
+                .tag("method", k.method())
+                .tag("result", k.result())
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+    static String resultOf(Throwable e) {
+        if (e instanceof CupomNotFoundException) {
+            return "not-found";
+        }
+        if (e instanceof DuplicateCupomCodeException) {
+            return "duplicate";
+        }
+        if (e instanceof InvalidCupomException || e instanceof CupomAlreadyDeletedException
+                || e instanceof IllegalArgumentException) {
+            return "invalid";
+        }
+        if (e instanceof CupomUsageLimitReachedException) {
+            return "limit-reached";
+        }
+        if (e instanceof CupomPreconditionFailedException || e instanceof ObjectOptimisticLockingFailureException) {
+            return "conflict";
+        }
+        return "error";
+    }
+
+    private record TimerKey(Class<?> service, String method, String result) {
+    }
+}
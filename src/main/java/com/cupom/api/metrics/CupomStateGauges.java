@@ -0,0 +1,99 @@
+package com.cupom.api.metrics;
+
+import com.cupom.api.repository.CupomRepository;
+import com.cupom.api.repository.projection.CupomStateCounts;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToLongFunction;
+
+/**
+ * Gauges {@value #GAUGE_NAME} com a quantidade de cupons ativos, publicados e expirados.
+ * Os três valores vêm de uma única consulta agregada (sem carregar entidades), reaproveitada
+ * por {@code cupom.metrics.state-counts-ttl} entre coletas.
+ */
+@Slf4j
+@Component
+public class CupomStateGauges implements MeterBinder {
+
+    public static final String GAUGE_NAME = "cupom.coupons";
+
+    private final CupomRepository cupomRepository;
+    private final Clock clock;
+    private final long ttlNanos;
+
+    private final ReentrantLock loadLock = new ReentrantLock();
+
+    private volatile Snapshot snapshot;
+
+    public CupomStateGauges(CupomRepository cupomRepository, Clock clock,
+                            @Value("${cupom.metrics.state-counts-ttl:PT30S}") Duration ttl) {
+        this.cupomRepository = cupomRepository;
+        this.clock = clock;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        register(registry, "active", Snapshot::active);
+        register(registry, "published", Snapshot::published);
+        register(registry, "expired", Snapshot::expired);
+    }
+
+    private void register(MeterRegistry registry, String state, ToLongFunction<Snapshot> value) {
+        Gauge.builder(GAUGE_NAME, this, gauges -> value.applyAsLong(gauges.current()))
+                .description("Quantidade de cupons não deletados por estado")
+                .tag("state", state)
+                .strongReference(true)
+                .register(registry);
+    }
+
+    /**
+     * Contagens atuais, recalculadas quando o snapshot expira
+     */
+    Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null || System.nanoTime() - current.takenAt() > ttlNanos) {
+            loadLock.lock();
+            try {
+                current = snapshot;
+                if (current == null || System.nanoTime() - current.takenAt() > ttlNanos) {
+                    current = load();
+                    snapshot = current;
+                }
+            } finally {
+                loadLock.unlock();
+            }
+        }
+        return current;
+    }
+
+    private Snapshot load() {
+        try {
+            CupomStateCounts counts = cupomRepository.countByState(LocalDate.now(clock));
+            return new Snapshot(valueOf(counts.getActive()), valueOf(counts.getPublished()),
+                valueOf(counts.getExpired()), System.nanoTime());
+        } catch (RuntimeException e) {
+            log.warn("Não foi possível contar cupons por estado: {}", e.getMessage());
+            Snapshot previous = snapshot;
+            return previous != null
+                ? new Snapshot(previous.active(), previous.published(), previous.expired(), System.nanoTime())
+                : new Snapshot(0, 0, 0, System.nanoTime());
+        }
+    }
+
+    private static long valueOf(Long count) {
+        return count != null ? count : 0L;
+    }
+
+    record Snapshot(long active, long published, long expired, long takenAt) {
+    }
+}
@@ -0,0 +1,22 @@
+package com.cupom.api.repository;
+
+import com.cupom.api.entity.CupomRedemption;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repositório para acesso a dados de resgates de cupons
+ */
+@Repository
+public interface CupomRedemptionRepository extends JpaRepository<CupomRedemption, Long> {
+
+    /**
+     * Quantidade de resgates gravados do cupom
+     */
+    long countByCupomId(Long cupomId);
+
+    /**
+     * Verifica se o pedido já tem resgate gravado para o cupom
+     */
+    boolean existsByCupomIdAndOrderId(Long cupomId, String orderId);
+}
@@ -1,23 +1,47 @@
 package com.cupom.api.repository;
 
+import com.cupom.api.dto.CupomResponse;
 import com.cupom.api.entity.Cupom;
+import com.cupom.api.repository.projection.CupomCodeState;
+import com.cupom.api.repository.projection.CupomDescription;
+import com.cupom.api.repository.projection.CupomStateCounts;
+import com.cupom.api.repository.projection.CupomRevision;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 /**
- * Repositório para acesso a dados de Cupons
+ * Repositório para acesso a dados de Cupons.
+ * Publicar, despublicar e deletar ficam em {@link CupomStateRepository} (UPDATE que devolve a linha);
+ * a busca por filtros compostos, em {@link CupomSearchRepository}.
  */
 @Repository
-public interface CupomRepository extends JpaRepository<Cupom, Long> {
+public interface CupomRepository extends JpaRepository<Cupom, Long>, CupomStateRepository, CupomSearchRepository {
 
     /**
-     * Busca cupom por código
+     * Projeção direta em {@link CupomResponse} (expressão construtora JPQL): sem entidades gerenciadas,
+     * sem snapshot de dirty checking. {@code active} e {@code expired} são calculados no SQL a partir
+     * do parâmetro {@code :today}.
      */
-    Optional<Cupom> findByCode(String code);
+    String RESPONSE_PROJECTION = "SELECT new com.cupom.api.dto.CupomResponse("
+        + "c.id, c.code, c.description, c.discountValue, c.expirationDate, c.published, c.maxUses, c.usedCount, c.version, "
+        + "c.deleted, "
+        + "CASE WHEN c.deleted = false AND c.expirationDate >= :today THEN true ELSE false END, "
+        + "CASE WHEN c.expirationDate < :today THEN true ELSE false END, "
+        + "c.createdAt, c.updatedAt, c.deletedAt) "
+        + "FROM Cupom c ";
 
     /**
      * Busca cupom por código ignorando deletados
@@ -26,25 +50,142 @@ public interface CupomRepository extends JpaRepository<Cupom, Long> {
     Optional<Cupom> findByCodeAndNotDeleted(String code);
 
     /**
-     * Busca todos os cupons ativos (não deletados)
+     * Cupons ativos: não deletados e não expirados. {@code expired} é o estado gravado pelo varredor diário
+     * (permite o índice parcial no PostgreSQL); a comparação com {@code :today} cobre o intervalo entre a
+     * virada do dia e a varredura.
+     */
+    String ACTIVE_FILTER = "c.deleted = false AND c.expired = false AND c.expirationDate >= :today ";
+
+    /**
+     * Busca a próxima página de cupons ativos (não deletados e não expirados) após o ID informado, já como resposta.
+     * Paginação por cursor (keyset): usa a PK em vez de OFFSET, custo constante por página.
+     */
+    @Query(RESPONSE_PROJECTION + "WHERE " + ACTIVE_FILTER + "AND c.id > :after ORDER BY c.id")
+    List<CupomResponse> findActiveResponsesAfter(Long after, LocalDate today, Pageable pageable);
+
+    /**
+     * Percorre todos os cupons ativos (não deletados e não expirados) via cursor JDBC, já como resposta,
+     * sem materializar a lista. Deve ser consumido dentro de uma transação e fechado ao final.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query(RESPONSE_PROJECTION + "WHERE " + ACTIVE_FILTER + "ORDER BY c.id")
+    Stream<CupomResponse> streamAllActiveResponses(LocalDate today);
+
+    /**
+     * Percorre código e estados de todos os cupons não deletados via cursor JDBC (carga do índice de códigos).
+     * Deve ser consumido dentro de uma transação e fechado ao final.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT c.id AS id, c.code AS code, c.published AS published, c.deleted AS deleted, c.expired AS expired "
+        + "FROM Cupom c WHERE c.deleted = false")
+    Stream<CupomCodeState> streamCodeStates();
+
+    /**
+     * Percorre os códigos de todos os cupons não deletados via cursor JDBC (reconstrução do filtro de Bloom e
+     * carga do espaço de códigos do gerador).
+     * Deve ser consumido dentro de uma transação e fechado ao final.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT c.code FROM Cupom c WHERE c.deleted = false")
+    Stream<String> streamActiveCodes();
+
+    /**
+     * Código e estados dos cupons informados (incluindo deletados)
+     */
+    @Query("SELECT c.id AS id, c.code AS code, c.published AS published, c.deleted AS deleted, c.expired AS expired "
+        + "FROM Cupom c WHERE c.id IN :ids")
+    List<CupomCodeState> findCodeStatesByIds(Collection<Long> ids);
+
+    /**
+     * Percorre ID e descrição de todos os cupons não deletados via cursor JDBC, em ordem de ID
+     * (reconstrução do índice de descrições). Deve ser consumido dentro de uma transação e fechado ao final.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT c.id AS id, c.description AS description FROM Cupom c WHERE c.deleted = false ORDER BY c.id")
+    Stream<CupomDescription> streamIndexableDescriptions();
+
+    /**
+     * ID e descrição dos cupons informados (incluindo deletados)
+     */
+    @Query("SELECT c.id AS id, c.description AS description FROM Cupom c WHERE c.id IN :ids")
+    List<CupomDescription> findDescriptionsByIds(Collection<Long> ids);
+
+    /**
+     * Próximo bloco de IDs vencidos antes de {@code today} e ainda não marcados como expirados (keyset pela PK)
+     */
+    @Query("SELECT c.id FROM Cupom c WHERE c.expired = false AND c.expirationDate < :today AND c.id > :after "
+        + "ORDER BY c.id")
+    List<Long> findIdsToExpire(Long after, LocalDate today, Pageable pageable);
+
+    /**
+     * Marca os cupons como expirados em um único UPDATE. Não altera versão nem {@code updatedAt}:
+     * a expiração já faz parte do ETag e do Last-Modified calculados na leitura.
+     *
+     * @return linhas afetadas
+     */
+    @Modifying
+    @Query("UPDATE Cupom c SET c.expired = true WHERE c.id IN :ids AND c.expired = false")
+    int markExpired(Collection<Long> ids);
+
+    /**
+     * Busca cupom por ID (incluindo deletados), já como resposta
+     */
+    @Query(RESPONSE_PROJECTION + "WHERE c.id = :id")
+    Optional<CupomResponse> findResponseById(Long id, LocalDate today);
+
+    /**
+     * Versão, contador de resgates e datas do cupom (incluindo deletados), para requisições condicionais
+     */
+    @Query("SELECT c.id AS id, c.version AS version, c.usedCount AS usedCount, c.deleted AS deleted, "
+        + "c.createdAt AS createdAt, c.updatedAt AS updatedAt, c.expirationDate AS expirationDate "
+        + "FROM Cupom c WHERE c.id = :id")
+    Optional<CupomRevision> findRevisionById(Long id);
+
+    /**
+     * Busca cupom por código ignorando deletados, já como resposta
+     */
+    @Query(RESPONSE_PROJECTION + "WHERE c.code = :code AND c.deleted = false")
+    Optional<CupomResponse> findActiveResponseByCode(String code, LocalDate today);
+
+    /**
+     * Busca vários cupons por código ignorando deletados, já como resposta (uma consulta por conjunto de códigos)
+     */
+    @Query(RESPONSE_PROJECTION + "WHERE c.code IN :codes AND c.deleted = false")
+    List<CupomResponse> findActiveResponsesByCodes(Collection<String> codes, LocalDate today);
+
+    /**
+     * Cupons publicados e ativos (não deletados e não expirados), já como resposta:
+     * carga completa do snapshot do checkout
+     */
+    @Query(RESPONSE_PROJECTION + "WHERE c.published = true AND " + ACTIVE_FILTER)
+    List<CupomResponse> findPublishedActiveResponses(LocalDate today);
+
+    /**
+     * Busca os cupons informados (incluindo deletados), já como resposta
      */
-    @Query("SELECT c FROM Cupom c WHERE c.deleted = false")
-    List<Cupom> findAllActive();
+    @Query(RESPONSE_PROJECTION + "WHERE c.id IN :ids")
+    List<CupomResponse> findResponsesByIds(Collection<Long> ids, LocalDate today);
 
     /**
-     * Busca todos os cupons publicados e ativos
+     * Conta os cupons não deletados por estado (ativos, publicados e expirados) em uma única agregação
      */
-    @Query("SELECT c FROM Cupom c WHERE c.published = true AND c.deleted = false")
-    List<Cupom> findAllPublishedAndActive();
+    @Query("SELECT "
+        + "SUM(CASE WHEN c.expirationDate >= :today THEN 1 ELSE 0 END) AS active, "
+        + "SUM(CASE WHEN c.published = true THEN 1 ELSE 0 END) AS published, "
+        + "SUM(CASE WHEN c.expirationDate < :today THEN 1 ELSE 0 END) AS expired "
+        + "FROM Cupom c WHERE c.deleted = false")
+    CupomStateCounts countByState(LocalDate today);
 
     /**
-     * Verifica se existe cupom com o código (incluindo deletados)
+     * Quantidade de resgates já gravados do cupom
      */
-    boolean existsByCode(String code);
+    @Query("SELECT c.usedCount FROM Cupom c WHERE c.id = :id")
+    Optional<Long> findUsedCountById(Long id);
 
     /**
-     * Verifica se existe cupom com o código (excluindo deletados)
+     * Retorna, dentre os códigos informados, os que pertencem a cupons não deletados.
+     * Verificação de duplicidade em lote: uma consulta por conjunto de códigos.
      */
-    @Query("SELECT CASE WHEN COUNT(c) > 0 THEN true ELSE false END FROM Cupom c WHERE c.code = :code AND c.deleted = false")
-    boolean existsByCodeAndNotDeleted(String code);
+    @Query("SELECT c.code FROM Cupom c WHERE c.code IN :codes AND c.deleted = false")
+    List<String> findActiveCodes(Collection<String> codes);
 }
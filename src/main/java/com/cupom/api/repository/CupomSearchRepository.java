@@ -0,0 +1,24 @@
+package com.cupom.api.repository;
+
+import com.cupom.api.dto.CupomResponse;
+import com.cupom.api.entity.Cupom;
+import com.cupom.api.repository.specification.CupomSearchSort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Busca de cupons por filtros compostos ({@link com.cupom.api.repository.specification.CupomSpecifications})
+ */
+public interface CupomSearchRepository {
+
+    /**
+     * Busca já como resposta (mesma projeção de {@link CupomRepository#RESPONSE_PROJECTION}),
+     * ordenada por {@code sort} com desempate por ID
+     *
+     * @param limit quantidade máxima de itens
+     */
+    List<CupomResponse> search(Specification<Cupom> spec, CupomSearchSort sort, boolean descending,
+                               int limit, LocalDate today);
+}
@@ -0,0 +1,67 @@
+package com.cupom.api.repository;
+
+import com.cupom.api.dto.CupomResponse;
+import com.cupom.api.entity.Cupom;
+import com.cupom.api.repository.specification.CupomSearchSort;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Implementação de {@link CupomSearchRepository} com Criteria API: os predicados das Specifications
+ * são aplicados a uma consulta que seleciona direto em {@link CupomResponse} (sem entidades gerenciadas),
+ * o que o {@code JpaSpecificationExecutor} não faz.
+ */
+public class CupomSearchRepositoryImpl implements CupomSearchRepository {
+
+    private final EntityManager entityManager;
+
+    public CupomSearchRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<CupomResponse> search(Specification<Cupom> spec, CupomSearchSort sort, boolean descending,
+                                      int limit, LocalDate today) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<CupomResponse> query = cb.createQuery(CupomResponse.class);
+        Root<Cupom> c = query.from(Cupom.class);
+
+        Expression<Boolean> active = cb.<Boolean>selectCase()
+                .when(cb.and(cb.isFalse(c.get("deleted")), cb.greaterThanOrEqualTo(c.get("expirationDate"), today)), true)
+                .otherwise(false);
+        Expression<Boolean> expired = cb.<Boolean>selectCase()
+                .when(cb.lessThan(c.get("expirationDate"), today), true)
+                .otherwise(false);
+
+        query.select(cb.construct(CupomResponse.class,
+                c.get("id"), c.get("code"), c.get("description"), c.get("discountValue"), c.get("expirationDate"),
+                c.get("published"), c.get("maxUses"), c.get("usedCount"), c.get("version"), c.get("deleted"),
+                active, expired, c.get("createdAt"), c.get("updatedAt"), c.get("deletedAt")));
+
+        Predicate where = spec != null ? spec.toPredicate(c, query, cb) : null;
+        if (where != null) {
+            query.where(where);
+        }
+
+        Order byId = descending ? cb.desc(c.get("id")) : cb.asc(c.get("id"));
+        if (sort == CupomSearchSort.ID) {
+            query.orderBy(byId);
+        } else {
+            Expression<?> field = c.get(sort.getAttribute());
+            query.orderBy(descending ? cb.desc(field) : cb.asc(field), byId);
+        }
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
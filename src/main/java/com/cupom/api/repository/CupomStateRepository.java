@@ -0,0 +1,65 @@
+package com.cupom.api.repository;
+
+import com.cupom.api.dto.CupomBulkProgress;
+import com.cupom.api.dto.CupomBulkRequest;
+import com.cupom.api.dto.CupomResponse;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Mudanças de estado do cupom (publicar, despublicar, soft delete) em um único comando SQL
+ * que já devolve a linha atualizada: sem carregar a entidade e sem releitura após o UPDATE.
+ *
+ * Todas aceitam {@code version} (If-Match): informada, só atualiza se a versão atual for a mesma.
+ * Cada atualização incrementa a versão e grava {@code updatedAt}. {@code active} e {@code expired}
+ * da resposta são calculados no SQL a partir de {@code today}, como na projeção de leitura.
+ *
+ * As operações em massa ({@link #findBulkTargets} e {@link #bulkUpdate}) aplicam as mesmas mudanças
+ * por blocos de IDs, com UPDATE por conjunto.
+ */
+public interface CupomStateRepository {
+
+    /**
+     * Publica o cupom não deletado.
+     *
+     * @return cupom atualizado (vazio se não encontrado, deletado ou com outra versão)
+     */
+    Optional<CupomResponse> publish(Long id, Long version, LocalDateTime now, LocalDate today);
+
+    /**
+     * Despublica o cupom.
+     *
+     * @return cupom atualizado (vazio se não encontrado ou com outra versão)
+     */
+    Optional<CupomResponse> unpublish(Long id, Long version, LocalDateTime now, LocalDate today);
+
+    /**
+     * Soft delete do cupom não deletado.
+     *
+     * @return cupom atualizado (vazio se não encontrado, já deletado ou com outra versão)
+     */
+    Optional<CupomResponse> softDelete(Long id, Long version, LocalDateTime now, LocalDate today);
+
+    /**
+     * Próximo bloco de uma operação em massa: cupons após {@code afterId}, em ordem de ID, que atendem
+     * aos critérios de {@code filter} e ainda não estão no estado de destino de {@code action}.
+     * Leitura sem lock; a guarda de estado é conferida de novo pelo {@link #bulkUpdate}.
+     *
+     * @param ids restringe a esses IDs (null para selecionar só pelos critérios); {@code filter.ids} é ignorado
+     * @return código de cada cupom selecionado, por ID em ordem crescente
+     */
+    Map<Long, String> findBulkTargets(CupomBulkProgress.Action action, CupomBulkRequest filter,
+                                      Collection<Long> ids, long afterId, int limit);
+
+    /**
+     * Aplica {@code action} aos IDs em um único UPDATE; só altera (e trava) as linhas desses IDs
+     * que ainda não estão no estado de destino.
+     *
+     * @return linhas afetadas
+     */
+    int bulkUpdate(CupomBulkProgress.Action action, Collection<Long> ids, LocalDateTime now);
+}
@@ -0,0 +1,191 @@
+package com.cupom.api.repository;
+
+import com.cupom.api.dto.CupomBulkProgress;
+import com.cupom.api.dto.CupomBulkRequest;
+import com.cupom.api.dto.CupomResponse;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Implementação de {@link CupomStateRepository} em SQL nativo, já que JPQL não devolve as linhas
+ * de um UPDATE. O comando depende do banco: {@code UPDATE ... RETURNING} no PostgreSQL e
+ * {@code SELECT ... FROM FINAL TABLE (UPDATE ...)} no H2. Roda na conexão da transação JPA corrente.
+ */
+public class CupomStateRepositoryImpl implements CupomStateRepository {
+
+    /**
+     * Colunas da resposta, na mesma forma da projeção JPQL {@link CupomRepository#RESPONSE_PROJECTION}
+     */
+    private static final String RESPONSE_COLUMNS = "id, code, description, discount_value, expiration_date, "
+        + "published, max_uses, used_count, version, deleted, "
+        + "CASE WHEN deleted = FALSE AND expiration_date >= :today THEN TRUE ELSE FALSE END AS active, "
+        + "CASE WHEN expiration_date < :today THEN TRUE ELSE FALSE END AS expired, "
+        + "created_at, updated_at, deleted_at";
+
+    private static final String PUBLISH_SET = "published = TRUE, updated_at = :now, version = version + 1";
+    private static final String UNPUBLISH_SET = "published = FALSE, updated_at = :now, version = version + 1";
+    private static final String SOFT_DELETE_SET =
+        "deleted = TRUE, deleted_at = :now, updated_at = :now, version = version + 1";
+
+    private static final RowMapper<CupomResponse> RESPONSE_MAPPER = (rs, rowNum) -> CupomResponse.builder()
+            .id(rs.getLong("id"))
+            .code(rs.getString("code"))
+            .description(rs.getString("description"))
+            .discountValue(rs.getBigDecimal("discount_value"))
+            .expirationDate(rs.getObject("expiration_date", LocalDate.class))
+            .published(rs.getBoolean("published"))
+            .maxUses(rs.getObject("max_uses", Integer.class))
+            .usedCount(rs.getLong("used_count"))
+            .version(rs.getLong("version"))
+            .deleted(rs.getBoolean("deleted"))
+            .active(rs.getBoolean("active"))
+            .expired(rs.getBoolean("expired"))
+            .createdAt(rs.getObject("created_at", LocalDateTime.class))
+            .updatedAt(rs.getObject("updated_at", LocalDateTime.class))
+            .deletedAt(rs.getObject("deleted_at", LocalDateTime.class))
+            .build();
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final boolean postgres;
+
+    public CupomStateRepositoryImpl(NamedParameterJdbcTemplate jdbcTemplate, DataSource dataSource) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.postgres = isPostgres(dataSource);
+    }
+
+    @Override
+    public Optional<CupomResponse> publish(Long id, Long version, LocalDateTime now, LocalDate today) {
+        return update(PUBLISH_SET, "deleted = FALSE", id, version, now, today);
+    }
+
+    @Override
+    public Optional<CupomResponse> unpublish(Long id, Long version, LocalDateTime now, LocalDate today) {
+        return update(UNPUBLISH_SET, null, id, version, now, today);
+    }
+
+    @Override
+    public Optional<CupomResponse> softDelete(Long id, Long version, LocalDateTime now, LocalDate today) {
+        return update(SOFT_DELETE_SET, "deleted = FALSE", id, version, now, today);
+    }
+
+    /**
+     * UPDATE por ID com a guarda de estado e, se informada, a de versão no WHERE; devolve a linha atualizada
+     */
+    private Optional<CupomResponse> update(String set, String stateGuard, Long id, Long version,
+                                           LocalDateTime now, LocalDate today) {
+        StringBuilder where = new StringBuilder("id = :id");
+        if (stateGuard != null) {
+            where.append(" AND ").append(stateGuard);
+        }
+        // Cláusula só com versão informada: "? IS NULL" não tem tipo inferível no PostgreSQL
+        if (version != null) {
+            where.append(" AND version = :version");
+        }
+
+        String update = "UPDATE cupons SET " + set + " WHERE " + where;
+        String sql = postgres
+            ? update + " RETURNING " + RESPONSE_COLUMNS
+            : "SELECT " + RESPONSE_COLUMNS + " FROM FINAL TABLE (" + update + ")";
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("id", id)
+                .addValue("version", version)
+                .addValue("now", now)
+                .addValue("today", today);
+
+        List<CupomResponse> rows = jdbcTemplate.query(sql, params, RESPONSE_MAPPER);
+        return rows.stream().findFirst();
+    }
+
+    @Override
+    public Map<Long, String> findBulkTargets(CupomBulkProgress.Action action, CupomBulkRequest filter,
+                                             Collection<Long> ids, long afterId, int limit) {
+        StringBuilder sql = new StringBuilder("SELECT id, code FROM cupons WHERE id > :after AND ")
+                .append(pendingGuard(action));
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("after", afterId)
+                .addValue("limit", limit);
+
+        if (ids != null) {
+            sql.append(" AND id IN (:ids)");
+            params.addValue("ids", ids);
+        }
+        if (filter.getCodePrefix() != null) {
+            // Prefixo alfanumérico (validado no DTO): sem curingas a escapar
+            sql.append(" AND code LIKE :codePrefix");
+            params.addValue("codePrefix", filter.getCodePrefix().toUpperCase(Locale.ROOT) + "%");
+        }
+        if (filter.getExpirationFrom() != null) {
+            sql.append(" AND expiration_date >= :expirationFrom");
+            params.addValue("expirationFrom", filter.getExpirationFrom());
+        }
+        if (filter.getExpirationTo() != null) {
+            sql.append(" AND expiration_date <= :expirationTo");
+            params.addValue("expirationTo", filter.getExpirationTo());
+        }
+        if (filter.getCreatedFrom() != null) {
+            sql.append(" AND created_at >= :createdFrom");
+            params.addValue("createdFrom", filter.getCreatedFrom());
+        }
+        if (filter.getCreatedTo() != null) {
+            sql.append(" AND created_at <= :createdTo");
+            params.addValue("createdTo", filter.getCreatedTo());
+        }
+        // Keyset pela PK: cada bloco continua de onde o anterior parou, sem OFFSET
+        sql.append(" ORDER BY id LIMIT :limit");
+
+        Map<Long, String> targets = new LinkedHashMap<>();
+        jdbcTemplate.query(sql.toString(), params, rs -> {
+            targets.put(rs.getLong("id"), rs.getString("code"));
+        });
+        return targets;
+    }
+
+    @Override
+    public int bulkUpdate(CupomBulkProgress.Action action, Collection<Long> ids, LocalDateTime now) {
+        String set = switch (action) {
+            case PUBLISH -> PUBLISH_SET;
+            case UNPUBLISH -> UNPUBLISH_SET;
+            case DELETE -> SOFT_DELETE_SET;
+        };
+        String sql = "UPDATE cupons SET " + set + " WHERE id IN (:ids) AND " + pendingGuard(action);
+        return jdbcTemplate.update(sql, new MapSqlParameterSource()
+                .addValue("ids", ids)
+                .addValue("now", now));
+    }
+
+    /**
+     * Cupons que ainda não estão no estado de destino da operação em massa
+     * (os já alterados não são regravados nem têm a versão incrementada)
+     */
+    private static String pendingGuard(CupomBulkProgress.Action action) {
+        return switch (action) {
+            case PUBLISH -> "deleted = FALSE AND published = FALSE";
+            case UNPUBLISH -> "published = TRUE";
+            case DELETE -> "deleted = FALSE";
+        };
+    }
+
+    private static boolean isPostgres(DataSource dataSource) {
+        try {
+            String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+            return "PostgreSQL".equalsIgnoreCase(product);
+        } catch (MetaDataAccessException e) {
+            throw new IllegalStateException("Não foi possível identificar o banco de dados", e);
+        }
+    }
+}
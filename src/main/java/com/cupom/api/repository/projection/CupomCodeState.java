@@ -0,0 +1,17 @@
+package com.cupom.api.repository.projection;
+
+/**
+ * Projeção com o código e os estados do cupom, para o índice compacto de códigos
+ */
+public interface CupomCodeState {
+
+    Long getId();
+
+    String getCode();
+
+    Boolean getPublished();
+
+    Boolean getDeleted();
+
+    Boolean getExpired();
+}
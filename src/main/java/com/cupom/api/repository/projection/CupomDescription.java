@@ -0,0 +1,11 @@
+package com.cupom.api.repository.projection;
+
+/**
+ * Projeção com o ID e a descrição do cupom, para o índice de descrições
+ */
+public interface CupomDescription {
+
+    Long getId();
+
+    String getDescription();
+}
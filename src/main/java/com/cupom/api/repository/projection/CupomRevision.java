@@ -0,0 +1,25 @@
+package com.cupom.api.repository.projection;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Projeção com os campos que identificam a versão atual de um cupom (validadores HTTP e
+ * diagnóstico de atualizações condicionais), sem carregar o restante da linha
+ */
+public interface CupomRevision {
+
+    Long getId();
+
+    Long getVersion();
+
+    Long getUsedCount();
+
+    Boolean getDeleted();
+
+    LocalDateTime getCreatedAt();
+
+    LocalDateTime getUpdatedAt();
+
+    LocalDate getExpirationDate();
+}
@@ -0,0 +1,13 @@
+package com.cupom.api.repository.projection;
+
+/**
+ * Projeção com a contagem de cupons não deletados por estado
+ */
+public interface CupomStateCounts {
+
+    Long getActive();
+
+    Long getPublished();
+
+    Long getExpired();
+}
@@ -0,0 +1,56 @@
+package com.cupom.api.repository.specification;
+
+import com.cupom.api.dto.CupomResponse;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Campos aceitos na ordenação da busca. Todos são não nulos e indexados; o ID desempata a ordem
+ * e completa o cursor (keyset), então cada página custa o mesmo independentemente da profundidade.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum CupomSearchSort {
+
+    ID("id", CupomResponse::getId, Long::valueOf),
+    CODE("code", CupomResponse::getCode, value -> value),
+    DISCOUNT_VALUE("discountValue", CupomResponse::getDiscountValue, BigDecimal::new),
+    EXPIRATION_DATE("expirationDate", CupomResponse::getExpirationDate, LocalDate::parse),
+    CREATED_AT("createdAt", CupomResponse::getCreatedAt, LocalDateTime::parse);
+
+    /**
+     * Atributo da entidade Cupom (e nome aceito no parâmetro {@code sort})
+     */
+    private final String attribute;
+    private final Function<CupomResponse, Comparable<?>> extractor;
+    private final Function<String, Comparable<?>> parser;
+
+    /**
+     * Valor do campo de ordenação no item (gravado no cursor)
+     */
+    public Comparable<?> valueOf(CupomResponse cupom) {
+        return extractor.apply(cupom);
+    }
+
+    /**
+     * Converte o valor gravado no cursor de volta para o tipo do atributo
+     */
+    public Comparable<?> parse(String value) {
+        return parser.apply(value);
+    }
+
+    public static Optional<CupomSearchSort> fromAttribute(String attribute) {
+        for (CupomSearchSort sort : values()) {
+            if (sort.attribute.equals(attribute)) {
+                return Optional.of(sort);
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,140 @@
+package com.cupom.api.repository.specification;
+
+import com.cupom.api.entity.Cupom;
+import com.cupom.api.index.CupomDescriptionIndex;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Locale;
+
+/**
+ * Predicados da busca de cupons. Cada fábrica devolve {@code null} quando o parâmetro não foi
+ * informado, e o {@link Specification#and} ignora nulos: a consulta só recebe os filtros presentes,
+ * o que mantém o plano simples e permite ao banco escolher o índice do filtro mais seletivo.
+ */
+public final class CupomSpecifications {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    private CupomSpecifications() {
+    }
+
+    public static Specification<Cupom> notDeleted() {
+        return (c, query, cb) -> cb.isFalse(c.get("deleted"));
+    }
+
+    /**
+     * Código iniciado pelo prefixo: {@code code >= 'ABC' AND code < 'ABD'} (faixa no índice de código) mais o
+     * {@code LIKE 'ABC%'}, que decide. O padrão do LIKE vai como parâmetro, e com parâmetro o H2 não monta a faixa
+     * do índice (o plano é escolhido antes dos valores); a comparação por faixa usa o índice nos dois bancos.
+     */
+    public static Specification<Cupom> codeStartsWith(String prefix) {
+        if (prefix == null) {
+            return null;
+        }
+        String upper = prefix.toUpperCase(Locale.ROOT);
+        return (c, query, cb) -> {
+            Path<String> code = c.get("code");
+            Predicate like = cb.like(code, escapeLike(upper) + "%", LIKE_ESCAPE);
+            if (upper.isEmpty() || upper.charAt(upper.length() - 1) == Character.MAX_VALUE) {
+                return like;
+            }
+            String next = upper.substring(0, upper.length() - 1) + (char) (upper.charAt(upper.length() - 1) + 1);
+            return cb.and(cb.greaterThanOrEqualTo(code, upper), cb.lessThan(code, next), like);
+        };
+    }
+
+    /**
+     * Descrição com todas as palavras da consulta, cada uma no início de uma palavra da descrição, sem
+     * diferenciar maiúsculas nem acentos: a regra do {@link CupomDescriptionIndex#tokenize}, sobre a descrição
+     * passada pelo mesmo {@code TRANSLATE}, então os dois caminhos da busca encontram os mesmos cupons
+     */
+    public static Specification<Cupom> descriptionMatches(String term) {
+        if (term == null || term.isBlank()) {
+            return null;
+        }
+        String[] words = CupomDescriptionIndex.tokenize(term);
+        return (c, query, cb) -> {
+            Expression<String> folded = cb.function("translate", String.class,
+                cb.lower(c.get("description")),
+                cb.literal(CupomDescriptionIndex.FOLD_FROM), cb.literal(CupomDescriptionIndex.FOLD_TO));
+            Predicate[] predicates = new Predicate[words.length];
+            for (int i = 0; i < words.length; i++) {
+                String word = escapeLike(words[i]);
+                predicates[i] = cb.or(
+                    cb.like(folded, word + "%", LIKE_ESCAPE),
+                    cb.like(folded, "% " + word + "%", LIKE_ESCAPE));
+            }
+            return cb.and(predicates);
+        };
+    }
+
+    /**
+     * Cupons com um dos IDs informados (candidatos já resolvidos pelo índice de descrições)
+     */
+    public static Specification<Cupom> idIn(Collection<Long> ids) {
+        return (c, query, cb) -> c.get("id").in(ids);
+    }
+
+    public static Specification<Cupom> discountBetween(BigDecimal min, BigDecimal max) {
+        return between("discountValue", min, max);
+    }
+
+    public static Specification<Cupom> expirationBetween(LocalDate from, LocalDate to) {
+        return between("expirationDate", from, to);
+    }
+
+    public static Specification<Cupom> published(Boolean published) {
+        if (published == null) {
+            return null;
+        }
+        return (c, query, cb) -> cb.equal(c.get("published"), published);
+    }
+
+    /**
+     * Keyset: itens depois de ({@code value}, {@code id}) na ordem de {@code sort}, com o ID como desempate.
+     * Ascendente: {@code campo > valor OR (campo = valor AND id > ultimoId)}; descendente com os sinais invertidos.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static Specification<Cupom> after(CupomSearchSort sort, boolean descending, Comparable value, Long id) {
+        if (id == null) {
+            return null;
+        }
+        return (c, query, cb) -> {
+            Path<Long> idPath = c.get("id");
+            if (sort == CupomSearchSort.ID) {
+                return descending ? cb.lessThan(idPath, id) : cb.greaterThan(idPath, id);
+            }
+            Path<Comparable> field = c.get(sort.getAttribute());
+            return cb.or(
+                descending ? cb.lessThan(field, value) : cb.greaterThan(field, value),
+                cb.and(cb.equal(field, value), descending ? cb.lessThan(idPath, id) : cb.greaterThan(idPath, id))
+            );
+        };
+    }
+
+    private static <T extends Comparable<? super T>> Specification<Cupom> between(String attribute, T from, T to) {
+        if (from == null && to == null) {
+            return null;
+        }
+        return (c, query, cb) -> {
+            Path<T> path = c.get(attribute);
+            if (from == null) {
+                return cb.lessThanOrEqualTo(path, to);
+            }
+            if (to == null) {
+                return cb.greaterThanOrEqualTo(path, from);
+            }
+            return cb.between(path, from, to);
+        };
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
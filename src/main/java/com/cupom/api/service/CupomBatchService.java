@@ -0,0 +1,232 @@
+package com.cupom.api.service;
+
+import com.cupom.api.cache.CupomCodeCache;
+import com.cupom.api.dto.CupomBatchItemResult;
+import com.cupom.api.dto.CupomBatchResponse;
+import com.cupom.api.dto.CupomRequest;
+import com.cupom.api.entity.Cupom;
+import com.cupom.api.event.CupomChangedEvent;
+import com.cupom.api.exception.DuplicateCupomCodeException;
+import com.cupom.api.exception.InvalidCupomException;
+import com.cupom.api.index.CupomDescriptionIndex;
+import com.cupom.api.repository.CupomRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Serviço de criação de cupons em lote.
+ * REGRAS DE NEGÓCIO (as mesmas da criação unitária, aplicadas item a item):
+ * - Normaliza e valida cada código, data de expiração e valor de desconto
+ * - Rejeita códigos duplicados dentro do lote e já existentes no banco
+ * - Itens inválidos não impedem a criação dos demais; o resultado é reportado por item
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CupomBatchService {
+
+    /**
+     * Quantidade máxima de códigos por consulta IN de duplicidade
+     */
+    static final int LOOKUP_CHUNK_SIZE = 1000;
+
+    private final CupomRepository cupomRepository;
+    private final EntityManager entityManager;
+    private final Validator validator;
+    private final CupomCodeCache cupomCodeCache;
+    private final CupomDescriptionIndex cupomDescriptionIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Clock clock;
+
+    @Value("${cupom.batch.max-size:50000}")
+    private int maxBatchSize = 50_000;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int jdbcBatchSize = 50;
+
+    /**
+     * Cria os cupons do lote.
+     * A duplicidade é verificada com consultas por conjunto de códigos e os INSERTs são
+     * enviados em batch JDBC, com flush/clear do contexto de persistência a cada bloco.
+     */
+    @Transactional
+    public CupomBatchResponse createCupons(List<CupomRequest> requests) {
+        log.info("Criando lote de {} cupons", requests.size());
+
+        if (requests.size() > maxBatchSize) {
+            throw new InvalidCupomException(
+                "Lote excede o máximo de " + maxBatchSize + " cupons. Tamanho fornecido: " + requests.size()
+            );
+        }
+
+        CupomBatchItemResult[] results = new CupomBatchItemResult[requests.size()];
+
+        // REGRA: Normaliza e valida cada item; duplicados dentro do próprio lote são rejeitados
+        LocalDate today = LocalDate.now(clock);
+        Map<String, Integer> candidates = new LinkedHashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            CupomRequest request = requests.get(i);
+            try {
+                String normalizedCode = validate(request, today);
+                if (candidates.putIfAbsent(normalizedCode, i) != null) {
+                    results[i] = failure(i, normalizedCode, CupomBatchItemResult.Status.DUPLICATE,
+                        "Código repetido no lote: " + normalizedCode);
+                }
+            } catch (IllegalArgumentException e) {
+                results[i] = failure(i, request != null ? request.getCode() : null,
+                    CupomBatchItemResult.Status.INVALID, e.getMessage());
+            }
+        }
+
+        // REGRA: Verifica código duplicado entre cupons não deletados, em consultas por conjunto
+        Set<String> existingCodes = findActiveCodes(candidates.keySet());
+
+        List<Cupom> chunk = new ArrayList<>(jdbcBatchSize);
+        List<String> createdCodes = new ArrayList<>(candidates.size());
+        for (Map.Entry<String, Integer> candidate : candidates.entrySet()) {
+            String normalizedCode = candidate.getKey();
+            int index = candidate.getValue();
+
+            if (existingCodes.contains(normalizedCode)) {
+                results[index] = failure(index, normalizedCode, CupomBatchItemResult.Status.DUPLICATE,
+                    "Já existe um cupom ativo com o código: " + normalizedCode);
+                continue;
+            }
+
+            CupomRequest request = requests.get(index);
+            chunk.add(Cupom.builder()
+                    .code(normalizedCode)
+                    .description(request.getDescription())
+                    .discountValue(request.getDiscountValue())
+                    .expirationDate(request.getExpirationDate())
+                    .published(request.getPublished() != null ? request.getPublished() : false)
+                    .maxUses(request.getMaxUses())
+                    .deleted(false)
+                    .build());
+            createdCodes.add(normalizedCode);
+
+            if (chunk.size() == jdbcBatchSize) {
+                persist(chunk, candidates, results);
+            }
+        }
+        persist(chunk, candidates, results);
+
+        // Remove eventuais entradas negativas dos códigos recém-criados
+        cupomCodeCache.invalidateAll(createdCodes);
+
+        int created = createdCodes.size();
+        log.info("Lote processado. Criados: {}, Falhas: {}", created, requests.size() - created);
+
+        return CupomBatchResponse.builder()
+                .total(requests.size())
+                .created(created)
+                .failed(requests.size() - created)
+                .results(Arrays.asList(results))
+                .build();
+    }
+
+    /**
+     * Aplica as validações de bean e as regras de domínio, retornando o código normalizado
+     */
+    private String validate(CupomRequest request, LocalDate today) {
+        if (request == null) {
+            throw new IllegalArgumentException("Item do lote não pode ser nulo");
+        }
+
+        Set<ConstraintViolation<CupomRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+
+        String normalizedCode = Cupom.normalizeCode(request.getCode());
+        Cupom.validateExpirationDate(request.getExpirationDate(), today);
+        Cupom.validateDiscountValue(request.getDiscountValue());
+        return normalizedCode;
+    }
+
+    /**
+     * Consulta os códigos de cupons não deletados em blocos de {@link #LOOKUP_CHUNK_SIZE}
+     */
+    private Set<String> findActiveCodes(Set<String> codes) {
+        Set<String> existing = new HashSet<>();
+        List<String> chunk = new ArrayList<>(Math.min(codes.size(), LOOKUP_CHUNK_SIZE));
+        for (String code : codes) {
+            chunk.add(code);
+            if (chunk.size() == LOOKUP_CHUNK_SIZE) {
+                existing.addAll(cupomRepository.findActiveCodes(chunk));
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            existing.addAll(cupomRepository.findActiveCodes(chunk));
+        }
+        return existing;
+    }
+
+    /**
+     * Persiste o bloco em um único batch JDBC e libera o contexto de persistência
+     */
+    private void persist(List<Cupom> chunk, Map<String, Integer> candidates, CupomBatchItemResult[] results) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        try {
+            cupomRepository.saveAll(chunk);
+            entityManager.flush();
+        } catch (RuntimeException e) {
+            // Código criado por outra requisição entre a verificação e o INSERT: o lote inteiro é desfeito
+            if (CupomService.isActiveCodeViolation(e)) {
+                throw new DuplicateCupomCodeException(
+                    "Um dos códigos do lote foi criado concorrentemente por outra requisição; reenvie o lote"
+                );
+            }
+            throw e;
+        }
+        entityManager.clear();
+
+        eventPublisher.publishEvent(CupomChangedEvent.of(chunk.stream().map(Cupom::getId).toList()));
+        for (Cupom cupom : chunk) {
+            cupomDescriptionIndex.add(cupom.getId(), cupom.getDescription());
+            int index = candidates.get(cupom.getCode());
+            results[index] = CupomBatchItemResult.builder()
+                    .index(index)
+                    .code(cupom.getCode())
+                    .status(CupomBatchItemResult.Status.CREATED)
+                    .id(cupom.getId())
+                    .build();
+        }
+        chunk.clear();
+    }
+
+    private static CupomBatchItemResult failure(int index, String code,
+                                                CupomBatchItemResult.Status status, String message) {
+        return CupomBatchItemResult.builder()
+                .index(index)
+                .code(code)
+                .status(status)
+                .message(message)
+                .build();
+    }
+}
@@ -0,0 +1,183 @@
+package com.cupom.api.service;
+
+import com.cupom.api.cache.CupomCodeCache;
+import com.cupom.api.dto.CupomBulkProgress;
+import com.cupom.api.dto.CupomBulkRequest;
+import com.cupom.api.event.CupomChangedEvent;
+import com.cupom.api.exception.InvalidCupomException;
+import com.cupom.api.index.CupomDescriptionIndex;
+import com.cupom.api.repository.CupomRepository;
+import com.cupom.api.repository.projection.CupomDescription;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Serviço de publicação, despublicação e soft delete de cupons em massa (lançamento ou
+ * encerramento de campanha).
+ * REGRAS DE NEGÓCIO (as mesmas das operações unitárias):
+ * - Não publica cupons deletados
+ * - Cupons já no estado de destino são ignorados (não são regravados nem mudam de versão)
+ *
+ * Os cupons são percorridos em blocos pela PK (keyset) e cada bloco é um UPDATE por conjunto
+ * de IDs em uma transação própria e curta: só as linhas do bloco ficam travadas, e apenas até
+ * o commit do bloco. Leituras (busca por código inclusive) não esperam pelo job.
+ * Uma falha interrompe o job mantendo os blocos já confirmados; reenviar a mesma operação
+ * retoma do ponto em que parou.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CupomBulkService {
+
+    private final CupomRepository cupomRepository;
+    private final CupomCodeCache cupomCodeCache;
+    private final CupomDescriptionIndex cupomDescriptionIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Clock clock;
+
+    @Value("${cupom.bulk.chunk-size:1000}")
+    private int chunkSize = 1000;
+
+    @Value("${cupom.batch.max-size:50000}")
+    private int maxIds = 50_000;
+
+    /**
+     * Valida a seleção antes de iniciar o job (o progresso é enviado em streaming, então os erros
+     * de entrada precisam aparecer antes da primeira linha)
+     */
+    public void validate(CupomBulkRequest request) {
+        boolean hasIds = request.getIds() != null && !request.getIds().isEmpty();
+        boolean hasFilter = request.getCodePrefix() != null
+                || request.getExpirationFrom() != null || request.getExpirationTo() != null
+                || request.getCreatedFrom() != null || request.getCreatedTo() != null;
+
+        // REGRA: Nunca aplica a operação à tabela inteira por omissão
+        if (!hasIds && !hasFilter) {
+            throw new InvalidCupomException(
+                "Informe ids ou ao menos um critério (codePrefix, expirationFrom/To, createdFrom/To)"
+            );
+        }
+        if (hasIds && request.getIds().size() > maxIds) {
+            throw new InvalidCupomException(
+                "Lista excede o máximo de " + maxIds + " IDs. Tamanho fornecido: " + request.getIds().size()
+            );
+        }
+        if (request.getExpirationFrom() != null && request.getExpirationTo() != null
+                && request.getExpirationFrom().isAfter(request.getExpirationTo())) {
+            throw new InvalidCupomException("expirationFrom não pode ser posterior a expirationTo");
+        }
+        if (request.getCreatedFrom() != null && request.getCreatedTo() != null
+                && request.getCreatedFrom().isAfter(request.getCreatedTo())) {
+            throw new InvalidCupomException("createdFrom não pode ser posterior a createdTo");
+        }
+    }
+
+    /**
+     * Executa a operação nos cupons selecionados, bloco a bloco, informando o progresso
+     * acumulado após o commit de cada bloco.
+     *
+     * @return progresso final ({@code done = true}), também entregue ao consumidor
+     */
+    public CupomBulkProgress execute(CupomBulkProgress.Action action, CupomBulkRequest request,
+                                     Consumer<CupomBulkProgress> progress) {
+        validate(request);
+        log.info("Iniciando operação em massa {} (blocos de {})", action, chunkSize);
+
+        List<Long> ids = request.getIds() == null || request.getIds().isEmpty() ? null
+            : request.getIds().stream().filter(Objects::nonNull).distinct().sorted().toList();
+
+        CupomBulkProgress state = CupomBulkProgress.builder().action(action).lastId(0L).build();
+        int idOffset = 0;
+        while (true) {
+            List<Long> idChunk = null;
+            long afterId = state.getLastId();
+            if (ids != null) {
+                if (idOffset >= ids.size()) {
+                    break;
+                }
+                idChunk = ids.subList(idOffset, Math.min(idOffset + chunkSize, ids.size()));
+                idOffset += idChunk.size();
+                afterId = 0L;
+            }
+
+            Chunk chunk = applyChunk(action, request, idChunk, afterId);
+            if (chunk.matched() == 0 && idChunk == null) {
+                break;
+            }
+
+            state.setChunks(state.getChunks() + 1);
+            state.setMatched(state.getMatched() + chunk.matched());
+            state.setUpdated(state.getUpdated() + chunk.updated());
+            state.setLastId(idChunk != null ? idChunk.get(idChunk.size() - 1) : chunk.lastId());
+            progress.accept(copy(state));
+            log.debug("Operação em massa {}: bloco {} confirmado ({} atualizados até o ID {})",
+                action, state.getChunks(), state.getUpdated(), state.getLastId());
+
+            if (idChunk == null && chunk.matched() < chunkSize) {
+                break;
+            }
+        }
+
+        state.setDone(true);
+        CupomBulkProgress result = copy(state);
+        progress.accept(result);
+        log.info("Operação em massa {} concluída. Blocos: {}, Atualizados: {}",
+            action, result.getChunks(), result.getUpdated());
+        return result;
+    }
+
+    /**
+     * Seleciona e atualiza um bloco em uma transação própria; o cache por código dos cupons
+     * do bloco é invalidado após o commit (e, na deleção, os cupons saem do índice de descrições)
+     */
+    private Chunk applyChunk(CupomBulkProgress.Action action, CupomBulkRequest request,
+                             List<Long> idChunk, long afterId) {
+        return transactionTemplate.execute(status -> {
+            Map<Long, String> targets = cupomRepository.findBulkTargets(action, request, idChunk, afterId, chunkSize);
+            if (targets.isEmpty()) {
+                return new Chunk(0, 0, afterId);
+            }
+
+            int updated = cupomRepository.bulkUpdate(action, targets.keySet(), LocalDateTime.now(clock));
+            cupomCodeCache.invalidateAll(targets.values());
+            eventPublisher.publishEvent(CupomChangedEvent.ofCodeStateChange(targets.keySet()));
+            if (action == CupomBulkProgress.Action.DELETE && cupomDescriptionIndex.isEnabled()) {
+                for (CupomDescription cupom : cupomRepository.findDescriptionsByIds(targets.keySet())) {
+                    cupomDescriptionIndex.remove(cupom.getId(), cupom.getDescription());
+                }
+            }
+
+            long lastId = afterId;
+            for (Long id : targets.keySet()) {
+                lastId = id;
+            }
+            return new Chunk(targets.size(), updated, lastId);
+        });
+    }
+
+    private static CupomBulkProgress copy(CupomBulkProgress state) {
+        return CupomBulkProgress.builder()
+                .action(state.getAction())
+                .chunks(state.getChunks())
+                .matched(state.getMatched())
+                .updated(state.getUpdated())
+                .lastId(state.getLastId())
+                .done(state.isDone())
+                .build();
+    }
+
+    private record Chunk(int matched, int updated, long lastId) {
+    }
+}
@@ -0,0 +1,236 @@
+package com.cupom.api.service;
+
+import com.cupom.api.cache.CupomCodeCache;
+import com.cupom.api.cache.CupomCodeSpace;
+import com.cupom.api.dto.CupomGenerateProgress;
+import com.cupom.api.dto.CupomGenerateRequest;
+import com.cupom.api.entity.Cupom;
+import com.cupom.api.event.CupomChangedEvent;
+import com.cupom.api.exception.DuplicateCupomCodeException;
+import com.cupom.api.exception.InvalidCupomException;
+import com.cupom.api.index.CupomDescriptionIndex;
+import com.cupom.api.repository.CupomRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.random.RandomGenerator;
+
+/**
+ * Serviço de geração de cupons com códigos gerados pelo servidor (campanhas de milhões de códigos).
+ * REGRAS DE NEGÓCIO (as mesmas da criação unitária):
+ * - Valida data de expiração e valor de desconto, uma vez para o job
+ * - Códigos de 6 caracteres [A-Z0-9], únicos entre os cupons não deletados
+ *
+ * Os códigos são sorteados uniformemente (SecureRandom: não dá para prever os próximos a partir dos
+ * anteriores) e reservados no {@link CupomCodeSpace}, um bit por código do espaço de 36^6: a unicidade é
+ * verificada em memória, sem consulta por código. Cada bloco é inserido em batch JDBC em uma transação
+ * própria; um conflito no índice único (código criado por outra instância) troca só os códigos em conflito
+ * e reenvia o bloco. Uma falha interrompe o job mantendo os blocos já confirmados.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CupomCodeGeneratorService {
+
+    /**
+     * Sorteios por código antes de considerar o espaço saturado
+     */
+    static final int MAX_CLAIM_ATTEMPTS = 64;
+
+    /**
+     * Reenvios de um bloco após conflito no índice único
+     */
+    static final int MAX_CHUNK_RETRIES = 3;
+
+    private final CupomRepository cupomRepository;
+    private final CupomCodeSpace cupomCodeSpace;
+    private final CupomCodeIndexService cupomCodeIndexService;
+    private final CupomCodeCache cupomCodeCache;
+    private final CupomDescriptionIndex cupomDescriptionIndex;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Clock clock;
+
+    private RandomGenerator random = new SecureRandom();
+
+    @Value("${cupom.code-generator.max-count:10000000}")
+    private int maxCount = 10_000_000;
+
+    @Value("${cupom.code-generator.chunk-size:1000}")
+    private int chunkSize = 1000;
+
+    /**
+     * Valida a requisição antes de iniciar o job (o progresso é enviado em streaming, então os erros
+     * de entrada precisam aparecer antes da primeira linha)
+     */
+    public void validate(CupomGenerateRequest request) {
+        if (request.getCount() > maxCount) {
+            throw new InvalidCupomException(
+                "Geração excede o máximo de " + maxCount + " cupons. Quantidade fornecida: " + request.getCount()
+            );
+        }
+        try {
+            Cupom.validateExpirationDate(request.getExpirationDate(), LocalDate.now(clock));
+            Cupom.validateDiscountValue(request.getDiscountValue());
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCupomException(e.getMessage());
+        }
+    }
+
+    /**
+     * Gera e cria os cupons bloco a bloco, informando após o commit de cada bloco os códigos criados,
+     * os totais acumulados e a vazão.
+     *
+     * @return progresso final ({@code done = true}), também entregue ao consumidor
+     */
+    public CupomGenerateProgress generate(CupomGenerateRequest request, Consumer<CupomGenerateProgress> progress) {
+        validate(request);
+        cupomCodeIndexService.loadCodeSpace();
+        log.info("Iniciando geração de {} cupons (blocos de {})", request.getCount(), chunkSize);
+
+        long started = System.nanoTime();
+        CupomGenerateProgress state = CupomGenerateProgress.builder().build();
+        int remaining = request.getCount();
+        while (remaining > 0) {
+            List<String> codes = claim(Math.min(chunkSize, remaining), state);
+            codes = insertChunk(request, codes, state);
+            remaining -= codes.size();
+
+            state.setChunks(state.getChunks() + 1);
+            state.setCreated(state.getCreated() + codes.size());
+            updateThroughput(state, started);
+            progress.accept(copy(state, codes));
+            log.debug("Geração: bloco {} confirmado ({} cupons criados)", state.getChunks(), state.getCreated());
+        }
+
+        updateThroughput(state, started);
+        state.setDone(true);
+        CupomGenerateProgress result = copy(state, null);
+        progress.accept(result);
+        log.info("Geração concluída. Criados: {}, Colisões: {}, {} cupons/s",
+            result.getCreated(), result.getCollisions(), result.getCreatedPerSecond());
+        return result;
+    }
+
+    /**
+     * Sorteia e reserva {@code count} códigos livres
+     */
+    private List<String> claim(int count, CupomGenerateProgress state) {
+        List<String> codes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            codes.add(claim(state));
+        }
+        return codes;
+    }
+
+    private String claim(CupomGenerateProgress state) {
+        for (int attempt = 0; attempt < MAX_CLAIM_ATTEMPTS; attempt++) {
+            long packed = random.nextLong(CupomCodeSpace.SIZE);
+            if (cupomCodeSpace.tryClaim(packed)) {
+                return CupomCodeSpace.toCode(packed);
+            }
+            state.setCollisions(state.getCollisions() + 1);
+        }
+        throw new InvalidCupomException("Espaço de códigos saturado: não há códigos livres suficientes");
+    }
+
+    /**
+     * Insere o bloco em uma transação própria; em conflito no índice único, troca os códigos já existentes
+     * no banco e reenvia o bloco
+     *
+     * @return códigos efetivamente criados
+     */
+    private List<String> insertChunk(CupomGenerateRequest request, List<String> codes, CupomGenerateProgress state) {
+        List<String> chunk = codes;
+        for (int attempt = 0; ; attempt++) {
+            try {
+                List<String> attemptCodes = chunk;
+                transactionTemplate.executeWithoutResult(status -> insert(request, attemptCodes));
+                // Remove eventuais entradas negativas dos códigos recém-criados
+                cupomCodeCache.invalidateAll(chunk);
+                return chunk;
+            } catch (RuntimeException e) {
+                if (!CupomService.isActiveCodeViolation(e)) {
+                    throw e;
+                }
+                if (attempt == MAX_CHUNK_RETRIES) {
+                    throw new DuplicateCupomCodeException(
+                        "Conflito de códigos persistente após " + MAX_CHUNK_RETRIES + " tentativas; reenvie a geração"
+                    );
+                }
+                state.setRetries(state.getRetries() + 1);
+                chunk = replaceTaken(chunk, state);
+            }
+        }
+    }
+
+    private void insert(CupomGenerateRequest request, List<String> codes) {
+        List<Cupom> cupons = new ArrayList<>(codes.size());
+        for (String code : codes) {
+            cupons.add(Cupom.builder()
+                    .code(code)
+                    .description(request.getDescription())
+                    .discountValue(request.getDiscountValue())
+                    .expirationDate(request.getExpirationDate())
+                    .published(request.getPublished() != null ? request.getPublished() : false)
+                    .maxUses(request.getMaxUses())
+                    .deleted(false)
+                    .build());
+        }
+        cupomRepository.saveAll(cupons);
+        entityManager.flush();
+        entityManager.clear();
+
+        eventPublisher.publishEvent(CupomChangedEvent.of(cupons.stream().map(Cupom::getId).toList()));
+        for (Cupom cupom : cupons) {
+            cupomDescriptionIndex.add(cupom.getId(), cupom.getDescription());
+        }
+    }
+
+    /**
+     * Troca os códigos do bloco que já pertencem a cupons não deletados por novos códigos livres
+     * (uma consulta para o bloco inteiro). Os trocados continuam ocupados no espaço de códigos.
+     */
+    private List<String> replaceTaken(List<String> codes, CupomGenerateProgress state) {
+        Set<String> taken = new HashSet<>(cupomRepository.findActiveCodes(codes));
+        List<String> replaced = new ArrayList<>(codes.size());
+        for (String code : codes) {
+            replaced.add(taken.contains(code) ? claim(state) : code);
+        }
+        log.warn("Geração: {} códigos do bloco já existiam no banco e foram trocados", taken.size());
+        return replaced;
+    }
+
+    private static void updateThroughput(CupomGenerateProgress state, long started) {
+        long elapsedNanos = Math.max(1, System.nanoTime() - started);
+        state.setElapsedMillis(elapsedNanos / 1_000_000);
+        state.setCreatedPerSecond(state.getCreated() * 1_000_000_000L / elapsedNanos);
+    }
+
+    private static CupomGenerateProgress copy(CupomGenerateProgress state, List<String> codes) {
+        return CupomGenerateProgress.builder()
+                .chunks(state.getChunks())
+                .created(state.getCreated())
+                .collisions(state.getCollisions())
+                .retries(state.getRetries())
+                .elapsedMillis(state.getElapsedMillis())
+                .createdPerSecond(state.getCreatedPerSecond())
+                .codes(codes)
+                .done(state.isDone())
+                .build();
+    }
+}
@@ -0,0 +1,172 @@
+package com.cupom.api.service;
+
+import com.cupom.api.cache.CupomCodeBloomFilter;
+import com.cupom.api.cache.CupomCodeIndex;
+import com.cupom.api.cache.CupomCodeSpace;
+import com.cupom.api.event.CupomChangedEvent;
+import com.cupom.api.repository.CupomRepository;
+import com.cupom.api.repository.projection.CupomCodeState;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.stream.Stream;
+
+/**
+ * Mantém o {@link CupomCodeIndex} e o {@link CupomCodeBloomFilter} em dia com a tabela.
+ * - Ao subir a aplicação e periodicamente: recarga completa dos dois numa única leitura via cursor JDBC
+ *   (reconciliação), que corrige eventos perdidos, escritas de outras instâncias e escritas fora da aplicação,
+ *   e descarta do filtro de Bloom os códigos deletados
+ * - A cada {@link CupomChangedEvent} de UPDATE nativo ({@link CupomChangedEvent#codeStateChanged()}), após o
+ *   commit: relê o estado dos cupons alterados (as escritas via JPA já chegam pelo
+ *   {@link com.cupom.api.cache.CupomCodeIndexListener} e os resgates não mudam o estado do código)
+ * - No primeiro job de geração de códigos: carrega o {@link CupomCodeSpace}
+ *
+ * A busca por código consulta o índice (ou o filtro) antes do banco ({@link #isAbsent}) e a criação o usa para recusar
+ * códigos duplicados ({@link #isTaken}); divergências deixadas por outras instâncias ou escritas fora da
+ * aplicação são corrigidas pela reconciliação periódica.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CupomCodeIndexService {
+
+    private final CupomRepository cupomRepository;
+    private final CupomCodeIndex cupomCodeIndex;
+    private final CupomCodeBloomFilter cupomCodeBloomFilter;
+    private final CupomCodeSpace cupomCodeSpace;
+
+    /**
+     * Carrega o índice e o filtro com os códigos dos cupons não deletados
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void loadOnStartup() {
+        load();
+    }
+
+    /**
+     * Recarrega o índice e o filtro a partir da tabela; os atuais continuam respondendo até a troca
+     */
+    @Scheduled(fixedDelayString = "${cupom.code-index.reconcile-interval:PT15M}",
+            initialDelayString = "${cupom.code-index.reconcile-interval:PT15M}")
+    @Transactional(readOnly = true)
+    public void reconcile() {
+        load();
+    }
+
+    /**
+     * Indica se com certeza não existe cupom não deletado com o código normalizado: fora do índice exato (se
+     * carregado) ou, sem ele, fora do filtro de Bloom. A busca responde sem ir ao banco
+     */
+    public boolean isAbsent(String normalizedCode) {
+        if (cupomCodeIndex.isReady()) {
+            return !cupomCodeIndex.contains(normalizedCode);
+        }
+        return cupomCodeBloomFilter.isReady() && !cupomCodeBloomFilter.mightContain(normalizedCode);
+    }
+
+    /**
+     * Indica se o índice carregado já tem cupom não deletado com o código normalizado: a criação recusa o
+     * código sem tentar o INSERT
+     */
+    public boolean isTaken(String normalizedCode) {
+        return cupomCodeIndex.isReady() && cupomCodeIndex.contains(normalizedCode);
+    }
+
+    /**
+     * O banco não encontrou o código que o índice dava como existente (deletado por outra instância ou fora da
+     * aplicação): registra a divergência e tira o código do índice
+     */
+    public void confirmMissing(String normalizedCode) {
+        long entry = cupomCodeIndex.isReady() ? cupomCodeIndex.find(normalizedCode) : CupomCodeIndex.ABSENT;
+        if (entry == CupomCodeIndex.ABSENT) {
+            return;
+        }
+        cupomCodeIndex.recordMismatch();
+        log.debug("Código {} do índice de códigos não encontrado no banco; corrigindo", normalizedCode);
+        cupomCodeIndex.remove(CupomCodeIndex.idOf(entry), normalizedCode);
+    }
+
+    private void load() {
+        boolean index = cupomCodeIndex.isEnabled();
+        boolean filter = cupomCodeBloomFilter.isEnabled();
+        if (!index && !filter) {
+            return;
+        }
+
+        long started = System.nanoTime();
+        if (index) {
+            cupomCodeIndex.beginLoad();
+        }
+        if (filter) {
+            cupomCodeBloomFilter.beginLoad();
+        }
+        try (Stream<CupomCodeState> cupons = cupomRepository.streamCodeStates()) {
+            cupons.forEach(cupom -> {
+                if (index) {
+                    cupomCodeIndex.load(cupom.getId(), cupom.getCode(),
+                        Boolean.TRUE.equals(cupom.getPublished()), Boolean.TRUE.equals(cupom.getExpired()));
+                }
+                if (filter) {
+                    cupomCodeBloomFilter.load(cupom.getCode());
+                }
+            });
+        } catch (RuntimeException e) {
+            cupomCodeIndex.abortLoad();
+            cupomCodeBloomFilter.abortLoad();
+            throw e;
+        }
+        if (index) {
+            cupomCodeIndex.finishLoad();
+        }
+        if (filter) {
+            cupomCodeBloomFilter.finishLoad();
+        }
+        log.info("Carga do índice de códigos concluída em {} ms", (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Carrega o espaço de códigos do gerador com os códigos dos cupons não deletados, se ainda não carregado.
+     * Os códigos criados durante a leitura são marcados pelo entity listener (a marcação começa antes dela).
+     */
+    @Transactional(readOnly = true)
+    public synchronized void loadCodeSpace() {
+        if (cupomCodeSpace.isReady()) {
+            return;
+        }
+        long started = System.nanoTime();
+        cupomCodeSpace.beginLoad();
+        try (Stream<String> codes = cupomRepository.streamActiveCodes()) {
+            codes.forEach(cupomCodeSpace::load);
+        }
+        cupomCodeSpace.finishLoad();
+        log.info("Carga do espaço de códigos concluída em {} ms", (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Aplica ao índice e ao filtro o estado atual dos cupons alterados por UPDATE nativo na transação que
+     * acabou de confirmar
+     */
+    @TransactionalEventListener(fallbackExecution = true, condition = "#root.event.codeStateChanged()")
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onCupomChanged(CupomChangedEvent event) {
+        if (!event.codeStateChanged() || event.ids().isEmpty()) {
+            return;
+        }
+        for (CupomCodeState cupom : cupomRepository.findCodeStatesByIds(event.ids())) {
+            boolean deleted = Boolean.TRUE.equals(cupom.getDeleted());
+            cupomCodeIndex.apply(cupom.getId(), cupom.getCode(), Boolean.TRUE.equals(cupom.getPublished()),
+                deleted, Boolean.TRUE.equals(cupom.getExpired()));
+            if (!deleted) {
+                cupomCodeBloomFilter.add(cupom.getCode());
+            }
+        }
+    }
+}
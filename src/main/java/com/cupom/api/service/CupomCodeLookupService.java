@@ -0,0 +1,157 @@
+package com.cupom.api.service;
+
+import com.cupom.api.cache.CupomCodeCache;
+import com.cupom.api.dto.CupomCodeLookupItemResult;
+import com.cupom.api.dto.CupomCodeLookupResponse;
+import com.cupom.api.dto.CupomResponse;
+import com.cupom.api.entity.Cupom;
+import com.cupom.api.exception.InvalidCupomException;
+import com.cupom.api.repository.CupomRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Serviço de busca de vários cupons por código de uma vez (validação de carrinho, revalidação por parceiros).
+ * REGRAS DE NEGÓCIO (as mesmas da busca unitária por código, aplicadas item a item):
+ * - Normaliza cada código; códigos inválidos não impedem a busca dos demais
+ * - Encontra apenas cupons não deletados; o resultado é reportado por código, na ordem recebida
+ *
+ * Os códigos passam pelo mesmo cache da busca unitária; os ausentes dele são carregados juntos, em
+ * consultas IN por conjunto de códigos (uma ida ao banco para até {@link #LOOKUP_CHUNK_SIZE} códigos).
+ * Códigos fora do índice de códigos não existem e nem entram na consulta.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CupomCodeLookupService {
+
+    /**
+     * Quantidade máxima de códigos por consulta IN
+     */
+    static final int LOOKUP_CHUNK_SIZE = 1000;
+
+    private final CupomRepository cupomRepository;
+    private final CupomCodeCache cupomCodeCache;
+    // Índice de códigos: descarta os inexistentes antes do banco (como na busca unitária)
+    private final CupomCodeIndexService cupomCodeIndexService;
+    private final Clock clock;
+
+    @Value("${cupom.lookup.max-size:5000}")
+    private int maxLookupSize = 5_000;
+
+    /**
+     * Busca os cupons dos códigos informados
+     */
+    public CupomCodeLookupResponse getCuponsByCodes(List<String> codes) {
+        log.info("Buscando {} cupons por código", codes.size());
+
+        if (codes.size() > maxLookupSize) {
+            throw new InvalidCupomException(
+                "Consulta excede o máximo de " + maxLookupSize + " códigos. Tamanho fornecido: " + codes.size()
+            );
+        }
+
+        // REGRA: Normaliza cada código; repetidos (após a normalização) são buscados uma vez
+        CupomCodeLookupItemResult[] results = new CupomCodeLookupItemResult[codes.size()];
+        String[] normalizedCodes = new String[codes.size()];
+        Set<String> distinctCodes = new LinkedHashSet<>();
+        for (int i = 0; i < codes.size(); i++) {
+            try {
+                normalizedCodes[i] = Cupom.normalizeCode(codes.get(i));
+                distinctCodes.add(normalizedCodes[i]);
+            } catch (IllegalArgumentException e) {
+                results[i] = CupomCodeLookupItemResult.builder()
+                        .index(i)
+                        .code(codes.get(i))
+                        .status(CupomCodeLookupItemResult.Status.INVALID)
+                        .message(e.getMessage())
+                        .build();
+            }
+        }
+
+        Map<String, Optional<CupomResponse>> cupons = distinctCodes.isEmpty()
+            ? Map.of()
+            : cupomCodeCache.getAll(distinctCodes, this::loadByCodes);
+
+        int found = 0;
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            Optional<CupomResponse> cupom = cupons.getOrDefault(normalizedCodes[i], Optional.empty());
+            if (cupom.isPresent()) {
+                found++;
+                results[i] = CupomCodeLookupItemResult.builder()
+                        .index(i)
+                        .code(normalizedCodes[i])
+                        .status(CupomCodeLookupItemResult.Status.FOUND)
+                        .cupom(cupom.get())
+                        .build();
+            } else {
+                results[i] = CupomCodeLookupItemResult.builder()
+                        .index(i)
+                        .code(normalizedCodes[i])
+                        .status(CupomCodeLookupItemResult.Status.NOT_FOUND)
+                        .message("Cupom não encontrado com código: " + normalizedCodes[i])
+                        .build();
+            }
+        }
+
+        log.info("Busca por códigos concluída: {} encontrados de {}", found, codes.size());
+        return CupomCodeLookupResponse.builder()
+                .total(codes.size())
+                .found(found)
+                .results(Arrays.asList(results))
+                .build();
+    }
+
+    /**
+     * Carrega do banco os códigos ausentes do cache, em blocos de {@link #LOOKUP_CHUNK_SIZE}, exceto os que o
+     * índice de códigos dá como inexistentes. Devolve uma entrada por código (vazia para os inexistentes, que
+     * entram no cache negativo).
+     */
+    private Map<String, Optional<CupomResponse>> loadByCodes(Set<? extends String> normalizedCodes) {
+        LocalDate today = LocalDate.now(clock);
+        Map<String, Optional<CupomResponse>> loaded = new HashMap<>();
+        List<String> chunk = new ArrayList<>(Math.min(normalizedCodes.size(), LOOKUP_CHUNK_SIZE));
+        for (String code : normalizedCodes) {
+            loaded.put(code, Optional.empty());
+            if (cupomCodeIndexService.isAbsent(code)) {
+                continue;
+            }
+            chunk.add(code);
+            if (chunk.size() == LOOKUP_CHUNK_SIZE) {
+                loadChunk(chunk, today, loaded);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            loadChunk(chunk, today, loaded);
+        }
+        return loaded;
+    }
+
+    private void loadChunk(List<String> chunk, LocalDate today, Map<String, Optional<CupomResponse>> loaded) {
+        for (CupomResponse cupom : cupomRepository.findActiveResponsesByCodes(chunk, today)) {
+            loaded.put(cupom.getCode(), Optional.of(cupom));
+        }
+        for (String code : chunk) {
+            if (loaded.get(code).isEmpty()) {
+                cupomCodeIndexService.confirmMissing(code);
+            }
+        }
+    }
+}
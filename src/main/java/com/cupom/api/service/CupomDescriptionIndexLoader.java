@@ -0,0 +1,70 @@
+package com.cupom.api.service;
+
+import com.cupom.api.index.CupomDescriptionIndex;
+import com.cupom.api.repository.CupomRepository;
+import com.cupom.api.repository.projection.CupomDescription;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.stream.Stream;
+
+/**
+ * Carrega o {@link CupomDescriptionIndex} a partir da tabela ao subir a aplicação.
+ * A tabela é lida via cursor JDBC (memória constante além do próprio índice); até o fim da carga
+ * a busca por termo continua no SQL.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CupomDescriptionIndexLoader {
+
+    private final CupomRepository cupomRepository;
+    private final CupomDescriptionIndex cupomDescriptionIndex;
+
+    @Value("${cupom.search.description-index.enabled:true}")
+    private boolean enabled = true;
+
+    /**
+     * Transacional aqui também: a chamada a {@link #rebuild()} é interna e não passa pelo proxy
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void loadOnStartup() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Reconstrói o índice com as descrições dos cupons não deletados
+     *
+     * @return quantidade de cupons indexados
+     */
+    @Transactional(readOnly = true)
+    public long rebuild() {
+        log.info("Reconstruindo índice de descrições");
+        long started = System.nanoTime();
+        long count = 0;
+
+        cupomDescriptionIndex.beginRebuild();
+        try (Stream<CupomDescription> cupons = cupomRepository.streamIndexableDescriptions()) {
+            for (CupomDescription cupom : (Iterable<CupomDescription>) cupons::iterator) {
+                cupomDescriptionIndex.load(cupom.getId(), cupom.getDescription());
+                count++;
+            }
+        } catch (RuntimeException e) {
+            cupomDescriptionIndex.abortRebuild();
+            throw e;
+        }
+        cupomDescriptionIndex.finishRebuild();
+
+        log.info("Índice de descrições carregado: {} cupons em {} ms",
+            count, (System.nanoTime() - started) / 1_000_000);
+        return count;
+    }
+}
@@ -0,0 +1,91 @@
+package com.cupom.api.service;
+
+import com.cupom.api.cache.CupomCodeCache;
+import com.cupom.api.event.CupomChangedEvent;
+import com.cupom.api.repository.CupomRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Varredor de expiração: na virada do dia marca como expirados ({@code expired = true}) os cupons
+ * vencidos, em blocos pela PK com uma transação curta por bloco (só as linhas do bloco ficam travadas).
+ * Roda também ao subir a aplicação, para recuperar viradas perdidas com a aplicação parada.
+ *
+ * As consultas de cupons ativos comparam também a data de expiração, então continuam corretas
+ * enquanto a varredura não termina; o estado gravado serve para filtrar e indexar sem a data corrente.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CupomExpiryService {
+
+    private final CupomRepository cupomRepository;
+    private final CupomCodeCache cupomCodeCache;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Clock clock;
+
+    @Value("${cupom.expiry.chunk-size:1000}")
+    private int chunkSize = 1000;
+
+    /**
+     * Varredura agendada (por padrão logo após a meia-noite)
+     */
+    @Scheduled(cron = "${cupom.expiry.sweep-cron:5 0 0 * * *}")
+    public void sweep() {
+        expireBefore(LocalDate.now(clock));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void sweepOnStartup() {
+        sweep();
+    }
+
+    /**
+     * Marca como expirados os cupons com data de expiração anterior a {@code today}
+     *
+     * @return quantidade de cupons marcados
+     */
+    public int expireBefore(LocalDate today) {
+        int expired = 0;
+        long after = 0L;
+        while (true) {
+            long chunkAfter = after;
+            List<Long> ids = transactionTemplate.execute(status -> {
+                List<Long> chunk = cupomRepository.findIdsToExpire(chunkAfter, today, PageRequest.of(0, chunkSize));
+                if (!chunk.isEmpty()) {
+                    cupomRepository.markExpired(chunk);
+                    eventPublisher.publishEvent(CupomChangedEvent.ofCodeStateChange(chunk));
+                }
+                return chunk;
+            });
+            if (ids.isEmpty()) {
+                break;
+            }
+            expired += ids.size();
+            after = ids.get(ids.size() - 1);
+            if (ids.size() < chunkSize) {
+                break;
+            }
+        }
+
+        if (expired > 0) {
+            // Respostas em cache trazem active/expired calculados na carga
+            cupomCodeCache.invalidateAll();
+            log.info("Varredura de expiração: {} cupons marcados como expirados (antes de {})", expired, today);
+        }
+        return expired;
+    }
+}
@@ -0,0 +1,465 @@
+package com.cupom.api.service;
+
+import com.cupom.api.cache.CupomCodeCache;
+import com.cupom.api.dto.CupomRedemptionResponse;
+import com.cupom.api.dto.CupomResponse;
+import com.cupom.api.event.CupomChangedEvent;
+import com.cupom.api.exception.CupomUsageLimitReachedException;
+import com.cupom.api.exception.InvalidCupomException;
+import com.cupom.api.repository.CupomRedemptionRepository;
+import com.cupom.api.repository.CupomRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Serviço de resgate de cupons.
+ * REGRAS DE NEGÓCIO:
+ * - Apenas cupons publicados e ativos (não deletados e não expirados) podem ser resgatados
+ * - Um pedido resgata cada cupom no máximo uma vez (resgate repetido é idempotente)
+ * - Cupons com limite de resgates nunca ultrapassam o limite
+ *
+ * O uso é reservado em contadores atômicos em memória (CAS, sem lock) e gravado no banco
+ * em lote pelo {@link #flush()} periódico: resgates concorrentes do mesmo código não
+ * disputam o lock da linha do cupom. Os contadores assumem uma única instância da aplicação
+ * como dona dos resgates; o UPDATE de {@code used_count} confere {@code max_uses} no banco, então
+ * duas instâncias (ou um restart com resgates não gravados) não ultrapassam o limite: os resgates do lote
+ * que o ultrapassariam são desfeitos e o contador é relido do banco.
+ *
+ * A memória fica limitada aos cupons em uso: os pedidos de um contador só são guardados até o lote
+ * deles ser gravado, e depois entre os últimos {@value #FLUSHED_ORDERS_MAX_SIZE} pedidos gravados, para que
+ * a repetição de um pedido recente seja respondida como idempotente sem reservar outro uso (pedidos mais
+ * antigos ficam com a unique {@code uk_cupom_redemptions_cupom_order}); contadores sem pendências e
+ * ociosos por {@code cupom.redemption.counter-idle-timeout} são descartados, voltando a ser lidos do banco
+ * no próximo resgate.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CupomRedemptionService implements MeterBinder {
+
+    private static final String INSERT_REDEMPTION_SQL =
+        "INSERT INTO cupom_redemptions (cupom_id, order_id, redeemed_at) "
+        + "SELECT ?, ?, ? WHERE NOT EXISTS "
+        + "(SELECT 1 FROM cupom_redemptions WHERE cupom_id = ? AND order_id = ?)";
+
+    private static final String INCREMENT_USED_COUNT_SQL =
+        "UPDATE cupons SET used_count = used_count + ?, updated_at = ? "
+        + "WHERE id = ? AND (max_uses IS NULL OR used_count + ? <= max_uses)";
+
+    private static final String DELETE_REDEMPTION_SQL =
+        "DELETE FROM cupom_redemptions WHERE cupom_id = ? AND order_id = ?";
+
+    /**
+     * Quantidade de pedidos gravados lembrados em memória para responder repetições sem ir ao banco
+     */
+    static final long FLUSHED_ORDERS_MAX_SIZE = 100_000;
+
+    private final CupomService cupomService;
+    private final CupomRepository cupomRepository;
+    private final CupomRedemptionRepository cupomRedemptionRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CupomCodeCache cupomCodeCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Clock clock;
+
+    private final Map<Long, UsageCounter> counters = new ConcurrentHashMap<>();
+    private final Queue<PendingRedemption> pending = new ConcurrentLinkedQueue<>();
+    // Pedidos dos últimos lotes gravados (o contador só guarda os ainda não gravados)
+    private final Cache<RedeemedOrder, Boolean> flushedOrders = Caffeine.newBuilder()
+            .maximumSize(FLUSHED_ORDERS_MAX_SIZE)
+            .build();
+    // ReentrantLock em vez de synchronized: o flush faz I/O JDBC e não deve prender a carrier thread
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    @Value("${cupom.redemption.flush-max-size:5000}")
+    private int flushMaxSize = 5000;
+
+    @Value("${cupom.redemption.counter-idle-timeout:PT10M}")
+    private Duration counterIdleTimeout = Duration.ofMinutes(10);
+
+    /**
+     * Resgata o cupom para o pedido informado
+     */
+    public CupomRedemptionResponse redeem(String code, String orderId) {
+        log.info("Resgatando cupom {} para o pedido {}", code, orderId);
+
+        // Cupons publicados vêm do snapshot em memória: o caminho feliz não consulta o banco
+        CupomResponse cupom = cupomService.getCheckoutCupomByCode(code);
+
+        // REGRA: Apenas cupons publicados e ativos podem ser resgatados
+        if (!Boolean.TRUE.equals(cupom.getPublished()) || !Boolean.TRUE.equals(cupom.getActive())) {
+            throw new InvalidCupomException("Cupom não está disponível para resgate: " + cupom.getCode());
+        }
+
+        UsageCounter counter;
+        while (!(counter = counter(cupom.getId())).enter()) {
+            // Contador descartado por ociosidade entre a busca e a entrada: carrega outro
+            counters.remove(cupom.getId(), counter);
+        }
+        try {
+            // REGRA: Resgate repetido do mesmo pedido não consome outro uso
+            if (!counter.orderIds.add(orderId)) {
+                return toResponse(cupom, orderId, counter, true);
+            }
+            // O flush lembra o pedido gravado antes de tirá-lo do contador: se não estava no contador e foi
+            // gravado, está aqui (ou é antigo o bastante para ter saído, e a unique decide)
+            if (flushedOrders.getIfPresent(new RedeemedOrder(cupom.getId(), orderId)) != null) {
+                counter.orderIds.remove(orderId);
+                return toResponse(cupom, orderId, counter, true);
+            }
+
+            // REGRA: Nunca ultrapassa o limite de resgates
+            if (!counter.tryAcquire(cupom.getMaxUses())) {
+                counter.orderIds.remove(orderId);
+                // Pedido de um lote já gravado não está mais em memória: no limite, confere no banco
+                if (cupomRedemptionRepository.existsByCupomIdAndOrderId(cupom.getId(), orderId)) {
+                    return toResponse(cupom, orderId, counter, true);
+                }
+                throw new CupomUsageLimitReachedException(
+                    "Cupom atingiu o limite de " + cupom.getMaxUses() + " resgates: " + cupom.getCode()
+                );
+            }
+
+            pending.add(new PendingRedemption(cupom.getId(), cupom.getCode(), orderId, LocalDateTime.now(clock)));
+            return toResponse(cupom, orderId, counter, false);
+        } finally {
+            counter.exit();
+        }
+    }
+
+    /**
+     * Grava no banco os resgates pendentes em uma transação: INSERTs em batch JDBC e um
+     * UPDATE incremental de {@code used_count} por cupom, limitado por {@code max_uses}. Como as demais
+     * escritas, invalida o cache dos códigos alterados e publica {@link CupomChangedEvent} (tratado após o
+     * commit). Em caso de falha os resgates voltam para a fila e são regravados no próximo ciclo. Em seguida
+     * descarta os contadores ociosos.
+     */
+    @Scheduled(fixedDelayString = "${cupom.redemption.flush-interval:PT1S}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushPending();
+            evictIdleCounters();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushPending() {
+        List<PendingRedemption> batch = new ArrayList<>();
+        PendingRedemption redemption;
+        while (batch.size() < flushMaxSize && (redemption = pending.poll()) != null) {
+            batch.add(redemption);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            WriteResult result = transactionTemplate.execute(status -> write(batch));
+            // Gravados: lembrados para as repetições e retirados do contador
+            for (PendingRedemption written : batch) {
+                if (result.overLimit().contains(written.cupomId())) {
+                    continue;
+                }
+                flushedOrders.put(new RedeemedOrder(written.cupomId(), written.orderId()), Boolean.TRUE);
+                UsageCounter counter = counters.get(written.cupomId());
+                if (counter != null) {
+                    counter.orderIds.remove(written.orderId());
+                }
+            }
+            // Pedidos que já tinham resgate gravado (ex.: antes de um restart) não consomem uso
+            result.rejected().forEach((cupomId, count) -> {
+                UsageCounter counter = counters.get(cupomId);
+                if (counter != null) {
+                    counter.release(count);
+                }
+            });
+            // O banco recusou o limite: o contador divergiu (outra instância, restart) e é relido no próximo resgate
+            result.overLimit().forEach(counters::remove);
+            log.debug("Resgates gravados: {}", batch.size());
+        } catch (RuntimeException e) {
+            log.error("Erro ao gravar {} resgates, nova tentativa no próximo ciclo: {}", batch.size(), e.getMessage());
+            pending.addAll(batch);
+        }
+    }
+
+    /**
+     * Descarta contadores sem resgates pendentes e sem uso há mais de {@code counterIdleTimeout}
+     */
+    private void evictIdleCounters() {
+        long now = System.nanoTime();
+        long idleNanos = counterIdleTimeout.toNanos();
+        counters.forEach((cupomId, counter) -> {
+            if (counter.retireIfIdle(now, idleNanos)) {
+                counters.remove(cupomId, counter);
+            }
+        });
+    }
+
+    /**
+     * Grava os resgates pendentes antes de encerrar a aplicação
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        while (!pending.isEmpty()) {
+            int before = pending.size();
+            flush();
+            if (pending.size() >= before) {
+                log.error("Não foi possível gravar {} resgates pendentes no encerramento", pending.size());
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("cupom.redemption.pending", pending, Queue::size)
+                .description("Resgates aceitos ainda não gravados no banco")
+                .register(registry);
+        Gauge.builder("cupom.redemption.counters", counters, Map::size)
+                .description("Contadores de uso de cupons mantidos em memória")
+                .register(registry);
+    }
+
+    /**
+     * Quantidade de resgates aceitos ainda não gravados no banco
+     */
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Contador do cupom, criado a partir do {@code used_count} gravado no primeiro resgate.
+     * A leitura do banco fica fora do mapa (o {@code computeIfAbsent} a faria segurando o lock do bin);
+     * em corrida, o primeiro contador publicado vence e as demais leituras são descartadas.
+     */
+    private UsageCounter counter(Long cupomId) {
+        UsageCounter counter = counters.get(cupomId);
+        if (counter != null) {
+            return counter;
+        }
+        UsageCounter loaded = new UsageCounter(cupomRepository.findUsedCountById(cupomId).orElse(0L));
+        counter = counters.putIfAbsent(cupomId, loaded);
+        return counter != null ? counter : loaded;
+    }
+
+    private WriteResult write(List<PendingRedemption> batch) {
+        int[][] counts = jdbcTemplate.batchUpdate(INSERT_REDEMPTION_SQL, batch, batch.size(), (ps, r) -> {
+            Timestamp redeemedAt = Timestamp.valueOf(r.redeemedAt());
+            ps.setLong(1, r.cupomId());
+            ps.setString(2, r.orderId());
+            ps.setTimestamp(3, redeemedAt);
+            ps.setLong(4, r.cupomId());
+            ps.setString(5, r.orderId());
+        });
+
+        Map<Long, Long> inserted = new HashMap<>();
+        Map<Long, Long> rejected = new HashMap<>();
+        List<PendingRedemption> insertedRows = new ArrayList<>(batch.size());
+        int i = 0;
+        for (int[] chunk : counts) {
+            for (int count : chunk) {
+                PendingRedemption redemption = batch.get(i++);
+                boolean written = count > 0 || count == Statement.SUCCESS_NO_INFO;
+                (written ? inserted : rejected).merge(redemption.cupomId(), 1L, Long::sum);
+                if (written) {
+                    insertedRows.add(redemption);
+                }
+            }
+        }
+
+        List<Long> cupomIds = new ArrayList<>(inserted.keySet());
+        List<Object[]> increments = new ArrayList<>(cupomIds.size());
+        // updated_at acompanha o used_count (Last-Modified); a versão não muda, para não conflitar com edições
+        Timestamp updatedAt = Timestamp.valueOf(LocalDateTime.now(clock));
+        for (Long cupomId : cupomIds) {
+            long count = inserted.get(cupomId);
+            increments.add(new Object[] {count, updatedAt, cupomId, count});
+        }
+        int[] updated = jdbcTemplate.batchUpdate(INCREMENT_USED_COUNT_SQL, increments);
+
+        Set<Long> overLimit = new HashSet<>();
+        for (int j = 0; j < updated.length; j++) {
+            if (updated[j] == 0) {
+                overLimit.add(cupomIds.get(j));
+            }
+        }
+        if (!overLimit.isEmpty()) {
+            undoOverLimit(insertedRows, overLimit);
+            overLimit.forEach(inserted::remove);
+        }
+
+        if (!inserted.isEmpty()) {
+            Set<String> codes = new HashSet<>();
+            for (PendingRedemption redemption : batch) {
+                if (inserted.containsKey(redemption.cupomId()) && codes.add(redemption.code())) {
+                    cupomCodeCache.invalidate(redemption.code());
+                }
+            }
+            eventPublisher.publishEvent(CupomChangedEvent.of(inserted.keySet()));
+        }
+        return new WriteResult(rejected, overLimit);
+    }
+
+    /**
+     * Desfaz os resgates do lote dos cupons cujo {@code max_uses} o banco recusou: o contador em memória
+     * aceitou mais usos do que o banco comporta (outra instância ou restart com resgates não gravados)
+     */
+    private void undoOverLimit(List<PendingRedemption> insertedRows, Set<Long> overLimit) {
+        List<Object[]> undo = new ArrayList<>();
+        for (PendingRedemption redemption : insertedRows) {
+            if (overLimit.contains(redemption.cupomId())) {
+                undo.add(new Object[] {redemption.cupomId(), redemption.orderId()});
+                log.error("Resgate do pedido {} desfeito: cupom {} atingiu max_uses no banco",
+                    redemption.orderId(), redemption.code());
+            }
+        }
+        jdbcTemplate.batchUpdate(DELETE_REDEMPTION_SQL, undo);
+    }
+
+    private static CupomRedemptionResponse toResponse(CupomResponse cupom, String orderId,
+                                                      UsageCounter counter, boolean alreadyRedeemed) {
+        long used = counter.used();
+        return CupomRedemptionResponse.builder()
+                .cupomId(cupom.getId())
+                .code(cupom.getCode())
+                .orderId(orderId)
+                .maxUses(cupom.getMaxUses())
+                .usedCount(used)
+                .remainingUses(cupom.getMaxUses() != null ? Math.max(0, cupom.getMaxUses() - used) : null)
+                .alreadyRedeemed(alreadyRedeemed)
+                .build();
+    }
+
+    /**
+     * Contador de uso de um cupom: valor gravado no banco mais as reservas em memória,
+     * e os pedidos aceitos que ainda não foram gravados
+     */
+    static final class UsageCounter {
+
+        private final AtomicLong used;
+        private final Set<String> orderIds = ConcurrentHashMap.newKeySet();
+        // Resgates em andamento; -1 = descartado (não aceita novas entradas)
+        private final AtomicInteger users = new AtomicInteger();
+        private volatile long lastUsedNanos = System.nanoTime();
+
+        UsageCounter(long persistedUses) {
+            this.used = new AtomicLong(persistedUses);
+        }
+
+        /**
+         * Registra um resgate em andamento; false se o contador já foi descartado
+         */
+        boolean enter() {
+            int current;
+            do {
+                current = users.get();
+                if (current < 0) {
+                    return false;
+                }
+            } while (!users.compareAndSet(current, current + 1));
+            lastUsedNanos = System.nanoTime();
+            return true;
+        }
+
+        void exit() {
+            users.decrementAndGet();
+        }
+
+        /**
+         * Descarta o contador se não há resgates em andamento nem pedidos pendentes de gravação
+         * e ele está ocioso há pelo menos {@code idleNanos}
+         */
+        boolean retireIfIdle(long nowNanos, long idleNanos) {
+            if (!orderIds.isEmpty() || nowNanos - lastUsedNanos < idleNanos || !users.compareAndSet(0, -1)) {
+                return false;
+            }
+            // Um resgate pode ter entrado e saído entre a checagem e o CAS
+            if (!orderIds.isEmpty()) {
+                users.set(0);
+                return false;
+            }
+            return true;
+        }
+
+        /**
+         * Reserva um uso se o limite permitir (null = ilimitado)
+         */
+        boolean tryAcquire(Integer maxUses) {
+            if (maxUses == null) {
+                used.incrementAndGet();
+                return true;
+            }
+            long current;
+            do {
+                current = used.get();
+                if (current >= maxUses) {
+                    return false;
+                }
+            } while (!used.compareAndSet(current, current + 1));
+            return true;
+        }
+
+        /**
+         * Devolve usos reservados que não se confirmaram no banco
+         */
+        void release(long uses) {
+            used.addAndGet(-uses);
+        }
+
+        long used() {
+            return used.get();
+        }
+    }
+
+    /**
+     * Resultado da gravação de um lote: pedidos já gravados antes, por cupom, e cupons cujos resgates do lote
+     * foram desfeitos por ultrapassar {@code max_uses}
+     */
+    record WriteResult(Map<Long, Long> rejected, Set<Long> overLimit) {
+    }
+
+    /**
+     * Pedido gravado para o cupom
+     */
+    private record RedeemedOrder(long cupomId, String orderId) {
+    }
+
+    /**
+     * Resgate aceito em memória, aguardando gravação
+     */
+    private record PendingRedemption(long cupomId, String code, String orderId, LocalDateTime redeemedAt) {
+    }
+}
@@ -0,0 +1,143 @@
+package com.cupom.api.service;
+
+import com.cupom.api.dto.CupomResponse;
+import com.cupom.api.dto.CupomSearchRequest;
+import com.cupom.api.dto.CupomSearchResult;
+import com.cupom.api.entity.Cupom;
+import com.cupom.api.exception.InvalidCupomException;
+import com.cupom.api.index.CupomDescriptionIndex;
+import com.cupom.api.repository.CupomRepository;
+import com.cupom.api.repository.specification.CupomSearchSort;
+import com.cupom.api.repository.specification.CupomSpecifications;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Serviço de busca de cupons (back office).
+ * Filtra cupons não deletados por prefixo de código, termo na descrição, faixa de desconto, janela de
+ * expiração e publicação; só os filtros informados entram na consulta. A paginação é por cursor sobre
+ * (campo de ordenação, ID), sem OFFSET.
+ *
+ * O termo na descrição tem uma única regra ({@link CupomSpecifications#descriptionMatches}): cada palavra
+ * inicia uma palavra da descrição, sem diferenciar maiúsculas nem acentos. Quando o
+ * {@link CupomDescriptionIndex} já está carregado e o termo casa com até {@link #INDEX_CANDIDATE_LIMIT}
+ * cupons, os IDs candidatos restringem a consulta antes do predicado, que percorreria a tabela inteira
+ * para termos raros; termos frequentes ficam só com o predicado, que encontra a página logo nas
+ * primeiras linhas.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CupomSearchService {
+
+    private static final String CURSOR_SEPARATOR = "~";
+
+    /**
+     * Máximo de IDs candidatos do índice de descrições levados à consulta (IN)
+     */
+    static final int INDEX_CANDIDATE_LIMIT = 1000;
+
+    private final CupomRepository cupomRepository;
+    private final CupomDescriptionIndex cupomDescriptionIndex;
+    private final Clock clock;
+
+    /**
+     * Busca uma página de cupons pelos filtros informados
+     */
+    @Transactional(readOnly = true)
+    public CupomSearchResult search(CupomSearchRequest request) {
+        log.info("Buscando cupons: {}", request);
+
+        int limit = request.getLimit() != null ? request.getLimit() : CupomService.DEFAULT_PAGE_LIMIT;
+        if (limit < 1 || limit > CupomService.MAX_PAGE_LIMIT) {
+            throw new InvalidCupomException(
+                "Parâmetro limit deve estar entre 1 e " + CupomService.MAX_PAGE_LIMIT + ". Valor fornecido: " + limit
+            );
+        }
+        if (request.getMinDiscount() != null && request.getMaxDiscount() != null
+                && request.getMinDiscount().compareTo(request.getMaxDiscount()) > 0) {
+            throw new InvalidCupomException("minDiscount não pode ser maior que maxDiscount");
+        }
+        if (request.getExpirationFrom() != null && request.getExpirationTo() != null
+                && request.getExpirationFrom().isAfter(request.getExpirationTo())) {
+            throw new InvalidCupomException("expirationFrom não pode ser posterior a expirationTo");
+        }
+
+        String[] sortParam = request.getSort() != null ? request.getSort().split(",", 2) : new String[] {"id"};
+        CupomSearchSort sort = CupomSearchSort.fromAttribute(sortParam[0].strip())
+                .orElseThrow(() -> new InvalidCupomException("Ordenação não suportada: " + request.getSort()));
+        boolean descending = sortParam.length > 1 && "desc".equalsIgnoreCase(sortParam[1].strip());
+
+        Specification<Cupom> afterFilter = request.getAfter() != null
+                ? afterCursor(request.getAfter(), sort, descending) : null;
+
+        Specification<Cupom> descriptionFilter = CupomSpecifications.descriptionMatches(request.getQ());
+        if (descriptionFilter != null && !CupomDescriptionIndex.isSearchable(request.getQ())) {
+            throw new InvalidCupomException("Termo de busca deve ter ao menos uma palavra com "
+                + CupomDescriptionIndex.MIN_TERM_LENGTH + " ou mais caracteres");
+        }
+        if (descriptionFilter != null && cupomDescriptionIndex.isReady()) {
+            List<Long> candidates = cupomDescriptionIndex.search(request.getQ(), 0L, INDEX_CANDIDATE_LIMIT + 1);
+            if (candidates.isEmpty()) {
+                return CupomSearchResult.builder().items(List.of()).build();
+            }
+            if (candidates.size() <= INDEX_CANDIDATE_LIMIT) {
+                // O índice só pré-filtra: o predicado decide, com a mesma regra do caminho sem índice
+                descriptionFilter = CupomSpecifications.idIn(candidates).and(descriptionFilter);
+            }
+        }
+
+        Specification<Cupom> spec = Specification.where(CupomSpecifications.notDeleted())
+                .and(CupomSpecifications.codeStartsWith(request.getCodePrefix()))
+                .and(descriptionFilter)
+                .and(CupomSpecifications.discountBetween(request.getMinDiscount(), request.getMaxDiscount()))
+                .and(CupomSpecifications.expirationBetween(request.getExpirationFrom(), request.getExpirationTo()))
+                .and(CupomSpecifications.published(request.getPublished()))
+                .and(afterFilter);
+
+        // Busca um item a mais para saber se existe próxima página sem COUNT
+        List<CupomResponse> items = cupomRepository.search(spec, sort, descending, limit + 1, LocalDate.now(clock));
+
+        String nextCursor = null;
+        if (items.size() > limit) {
+            items = items.subList(0, limit);
+            nextCursor = encodeCursor(sort, items.get(limit - 1));
+        }
+
+        return CupomSearchResult.builder()
+                .items(items)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    /**
+     * Cursor opaco: campo de ordenação, valor do campo e ID do último item da página
+     */
+    static String encodeCursor(CupomSearchSort sort, CupomResponse last) {
+        String cursor = sort.getAttribute() + CURSOR_SEPARATOR + sort.valueOf(last) + CURSOR_SEPARATOR + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Specification<Cupom> afterCursor(String cursor, CupomSearchSort sort, boolean descending) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                    .split(CURSOR_SEPARATOR, 3);
+            if (parts.length != 3 || !parts[0].equals(sort.getAttribute())) {
+                throw new InvalidCupomException("Cursor não corresponde à ordenação " + sort.getAttribute());
+            }
+            return CupomSpecifications.after(sort, descending, sort.parse(parts[1]), Long.valueOf(parts[2]));
+        } catch (IllegalArgumentException | DateTimeException e) {
+            throw new InvalidCupomException("Cursor inválido: " + cursor);
+        }
+    }
+}
@@ -1,20 +1,40 @@
 package com.cupom.api.service;
 
+import com.cupom.api.cache.CupomCodeCache;
+import com.cupom.api.cache.CupomLookupCoalescer;
+import com.cupom.api.cache.PublishedCupomSnapshot;
+import com.cupom.api.dto.CacheStatsResponse;
+import com.cupom.api.dto.CupomPageResponse;
 import com.cupom.api.dto.CupomRequest;
 import com.cupom.api.dto.CupomResponse;
 import com.cupom.api.entity.Cupom;
+import com.cupom.api.event.CupomChangedEvent;
 import com.cupom.api.exception.CupomAlreadyDeletedException;
 import com.cupom.api.exception.CupomNotFoundException;
+import com.cupom.api.exception.CupomPreconditionFailedException;
 import com.cupom.api.exception.DuplicateCupomCodeException;
 import com.cupom.api.exception.InvalidCupomException;
+import com.cupom.api.index.CupomDescriptionIndex;
 import com.cupom.api.repository.CupomRepository;
+import com.cupom.api.repository.projection.CupomRevision;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Serviço de gerenciamento de cupons.
@@ -25,7 +45,21 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class CupomService {
 
+    public static final int DEFAULT_PAGE_LIMIT = 100;
+    public static final int MAX_PAGE_LIMIT = 1000;
+
     private final CupomRepository cupomRepository;
+    private final CupomCodeCache cupomCodeCache;
+    // Índice de códigos e filtro de Bloom: respondem inexistentes (e o índice, duplicados) sem ir ao banco
+    private final CupomCodeIndexService cupomCodeIndexService;
+    // Buscas concorrentes pelo mesmo ID compartilham uma única ida ao banco
+    private final CupomLookupCoalescer lookupCoalescer;
+    private final CupomDescriptionIndex cupomDescriptionIndex;
+    private final PublishedCupomSnapshot publishedCupomSnapshot;
+    // Avisa os caches em memória (snapshot de publicados) das alterações, após o commit
+    private final ApplicationEventPublisher eventPublisher;
+    // Uma leitura do relógio por operação: a mesma data vale para validação, filtros e mapeamento
+    private final Clock clock;
 
     /**
      * Cria um novo cupom.
@@ -33,30 +67,31 @@ public class CupomService {
      * - Normaliza o código (remove caracteres especiais, garante 6 caracteres)
      * - Valida data de expiração (não pode ser no passado)
      * - Valida valor de desconto (mínimo 0.5)
-     * - Verifica código duplicado
+     * - Verifica código duplicado entre cupons não deletados: pelo índice de códigos em memória, sem
+     *   consulta; a própria inserção detecta a violação do índice único (corrida entre duas criações ou
+     *   código ainda fora do índice)
      * - Pode ser criado como já publicado
      */
     @Transactional
     public CupomResponse createCupom(CupomRequest request) {
         log.info("Criando cupom com código: {}", request.getCode());
 
+        LocalDate today = LocalDate.now(clock);
         try {
             // REGRA: Normaliza código (remove caracteres especiais, 6 caracteres)
             String normalizedCode = Cupom.normalizeCode(request.getCode());
 
-            // REGRA: Verifica código duplicado
-            if (cupomRepository.existsByCodeAndNotDeleted(normalizedCode)) {
-                throw new DuplicateCupomCodeException(
-                    "Já existe um cupom ativo com o código: " + normalizedCode
-                );
-            }
-
             // REGRA: Valida data de expiração
-            Cupom.validateExpirationDate(request.getExpirationDate());
+            Cupom.validateExpirationDate(request.getExpirationDate(), today);
 
             // REGRA: Valida valor de desconto
             Cupom.validateDiscountValue(request.getDiscountValue());
 
+            // REGRA: Verifica código duplicado (índice de códigos)
+            if (cupomCodeIndexService.isTaken(normalizedCode)) {
+                throw duplicateCode(normalizedCode);
+            }
+
             // Cria o cupom
             Cupom cupom = Cupom.builder()
                     .code(normalizedCode)
@@ -64,13 +99,27 @@ public class CupomService {
                     .discountValue(request.getDiscountValue())
                     .expirationDate(request.getExpirationDate())
                     .published(request.getPublished() != null ? request.getPublished() : false)
+                    .maxUses(request.getMaxUses())
                     .deleted(false)
                     .build();
 
-            cupom = cupomRepository.save(cupom);
+            try {
+                // Flush imediato: a violação de unicidade aparece aqui, não no commit
+                cupom = cupomRepository.saveAndFlush(cupom);
+            } catch (DataIntegrityViolationException e) {
+                // REGRA: Verifica código duplicado
+                if (isActiveCodeViolation(e)) {
+                    throw duplicateCode(normalizedCode);
+                }
+                throw e;
+            }
+            // Remove eventual entrada negativa do código recém-criado
+            cupomCodeCache.invalidate(normalizedCode);
+            cupomDescriptionIndex.add(cupom.getId(), cupom.getDescription());
+            eventPublisher.publishEvent(CupomChangedEvent.of(cupom.getId()));
             log.info("Cupom criado com sucesso. ID: {}, Código: {}", cupom.getId(), cupom.getCode());
 
-            return mapToResponse(cupom);
+            return mapToResponse(cupom, today);
 
         } catch (IllegalArgumentException e) {
             log.error("Erro ao criar cupom: {}", e.getMessage());
@@ -79,42 +128,113 @@ public class CupomService {
     }
 
     /**
-     * Busca todos os cupons ativos (não deletados)
+     * Busca uma página de cupons ativos (não deletados) ordenados por ID.
+     * Paginação por cursor: {@code after} é o último ID recebido (null para a primeira página).
      */
     @Transactional(readOnly = true)
-    public List<CupomResponse> getAllActiveCupons() {
-        log.info("Buscando todos os cupons ativos");
-        return cupomRepository.findAllActive().stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+    public CupomPageResponse getActiveCuponsPage(Long after, int limit) {
+        log.info("Buscando cupons ativos após ID: {} (limite: {})", after, limit);
+
+        if (limit < 1 || limit > MAX_PAGE_LIMIT) {
+            throw new InvalidCupomException(
+                "Parâmetro limit deve estar entre 1 e " + MAX_PAGE_LIMIT + ". Valor fornecido: " + limit
+            );
+        }
+
+        // Busca um item a mais para saber se existe próxima página sem COUNT
+        List<CupomResponse> items = cupomRepository.findActiveResponsesAfter(
+            after != null ? after : 0L, LocalDate.now(clock), PageRequest.of(0, limit + 1)
+        );
+
+        Long nextCursor = null;
+        if (items.size() > limit) {
+            items = items.subList(0, limit);
+            nextCursor = items.get(limit - 1).getId();
+        }
+
+        return CupomPageResponse.builder()
+                .items(items)
+                .nextCursor(nextCursor)
+                .build();
     }
 
     /**
-     * Busca cupom por ID
+     * Percorre todos os cupons ativos (não deletados) entregando um a um ao consumidor.
+     * Lê via cursor JDBC direto na projeção de resposta (nada entra no contexto de persistência):
+     * memória constante independentemente do tamanho da tabela.
      */
     @Transactional(readOnly = true)
+    public void streamActiveCupons(Consumer<CupomResponse> consumer) {
+        log.info("Exportando cupons ativos em streaming");
+        try (Stream<CupomResponse> cupons = cupomRepository.streamAllActiveResponses(LocalDate.now(clock))) {
+            cupons.forEach(consumer);
+        }
+    }
+
+    /**
+     * Busca cupom por ID.
+     * Buscas concorrentes pelo mesmo ID compartilham uma única consulta; sem transação própria,
+     * para que quem espera não segure uma conexão.
+     */
     public CupomResponse getCupomById(Long id) {
         log.info("Buscando cupom por ID: {}", id);
-        Cupom cupom = cupomRepository.findById(id)
+        return lookupCoalescer.byId(id, () -> cupomRepository.findResponseById(id, LocalDate.now(clock)))
                 .orElseThrow(() -> new CupomNotFoundException("Cupom não encontrado com ID: " + id));
-
-        return mapToResponse(cupom);
     }
 
     /**
-     * Busca cupom por código (apenas ativos)
+     * Versão, contador de resgates e datas do cupom, sem carregá-lo por inteiro
+     * (requisições condicionais com If-None-Match / If-Modified-Since)
      */
     @Transactional(readOnly = true)
+    public CupomRevision getCupomRevision(Long id) {
+        return cupomRepository.findRevisionById(id)
+                .orElseThrow(() -> new CupomNotFoundException("Cupom não encontrado com ID: " + id));
+    }
+
+    /**
+     * Busca cupom por código (apenas ativos).
+     * Consulta o cache por código normalizado antes do banco; códigos inexistentes
+     * ficam em cache negativo por um período curto. Em caso de miss, buscas concorrentes
+     * pelo mesmo código esperam a carga em andamento no cache (se ela falhar, a seguinte refaz a consulta).
+     */
     public CupomResponse getCupomByCode(String code) {
         log.info("Buscando cupom por código: {}", code);
         
         String normalizedCode = Cupom.normalizeCode(code);
-        Cupom cupom = cupomRepository.findByCodeAndNotDeleted(normalizedCode)
+        return cupomCodeCache.get(normalizedCode, this::loadByCode)
                 .orElseThrow(() -> new CupomNotFoundException(
                     "Cupom não encontrado com código: " + normalizedCode
                 ));
+    }
+
+    /**
+     * Busca cupom por código para o checkout.
+     * Cupons publicados e ativos vêm do snapshot em memória, sem consultar o banco nem o cache por código;
+     * os demais (inexistentes, não publicados, expirados) seguem a busca por código, que diferencia o erro.
+     */
+    public CupomResponse getCheckoutCupomByCode(String code) {
+        if (publishedCupomSnapshot.isLoaded()) {
+            Optional<CupomResponse> cupom = publishedCupomSnapshot.find(Cupom.normalizeCode(code), LocalDate.now(clock));
+            if (cupom.isPresent()) {
+                return cupom.get();
+            }
+        }
+        return getCupomByCode(code);
+    }
 
-        return mapToResponse(cupom);
+    /**
+     * Estatísticas do cache de busca por código
+     */
+    public CacheStatsResponse getCodeCacheStats() {
+        CacheStats stats = cupomCodeCache.stats();
+        return CacheStatsResponse.builder()
+                .size(cupomCodeCache.size())
+                .hitCount(stats.hitCount())
+                .missCount(stats.missCount())
+                .evictionCount(stats.evictionCount())
+                .hitRate(stats.hitRate())
+                .build();
     }
 
     /**
@@ -122,15 +242,31 @@ public class CupomService {
      */
     @Transactional
     public CupomResponse updateCupom(Long id, CupomRequest request) {
+        return updateCupom(id, request, null);
+    }
+
+    /**
+     * Atualiza um cupom existente.
+     * Com {@code expectedVersion} (If-Match), rejeita a atualização se o cupom já estiver em outra versão;
+     * o {@code @Version} da entidade também impede que uma edição concorrente seja sobrescrita.
+     */
+    @Transactional
+    public CupomResponse updateCupom(Long id, CupomRequest request, Long expectedVersion) {
         log.info("Atualizando cupom ID: {}", id);
 
         Cupom cupom = cupomRepository.findById(id)
                 .orElseThrow(() -> new CupomNotFoundException("Cupom não encontrado com ID: " + id));
 
+        if (expectedVersion != null && !expectedVersion.equals(cupom.getVersion())) {
+            throw versionMismatch(id, expectedVersion);
+        }
+
         if (cupom.getDeleted()) {
             throw new InvalidCupomException("Não é possível atualizar um cupom deletado");
         }
 
+        LocalDate today = LocalDate.now(clock);
+        String previousDescription = cupom.getDescription();
         try {
             // Atualiza campos
             if (request.getDescription() != null) {
@@ -143,18 +279,28 @@ public class CupomService {
             }
 
             if (request.getExpirationDate() != null) {
-                Cupom.validateExpirationDate(request.getExpirationDate());
+                Cupom.validateExpirationDate(request.getExpirationDate(), today);
                 cupom.setExpirationDate(request.getExpirationDate());
+                // Nova data não está no passado: o cupom volta a não estar expirado
+                cupom.setExpired(false);
             }
 
             if (request.getPublished() != null) {
                 cupom.setPublished(request.getPublished());
             }
 
-            cupom = cupomRepository.save(cupom);
+            if (request.getMaxUses() != null) {
+                cupom.setMaxUses(request.getMaxUses());
+            }
+
+            // Flush imediato: a resposta já sai com a versão incrementada
+            cupom = cupomRepository.saveAndFlush(cupom);
+            cupomCodeCache.invalidate(cupom.getCode());
+            cupomDescriptionIndex.update(cupom.getId(), previousDescription, cupom.getDescription());
+            eventPublisher.publishEvent(CupomChangedEvent.of(cupom.getId()));
             log.info("Cupom atualizado com sucesso. ID: {}", cupom.getId());
 
-            return mapToResponse(cupom);
+            return mapToResponse(cupom, today);
 
         } catch (IllegalArgumentException e) {
             log.error("Erro ao atualizar cupom: {}", e.getMessage());
@@ -170,21 +316,29 @@ public class CupomService {
      */
     @Transactional
     public void deleteCupom(Long id) {
-        log.info("Deletando cupom ID: {}", id);
+        deleteCupom(id, null);
+    }
 
-        Cupom cupom = cupomRepository.findById(id)
-                .orElseThrow(() -> new CupomNotFoundException("Cupom não encontrado com ID: " + id));
+    /**
+     * Deleta um cupom (soft delete) com um único UPDATE condicional, sem carregar a entidade.
+     * Com {@code expectedVersion} (If-Match), só deleta se o cupom ainda estiver nessa versão.
+     */
+    @Transactional
+    public void deleteCupom(Long id, Long expectedVersion) {
+        log.info("Deletando cupom ID: {}", id);
 
-        try {
-            // REGRA: Não pode deletar cupom já deletado
-            cupom.softDelete();
-            cupomRepository.save(cupom);
-            log.info("Cupom deletado com sucesso (soft delete). ID: {}", cupom.getId());
-
-        } catch (IllegalStateException e) {
-            log.error("Erro ao deletar cupom: {}", e.getMessage());
-            throw new CupomAlreadyDeletedException(e.getMessage());
-        }
+        // REGRA: Não pode deletar cupom já deletado (guarda no WHERE)
+        CupomResponse cupom = cupomRepository.softDelete(id, expectedVersion, LocalDateTime.now(clock), LocalDate.now(clock))
+                .orElseThrow(() -> {
+                    rejectedRevision(id, expectedVersion);
+                    log.error("Erro ao deletar cupom: Cupom já está deletado");
+                    return new CupomAlreadyDeletedException("Cupom já está deletado");
+                });
+
+        cupomCodeCache.invalidate(cupom.getCode());
+        cupomDescriptionIndex.remove(cupom.getId(), cupom.getDescription());
+        eventPublisher.publishEvent(CupomChangedEvent.ofCodeStateChange(cupom.getId()));
+        log.info("Cupom deletado com sucesso (soft delete). ID: {}", id);
     }
 
     /**
@@ -192,20 +346,30 @@ public class CupomService {
      */
     @Transactional
     public CupomResponse publishCupom(Long id) {
-        log.info("Publicando cupom ID: {}", id);
+        return publishCupom(id, null);
+    }
 
-        Cupom cupom = cupomRepository.findById(id)
-                .orElseThrow(() -> new CupomNotFoundException("Cupom não encontrado com ID: " + id));
+    /**
+     * Publica um cupom com um único UPDATE condicional, sem carregar a entidade.
+     * A resposta é a própria linha devolvida pelo UPDATE.
+     * Com {@code expectedVersion} (If-Match), só publica se o cupom ainda estiver nessa versão.
+     */
+    @Transactional
+    public CupomResponse publishCupom(Long id, Long expectedVersion) {
+        log.info("Publicando cupom ID: {}", id);
 
-        if (cupom.getDeleted()) {
-            throw new InvalidCupomException("Não é possível publicar um cupom deletado");
-        }
+        // REGRA: Não pode publicar cupom deletado (guarda no WHERE)
+        CupomResponse cupom = cupomRepository.publish(id, expectedVersion, LocalDateTime.now(clock), LocalDate.now(clock))
+                .orElseThrow(() -> {
+                    rejectedRevision(id, expectedVersion);
+                    return new InvalidCupomException("Não é possível publicar um cupom deletado");
+                });
 
-        cupom.publish();
-        cupom = cupomRepository.save(cupom);
-        log.info("Cupom publicado com sucesso. ID: {}", cupom.getId());
+        cupomCodeCache.invalidate(cupom.getCode());
+        eventPublisher.publishEvent(CupomChangedEvent.ofCodeStateChange(cupom.getId()));
+        log.info("Cupom publicado com sucesso. ID: {}", id);
 
-        return mapToResponse(cupom);
+        return cupom;
     }
 
     /**
@@ -213,22 +377,89 @@ public class CupomService {
      */
     @Transactional
     public CupomResponse unpublishCupom(Long id) {
+        return unpublishCupom(id, null);
+    }
+
+    /**
+     * Despublica um cupom com um único UPDATE condicional, sem carregar a entidade.
+     * A resposta é a própria linha devolvida pelo UPDATE.
+     * Com {@code expectedVersion} (If-Match), só despublica se o cupom ainda estiver nessa versão.
+     */
+    @Transactional
+    public CupomResponse unpublishCupom(Long id, Long expectedVersion) {
         log.info("Despublicando cupom ID: {}", id);
 
-        Cupom cupom = cupomRepository.findById(id)
+        CupomResponse cupom = cupomRepository.unpublish(id, expectedVersion, LocalDateTime.now(clock), LocalDate.now(clock))
+                .orElseThrow(() -> {
+                    rejectedRevision(id, expectedVersion);
+                    // Sem guarda de estado: nenhuma linha só ocorre por ID ou versão, tratados acima
+                    return new CupomNotFoundException("Cupom não encontrado com ID: " + id);
+                });
+
+        cupomCodeCache.invalidate(cupom.getCode());
+        eventPublisher.publishEvent(CupomChangedEvent.ofCodeStateChange(cupom.getId()));
+        log.info("Cupom despublicado com sucesso. ID: {}", id);
+
+        return cupom;
+    }
+
+    /**
+     * Diagnostica um UPDATE condicional que não devolveu linha (caminho de erro, fora do caminho feliz):
+     * lança not found ou precondition failed; caso contrário a guarda de estado (ex.: cupom deletado)
+     * é que barrou o UPDATE e o chamador lança o erro correspondente
+     */
+    private void rejectedRevision(Long id, Long expectedVersion) {
+        CupomRevision revision = cupomRepository.findRevisionById(id)
                 .orElseThrow(() -> new CupomNotFoundException("Cupom não encontrado com ID: " + id));
+        if (expectedVersion != null && !expectedVersion.equals(revision.getVersion())) {
+            throw versionMismatch(id, expectedVersion);
+        }
+    }
+
+    private static CupomPreconditionFailedException versionMismatch(Long id, Long expectedVersion) {
+        return new CupomPreconditionFailedException(
+            "Cupom ID " + id + " não está mais na versão " + expectedVersion + " (If-Match)"
+        );
+    }
 
-        cupom.unpublish();
-        cupom = cupomRepository.save(cupom);
-        log.info("Cupom despublicado com sucesso. ID: {}", cupom.getId());
+    /**
+     * Carrega o cupom ativo com o código normalizado (miss do cache). Código fora do índice de códigos (ou do
+     * filtro de Bloom) não existe: não vai ao banco. Inexistentes ficam no cache negativo.
+     */
+    private Optional<CupomResponse> loadByCode(String normalizedCode) {
+        if (cupomCodeIndexService.isAbsent(normalizedCode)) {
+            return Optional.empty();
+        }
+        Optional<CupomResponse> cupom = cupomRepository.findActiveResponseByCode(normalizedCode, LocalDate.now(clock));
+        if (cupom.isEmpty()) {
+            cupomCodeIndexService.confirmMissing(normalizedCode);
+        }
+        return cupom;
+    }
 
-        return mapToResponse(cupom);
+    private static DuplicateCupomCodeException duplicateCode(String normalizedCode) {
+        return new DuplicateCupomCodeException("Já existe um cupom ativo com o código: " + normalizedCode);
+    }
+
+    /**
+     * Indica se a falha de integridade é a violação do índice único de códigos ativos
+     */
+    static boolean isActiveCodeViolation(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation
+                    && violation.getConstraintName() != null
+                    && violation.getConstraintName().toLowerCase(Locale.ROOT).contains(Cupom.ACTIVE_CODE_CONSTRAINT)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
-     * Mapeia entidade para DTO de resposta
+     * Mapeia entidade para DTO de resposta, com {@code active} e {@code expired} calculados em {@code today}
+     * (visível no pacote para os benchmarks JMH)
      */
-    private CupomResponse mapToResponse(Cupom cupom) {
+    static CupomResponse mapToResponse(Cupom cupom, LocalDate today) {
         return CupomResponse.builder()
                 .id(cupom.getId())
                 .code(cupom.getCode())
@@ -236,9 +467,12 @@ public class CupomService {
                 .discountValue(cupom.getDiscountValue())
                 .expirationDate(cupom.getExpirationDate())
                 .published(cupom.getPublished())
+                .maxUses(cupom.getMaxUses())
+                .usedCount(cupom.getUsedCount())
+                .version(cupom.getVersion())
                 .deleted(cupom.getDeleted())
-                .active(cupom.isActive())
-                .expired(cupom.isExpired())
+                .active(cupom.isActive(today))
+                .expired(cupom.isExpired(today))
                 .createdAt(cupom.getCreatedAt())
                 .updatedAt(cupom.getUpdatedAt())
                 .deletedAt(cupom.getDeletedAt())
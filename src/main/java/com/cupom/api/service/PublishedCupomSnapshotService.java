@@ -0,0 +1,77 @@
+package com.cupom.api.service;
+
+import com.cupom.api.cache.PublishedCupomSnapshot;
+import com.cupom.api.dto.CupomResponse;
+import com.cupom.api.event.CupomChangedEvent;
+import com.cupom.api.repository.CupomRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Mantém o {@link PublishedCupomSnapshot} em dia com a tabela.
+ * - Ao subir a aplicação e periodicamente: recarga completa (reconciliação), que corrige qualquer
+ *   divergência deixada por eventos perdidos ou aplicados fora de ordem
+ * - A cada {@link CupomChangedEvent}, após o commit: relê só os cupons alterados e troca o snapshot
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PublishedCupomSnapshotService {
+
+    private final CupomRepository cupomRepository;
+    private final PublishedCupomSnapshot publishedCupomSnapshot;
+    private final Clock clock;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        reconcile();
+    }
+
+    /**
+     * Recarrega o snapshot inteiro a partir da tabela
+     */
+    @Scheduled(fixedDelayString = "${cupom.published-snapshot.reconcile-interval:PT5M}",
+            initialDelayString = "${cupom.published-snapshot.reconcile-interval:PT5M}")
+    public void reconcile() {
+        LocalDate today = LocalDate.now(clock);
+        publishedCupomSnapshot.beginReload();
+        List<CupomResponse> cupons = cupomRepository.findPublishedActiveResponses(today);
+        Set<Long> changed = publishedCupomSnapshot.replace(cupons);
+
+        // Alterados durante a carga: a leitura acima pode ser anterior ao commit deles
+        if (!changed.isEmpty()) {
+            refresh(changed, today);
+        }
+        log.info("Snapshot de cupons publicados reconciliado: {} cupons", publishedCupomSnapshot.size());
+    }
+
+    /**
+     * Aplica ao snapshot os cupons alterados pela transação que acabou de confirmar
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onCupomChanged(CupomChangedEvent event) {
+        if (event.ids().isEmpty()) {
+            return;
+        }
+        refresh(event.ids(), LocalDate.now(clock));
+    }
+
+    private void refresh(Collection<Long> ids, LocalDate today) {
+        publishedCupomSnapshot.apply(ids, cupomRepository.findResponsesByIds(ids, today));
+        log.debug("Snapshot de cupons publicados atualizado para {} cupons alterados", ids.size());
+    }
+}
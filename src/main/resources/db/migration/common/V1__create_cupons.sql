@@ -0,0 +1,30 @@
+-- Schema inicial de cupons e resgates
+
+CREATE SEQUENCE cupons_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE cupons (
+    id              BIGINT         NOT NULL,
+    code            VARCHAR(6)     NOT NULL,
+    description     VARCHAR(500)   NOT NULL,
+    discount_value  NUMERIC(10, 2) NOT NULL,
+    expiration_date DATE           NOT NULL,
+    published       BOOLEAN        NOT NULL,
+    max_uses        INTEGER,
+    used_count      BIGINT         DEFAULT 0 NOT NULL,
+    deleted         BOOLEAN        NOT NULL,
+    created_at      TIMESTAMP(6)   NOT NULL,
+    updated_at      TIMESTAMP(6),
+    deleted_at      TIMESTAMP(6),
+    CONSTRAINT pk_cupons PRIMARY KEY (id),
+    CONSTRAINT uk_cupons_code UNIQUE (code)
+);
+
+CREATE TABLE cupom_redemptions (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    cupom_id    BIGINT       NOT NULL,
+    order_id    VARCHAR(100) NOT NULL,
+    redeemed_at TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_cupom_redemptions PRIMARY KEY (id),
+    CONSTRAINT uk_cupom_redemptions_cupom_order UNIQUE (cupom_id, order_id),
+    CONSTRAINT fk_cupom_redemptions_cupom FOREIGN KEY (cupom_id) REFERENCES cupons (id)
+);
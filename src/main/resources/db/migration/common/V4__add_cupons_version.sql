@@ -0,0 +1,2 @@
+-- Versão para lock otimista (@Version) e ETag/If-Match
+ALTER TABLE cupons ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
@@ -0,0 +1,5 @@
+-- Estado de expiração pré-calculado, mantido pelo varredor diário (CupomExpiryService)
+
+ALTER TABLE cupons ADD COLUMN expired BOOLEAN DEFAULT FALSE NOT NULL;
+
+UPDATE cupons SET expired = TRUE WHERE expiration_date < CURRENT_DATE;
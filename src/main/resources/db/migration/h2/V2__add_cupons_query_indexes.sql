@@ -0,0 +1,10 @@
+-- Índices para os filtros das consultas do CupomRepository.
+-- O H2 não tem índice parcial e o otimizador escolhe qualquer índice que comece por "deleted"
+-- (baixa cardinalidade) em vez da PK, o que transforma a listagem por cursor em varredura + ordenação.
+-- Por isso "deleted" entra como segunda coluna.
+
+-- findAllPublishedAndActive: published = true AND deleted = false
+CREATE INDEX idx_cupons_published_active ON cupons (published, deleted);
+
+-- Filtros de cupons não deletados por data de expiração (ativos/expirados)
+CREATE INDEX idx_cupons_expiration_active ON cupons (expiration_date, deleted);
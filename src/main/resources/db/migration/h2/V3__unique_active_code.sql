@@ -0,0 +1,11 @@
+-- Unicidade de código apenas entre cupons não deletados: um código pode ser reutilizado após o soft delete.
+-- O H2 não tem índice único parcial; a coluna gerada fica nula para deletados (nulos não conflitam).
+
+ALTER TABLE cupons DROP CONSTRAINT uk_cupons_code;
+
+ALTER TABLE cupons ADD COLUMN active_code VARCHAR(6) GENERATED ALWAYS AS (CASE WHEN deleted THEN NULL ELSE code END);
+
+CREATE UNIQUE INDEX uk_cupons_active_code ON cupons (active_code);
+
+-- Buscas por código (WHERE code = ? AND deleted = false)
+CREATE INDEX idx_cupons_code ON cupons (code);
@@ -0,0 +1,8 @@
+-- Índices da busca de cupons (CupomSearchService): um por filtro de faixa/ordenação ainda não coberto.
+-- Mesmo padrão do V2: coluna seletiva primeiro e deleted em segundo, para não desviar a listagem da PK.
+
+-- Faixa de desconto e ordenação por discountValue
+CREATE INDEX idx_cupons_discount_active ON cupons (discount_value, deleted);
+
+-- Ordenação por createdAt
+CREATE INDEX idx_cupons_created_active ON cupons (created_at, deleted);
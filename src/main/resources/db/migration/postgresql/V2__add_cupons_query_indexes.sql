@@ -0,0 +1,8 @@
+-- Índices parciais para os filtros das consultas do CupomRepository.
+-- Só indexam linhas não deletadas, que são as únicas consultadas.
+
+-- findAllPublishedAndActive: published = true AND deleted = false
+CREATE INDEX idx_cupons_published_active ON cupons (published) WHERE deleted = false;
+
+-- Filtros de cupons não deletados por data de expiração (ativos/expirados)
+CREATE INDEX idx_cupons_expiration_active ON cupons (expiration_date) WHERE deleted = false;
@@ -0,0 +1,6 @@
+-- Unicidade de código apenas entre cupons não deletados: um código pode ser reutilizado após o soft delete.
+-- O índice parcial também atende as buscas por código de cupons ativos.
+
+ALTER TABLE cupons DROP CONSTRAINT uk_cupons_code;
+
+CREATE UNIQUE INDEX uk_cupons_active_code ON cupons (code) WHERE deleted = false;
@@ -0,0 +1,3 @@
+-- Keyset da listagem/exportação só sobre cupons vivos (não deletados e não expirados).
+-- O predicado de índice parcial não pode usar CURRENT_DATE, por isso depende da coluna expired.
+CREATE INDEX idx_cupons_live ON cupons (id) WHERE deleted = false AND expired = false;
@@ -0,0 +1,14 @@
+-- Índices da busca de cupons (CupomSearchService), parciais sobre cupons não deletados como no V2.
+
+-- Faixa de desconto e ordenação por discountValue
+CREATE INDEX idx_cupons_discount_active ON cupons (discount_value) WHERE deleted = false;
+
+-- Ordenação por createdAt
+CREATE INDEX idx_cupons_created_active ON cupons (created_at) WHERE deleted = false;
+
+-- Prefixo de código (LIKE 'ABC%'): text_pattern_ops independe da collation do banco
+CREATE INDEX idx_cupons_code_prefix ON cupons (code text_pattern_ops) WHERE deleted = false;
+
+-- Termo na descrição (LIKE '%termo%' sobre lower(description)): trigramas
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX idx_cupons_description_trgm ON cupons USING gin (lower(description) gin_trgm_ops) WHERE deleted = false;
@@ -0,0 +1,11 @@
+-- Termo na descrição (CupomSpecifications.descriptionMatches): LIKE 'palavra%' OR LIKE '% palavra%' sobre a
+-- descrição em minúsculas, sem acentos e com a pontuação trocada por espaço. O TRANSLATE precisa ser o mesmo
+-- da Specification para o índice ser usado; substitui o trigrama sobre lower(description) do V7.
+DROP INDEX idx_cupons_description_trgm;
+
+CREATE INDEX idx_cupons_description_words_trgm ON cupons USING gin (
+    translate(lower(description),
+              'áàâãäåāéèêëēíìîïīóòôõöōúùûüūçñýÿ.,;:!?()[]{}/\-_''"*+&%#@$=<>|~^–—“”‘’«»°',
+              'aaaaaaaeeeeeiiiiioooooouuuuucnyy                                        ')
+    gin_trgm_ops
+) WHERE deleted = false;
@@ -0,0 +1,132 @@
+package com.cupom.api.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+@DisplayName("Testes do Filtro de Bloom de Códigos")
+class CupomCodeBloomFilterTest {
+
+    @Test
+    @DisplayName("Não deve responder antes da carga a partir da tabela")
+    void naoDeveResponderAntesDaCarga() {
+        CupomCodeBloomFilter filter = new CupomCodeBloomFilter(true, 1_000, 0.01);
+        filter.add("ABC123");
+
+        assertThat(filter.isReady()).isFalse();
+
+        filter.beginLoad();
+        filter.finishLoad();
+
+        assertThat(filter.isReady()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Não deve ter falso negativo para códigos carregados ou incluídos")
+    void naoDeveTerFalsoNegativo() {
+        CupomCodeBloomFilter filter = new CupomCodeBloomFilter(true, 10_000, 0.01);
+        filter.beginLoad();
+        for (int i = 0; i < 10_000; i++) {
+            filter.load(code(i));
+        }
+        // Inclusão durante a carga chega ao filtro construído
+        filter.add("ZZZZZZ");
+        filter.finishLoad();
+        filter.add("YYYYYY");
+
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(filter.mightContain(code(i))).isTrue();
+        }
+        assertThat(filter.mightContain("ZZZZZZ")).isTrue();
+        assertThat(filter.mightContain("YYYYYY")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Taxa de falso positivo deve ficar próxima da configurada")
+    void taxaDeFalsoPositivoProximaDaConfigurada() {
+        CupomCodeBloomFilter filter = new CupomCodeBloomFilter(true, 100_000, 0.01);
+        filter.beginLoad();
+        for (int i = 0; i < 100_000; i++) {
+            filter.load(code(i));
+        }
+        filter.finishLoad();
+
+        int falsePositives = 0;
+        for (int i = 100_000; i < 200_000; i++) {
+            if (filter.mightContain(code(i))) {
+                falsePositives++;
+            }
+        }
+
+        assertThat(falsePositives / 100_000.0).isCloseTo(0.01, within(0.005));
+        assertThat(filter.estimatedFpp()).isCloseTo(0.01, within(0.005));
+        assertThat(filter.insertions()).isEqualTo(100_000);
+        // ~9,6 bits por código com 1% de falso positivo
+        assertThat(filter.memoryBytes()).isLessThan(130_000);
+    }
+
+    @Test
+    @DisplayName("Reconstrução deve descartar códigos que não estão mais na tabela")
+    void reconstrucaoDeveDescartarCodigos() {
+        CupomCodeBloomFilter filter = new CupomCodeBloomFilter(true, 1_000, 0.01);
+        filter.beginLoad();
+        filter.load("ABC123");
+        filter.load("DEF456");
+        filter.finishLoad();
+
+        filter.beginLoad();
+        filter.load("DEF456");
+        filter.finishLoad();
+
+        assertThat(filter.mightContain("ABC123")).isFalse();
+        assertThat(filter.mightContain("DEF456")).isTrue();
+        assertThat(filter.insertions()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Deve descartar a construção abortada e manter o filtro atual")
+    void deveDescartarConstrucaoAbortada() {
+        CupomCodeBloomFilter filter = new CupomCodeBloomFilter(true, 1_000, 0.01);
+        filter.beginLoad();
+        filter.load("ABC123");
+        filter.finishLoad();
+
+        filter.beginLoad();
+        filter.abortLoad();
+        filter.finishLoad();
+
+        assertThat(filter.mightContain("ABC123")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Códigos não normalizados nunca estão no filtro")
+    void codigosNaoNormalizadosNuncaEstaoNoFiltro() {
+        CupomCodeBloomFilter filter = new CupomCodeBloomFilter(true, 1_000, 0.01);
+        filter.beginLoad();
+        filter.load("abc-12");
+        filter.finishLoad();
+
+        assertThat(filter.mightContain("abc-12")).isFalse();
+        assertThat(filter.insertions()).isZero();
+    }
+
+    @Test
+    @DisplayName("Deve recusar taxa de falso positivo fora de (0, 1)")
+    void deveRecusarTaxaInvalida() {
+        assertThatThrownBy(() -> new CupomCodeBloomFilter(true, 1_000, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new CupomCodeBloomFilter(true, 1_000, 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    /**
+     * Código normalizado de 6 caracteres a partir do número (base 36)
+     */
+    private static String code(int i) {
+        String digits = Integer.toString(i, 36).toUpperCase();
+        return "0".repeat(6 - digits.length()) + digits;
+    }
+}
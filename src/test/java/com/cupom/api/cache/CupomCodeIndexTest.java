@@ -0,0 +1,131 @@
+package com.cupom.api.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Testes do Índice de Códigos")
+class CupomCodeIndexTest {
+
+    @Test
+    @DisplayName("Deve compactar o código em base 36 e recusar códigos não normalizados")
+    void deveCompactarCodigo() {
+        assertThat(CupomCodeIndex.pack("000000")).isZero();
+        assertThat(CupomCodeIndex.pack("00000Z")).isEqualTo(35L);
+        assertThat(CupomCodeIndex.pack("ZZZZZZ")).isEqualTo(2_176_782_335L);
+        assertThat(CupomCodeIndex.pack("abc123")).isEqualTo(-1L);
+        assertThat(CupomCodeIndex.pack("ABC-12")).isEqualTo(-1L);
+        assertThat(CupomCodeIndex.pack("ABC12")).isEqualTo(-1L);
+    }
+
+    @Test
+    @DisplayName("Deve guardar ID e estados do cupom e ignorar códigos não normalizados")
+    void deveGuardarIdEEstados() {
+        CupomCodeIndex index = new CupomCodeIndex(16);
+        index.apply(42L, "ABC123", true, false, false);
+        index.apply(43L, "ZZZZZZ", false, false, true);
+        index.apply(44L, "abc-12", true, false, false);
+
+        long entry = index.find("ABC123");
+        assertThat(CupomCodeIndex.idOf(entry)).isEqualTo(42L);
+        assertThat(CupomCodeIndex.isPublished(entry)).isTrue();
+        assertThat(CupomCodeIndex.isExpired(entry)).isFalse();
+        assertThat(CupomCodeIndex.isExpired(index.find("ZZZZZZ"))).isTrue();
+        assertThat(index.find("XYZ999")).isEqualTo(CupomCodeIndex.ABSENT);
+        assertThat(index.find("abc-12")).isEqualTo(CupomCodeIndex.ABSENT);
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Deve remover o código só se ainda pertencer ao mesmo cupom")
+    void deveRemoverApenasDoMesmoCupom() {
+        CupomCodeIndex index = new CupomCodeIndex(16);
+        index.apply(1L, "ABC123", false, false, false);
+        // Cupom 1 deletado e código recriado pelo cupom 2 antes do evento do 1 chegar
+        index.apply(2L, "ABC123", false, false, false);
+        index.remove(1L, "ABC123");
+
+        assertThat(CupomCodeIndex.idOf(index.find("ABC123"))).isEqualTo(2L);
+
+        index.apply(2L, "ABC123", false, true, false);
+        assertThat(index.contains("ABC123")).isFalse();
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Deve crescer e continuar encontrando as chaves após remoções")
+    void deveCrescerERemoverSemPerderChaves() {
+        CupomCodeIndex index = new CupomCodeIndex(16);
+        Map<String, Long> expected = new HashMap<>();
+        Random random = new Random(7);
+        for (long id = 1; id <= 20_000; id++) {
+            String code = code(random);
+            expected.put(code, id);
+            index.apply(id, code, false, false, false);
+        }
+        int i = 0;
+        for (var it = expected.entrySet().iterator(); it.hasNext(); i++) {
+            var entry = it.next();
+            if (i % 3 == 0) {
+                index.remove(entry.getValue(), entry.getKey());
+                it.remove();
+            }
+        }
+
+        assertThat(index.size()).isEqualTo(expected.size());
+        expected.forEach((code, id) -> assertThat(CupomCodeIndex.idOf(index.find(code))).isEqualTo(id));
+    }
+
+    @Test
+    @DisplayName("Alterações feitas durante a carga devem prevalecer sobre as linhas carregadas")
+    void alteracoesDuranteCargaDevemPrevalecer() {
+        CupomCodeIndex index = new CupomCodeIndex(16);
+        index.beginLoad();
+        assertThat(index.isReady()).isFalse();
+        index.apply(1L, "ABC123", false, true, false);
+        index.load(1L, "ABC123", false, false);
+        index.load(2L, "DEF456", true, false);
+        index.finishLoad();
+
+        assertThat(index.isReady()).isTrue();
+        assertThat(index.contains("ABC123")).isFalse();
+        assertThat(index.contains("DEF456")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Recarga deve descartar códigos que saíram da tabela e manter as alterações feitas durante ela")
+    void recargaDeveReconciliarComATabela() {
+        CupomCodeIndex index = new CupomCodeIndex(16);
+        index.beginLoad();
+        index.load(1L, "ABC123", false, false);
+        index.load(2L, "DEF456", false, false);
+        index.finishLoad();
+
+        // ABC123 deletado fora da aplicação; GHI789 criado e DEF456 deletado enquanto a tabela é lida
+        index.beginLoad();
+        assertThat(index.contains("ABC123")).isTrue();
+        index.apply(3L, "GHI789", true, false, false);
+        index.load(2L, "DEF456", false, false);
+        index.apply(2L, "DEF456", false, true, false);
+        index.finishLoad();
+
+        assertThat(index.contains("ABC123")).isFalse();
+        assertThat(index.contains("DEF456")).isFalse();
+        assertThat(CupomCodeIndex.isPublished(index.find("GHI789"))).isTrue();
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    private static String code(Random random) {
+        char[] chars = new char[6];
+        for (int i = 0; i < chars.length; i++) {
+            int digit = random.nextInt(36);
+            chars[i] = (char) (digit < 10 ? '0' + digit : 'A' + digit - 10);
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,108 @@
+package com.cupom.api.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Testes do Espaço de Códigos do Gerador")
+class CupomCodeSpaceTest {
+
+    @Test
+    @DisplayName("Deve converter o número base 36 no código normalizado e voltar")
+    void deveConverterNumeroEmCodigo() {
+        assertThat(CupomCodeSpace.toCode(0)).isEqualTo("000000");
+        assertThat(CupomCodeSpace.toCode(35)).isEqualTo("00000Z");
+        assertThat(CupomCodeSpace.toCode(CupomCodeSpace.SIZE - 1)).isEqualTo("ZZZZZZ");
+
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < 10_000; i++) {
+            long packed = random.nextLong(CupomCodeSpace.SIZE);
+            assertThat(CupomCodeIndex.pack(CupomCodeSpace.toCode(packed))).isEqualTo(packed);
+        }
+    }
+
+    @Test
+    @DisplayName("Deve reservar cada código uma única vez, inclusive os carregados da tabela")
+    void deveReservarCodigoUmaVez() {
+        CupomCodeSpace space = new CupomCodeSpace();
+        space.beginLoad();
+        space.load("ABC123");
+        space.finishLoad();
+
+        long packed = CupomCodeIndex.pack("XYZ999");
+        assertThat(space.tryClaim(packed)).isTrue();
+        assertThat(space.tryClaim(packed)).isFalse();
+        assertThat(space.tryClaim(CupomCodeIndex.pack("ABC123"))).isFalse();
+        assertThat(space.isOccupied("XYZ999")).isTrue();
+        assertThat(space.isOccupied("ZZZZZZ")).isFalse();
+        assertThat(space.occupied()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Escritas via JPA só marcam códigos depois que a carga começou")
+    void deveMarcarEscritasAposInicioDaCarga() {
+        CupomCodeSpace space = new CupomCodeSpace();
+        space.occupy("ABC123");
+
+        assertThat(space.isOccupied("ABC123")).isFalse();
+        assertThat(space.memoryBytes()).isZero();
+
+        space.beginLoad();
+        space.occupy("DEF456");
+        space.occupy("abc-12");
+
+        assertThat(space.isOccupied("DEF456")).isTrue();
+        assertThat(space.occupied()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Deve alocar só as páginas tocadas")
+    void deveAlocarSoPaginasTocadas() {
+        CupomCodeSpace space = new CupomCodeSpace();
+        space.tryClaim(0);
+        space.tryClaim(1);
+        space.tryClaim(CupomCodeSpace.SIZE - 1);
+
+        // Duas páginas de 8 KB
+        assertThat(space.memoryBytes()).isEqualTo(2 * 8192);
+        assertThat(space.tryClaim(CupomCodeSpace.SIZE)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Reservas concorrentes do mesmo intervalo nunca entregam o mesmo código duas vezes")
+    void reservasConcorrentesNaoRepetemCodigo() throws Exception {
+        CupomCodeSpace space = new CupomCodeSpace();
+        Set<Long> claimed = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(executor.submit(() -> {
+                    for (long packed = 0; packed < 100_000; packed++) {
+                        if (space.tryClaim(packed)) {
+                            assertThat(claimed.add(packed)).isTrue();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(claimed).hasSize(100_000);
+        assertThat(space.occupied()).isEqualTo(100_000);
+    }
+}
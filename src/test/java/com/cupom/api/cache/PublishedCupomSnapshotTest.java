@@ -0,0 +1,81 @@
+package com.cupom.api.cache;
+
+import com.cupom.api.dto.CupomResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Testes do Snapshot de Cupons Publicados")
+class PublishedCupomSnapshotTest {
+
+    private static final LocalDate HOJE = LocalDate.of(2025, 6, 1);
+
+    private final PublishedCupomSnapshot snapshot = new PublishedCupomSnapshot();
+
+    @Test
+    @DisplayName("Deve aplicar só os cupons alterados sobre a carga completa")
+    void deveAplicarSoOsAlterados() {
+        snapshot.replace(List.of(cupom(1L, "AAA111", true), cupom(2L, "BBB222", true)));
+
+        snapshot.apply(List.of(1L, 3L), List.of(cupom(1L, "AAA111", false), cupom(3L, "CCC333", true)));
+
+        assertThat(snapshot.find("AAA111", HOJE)).isEmpty();
+        assertThat(snapshot.find("BBB222", HOJE)).map(CupomResponse::getId).contains(2L);
+        assertThat(snapshot.find("CCC333", HOJE)).map(CupomResponse::getId).contains(3L);
+        assertThat(snapshot.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Deve remover o cupom ausente e tratar troca e reaproveitamento de código")
+    void deveTratarTrocaDeCodigo() {
+        snapshot.replace(List.of(cupom(1L, "AAA111", true), cupom(2L, "BBB222", true)));
+
+        // 1 passa a BBB222 depois que 2 (deletado) deixa de ser retornado
+        snapshot.apply(List.of(1L, 2L), List.of(cupom(1L, "BBB222", true)));
+
+        assertThat(snapshot.find("AAA111", HOJE)).isEmpty();
+        assertThat(snapshot.find("BBB222", HOJE)).map(CupomResponse::getId).contains(1L);
+        assertThat(snapshot.size()).isEqualTo(1);
+
+        snapshot.apply(List.of(1L), List.of());
+        assertThat(snapshot.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Deve entregar cópias: alterar o cupom devolvido não altera o snapshot")
+    void deveEntregarCopias() {
+        snapshot.replace(List.of(cupom(1L, "AAA111", true)));
+
+        snapshot.find("AAA111", HOJE).orElseThrow().setPublished(false);
+
+        assertThat(snapshot.find("AAA111", HOJE)).map(CupomResponse::getPublished).contains(true);
+    }
+
+    @Test
+    @DisplayName("Deve devolver na recarga os IDs alterados durante ela")
+    void deveDevolverAlteradosDuranteRecarga() {
+        snapshot.beginReload();
+        snapshot.apply(List.of(5L), List.of(cupom(5L, "EEE555", true)));
+
+        Set<Long> changed = snapshot.replace(List.of(cupom(1L, "AAA111", true)));
+
+        assertThat(changed).containsExactly(5L);
+        assertThat(snapshot.isLoaded()).isTrue();
+        assertThat(snapshot.find("EEE555", HOJE)).isEmpty();
+    }
+
+    private static CupomResponse cupom(Long id, String code, boolean published) {
+        return CupomResponse.builder()
+                .id(id)
+                .code(code)
+                .published(published)
+                .active(true)
+                .expirationDate(HOJE.plusDays(30))
+                .build();
+    }
+}
@@ -0,0 +1,105 @@
+package com.cupom.api.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Testes da Deduplicação de Carregamentos em Andamento")
+class SingleFlightTest {
+
+    private static final int CALLERS = 16;
+
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
+    @Test
+    @DisplayName("Chamadas concorrentes para a mesma chave devem compartilhar um único carregamento")
+    void deveCompartilharCarregamento() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<String>> results = stampede(() -> singleFlight.execute("ABC123", () -> {
+            loads.incrementAndGet();
+            await(release);
+            return "cupom";
+        }), release);
+
+        for (Future<String> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("cupom");
+        }
+        assertThat(loads).hasValue(1);
+        assertThat(singleFlight.coalescedCount()).isEqualTo(CALLERS - 1);
+        assertThat(singleFlight.inFlightCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Chamadas concorrentes devem receber a mesma exceção do carregamento")
+    void deveCompartilharExcecao() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        IllegalStateException failure = new IllegalStateException("banco indisponível");
+
+        List<Future<String>> results = stampede(() -> singleFlight.execute("ABC123", () -> {
+            loads.incrementAndGet();
+            await(release);
+            throw failure;
+        }), release);
+
+        for (Future<String> result : results) {
+            assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCauseReference(failure);
+        }
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Deve carregar de novo depois que o carregamento anterior terminou")
+    void deveCarregarDeNovoAposTerminar() {
+        AtomicInteger loads = new AtomicInteger();
+
+        singleFlight.execute("ABC123", () -> "v" + loads.incrementAndGet());
+        String second = singleFlight.execute("ABC123", () -> "v" + loads.incrementAndGet());
+
+        assertThat(second).isEqualTo("v2");
+        assertThat(singleFlight.coalescedCount()).isZero();
+    }
+
+    /**
+     * Dispara {@link #CALLERS} chamadas e só libera o carregamento quando as demais já aguardam por ele
+     */
+    private List<Future<String>> stampede(Callable<String> call, CountDownLatch release) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(executor.submit(call));
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (singleFlight.coalescedCount() < CALLERS - 1 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        release.countDown();
+        executor.shutdown();
+        return results;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
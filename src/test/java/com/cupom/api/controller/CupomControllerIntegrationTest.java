@@ -1,21 +1,46 @@
 package com.cupom.api.controller;
 
+import com.cupom.api.cache.CupomCodeCache;
+import com.cupom.api.cache.PublishedCupomSnapshot;
+import com.cupom.api.dto.CupomBatchRequest;
+import com.cupom.api.dto.CupomBulkRequest;
+import com.cupom.api.dto.CupomCodeLookupRequest;
+import com.cupom.api.dto.CupomGenerateRequest;
+import com.cupom.api.dto.CupomRedemptionRequest;
 import com.cupom.api.dto.CupomRequest;
+import com.cupom.api.dto.CupomResponse;
 import com.cupom.api.entity.Cupom;
+import com.cupom.api.index.CupomDescriptionIndex;
+import com.cupom.api.repository.CupomRedemptionRepository;
 import com.cupom.api.repository.CupomRepository;
+import com.cupom.api.repository.specification.CupomSearchSort;
+import com.cupom.api.repository.specification.CupomSpecifications;
+import com.cupom.api.service.CupomDescriptionIndexLoader;
+import com.cupom.api.service.CupomExpiryService;
+import com.cupom.api.service.CupomRedemptionService;
+import com.cupom.api.service.PublishedCupomSnapshotService;
+import com.cupom.api.metrics.CupomServiceMetricsAspect;
+import com.cupom.api.metrics.CupomStateGauges;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -37,9 +62,40 @@ class CupomControllerIntegrationTest {
     @Autowired
     private CupomRepository cupomRepository;
 
+    @Autowired
+    private CupomCodeCache cupomCodeCache;
+
+    @Autowired
+    private CupomRedemptionRepository cupomRedemptionRepository;
+
+    @Autowired
+    private CupomRedemptionService cupomRedemptionService;
+
+    @Autowired
+    private CupomExpiryService cupomExpiryService;
+
+    @Autowired
+    private CupomDescriptionIndexLoader cupomDescriptionIndexLoader;
+
+    @Autowired
+    private CupomDescriptionIndex cupomDescriptionIndex;
+
+    @Autowired
+    private PublishedCupomSnapshot publishedCupomSnapshot;
+
+    @Autowired
+    private PublishedCupomSnapshotService publishedCupomSnapshotService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @BeforeEach
     void setUp() {
+        cupomRedemptionService.flush();
+        cupomRedemptionRepository.deleteAll();
         cupomRepository.deleteAll();
+        cupomCodeCache.invalidateAll();
+        publishedCupomSnapshotService.reconcile();
     }
 
     @Test
@@ -148,6 +204,309 @@ class CupomControllerIntegrationTest {
                 .andExpect(jsonPath("$.message", containsString("Já existe um cupom")));
     }
 
+    @Test
+    void testActiveAndExpiredFlagsComputedInQuery() throws Exception {
+        Cupom vigente = new Cupom();
+        vigente.setCode("VIG123");
+        vigente.setDescription("Cupom vigente");
+        vigente.setDiscountValue(BigDecimal.valueOf(10.00));
+        vigente.setExpirationDate(LocalDate.now());
+        vigente = cupomRepository.save(vigente);
+
+        Cupom expirado = new Cupom();
+        expirado.setCode("EXP123");
+        expirado.setDescription("Cupom expirado");
+        expirado.setDiscountValue(BigDecimal.valueOf(10.00));
+        expirado.setExpirationDate(LocalDate.now().minusDays(1));
+        expirado = cupomRepository.save(expirado);
+
+        Cupom deletado = new Cupom();
+        deletado.setCode("DEL123");
+        deletado.setDescription("Cupom deletado");
+        deletado.setDiscountValue(BigDecimal.valueOf(10.00));
+        deletado.setExpirationDate(LocalDate.now().plusDays(30));
+        deletado.softDelete(LocalDateTime.now());
+        deletado = cupomRepository.save(deletado);
+
+        mockMvc.perform(get("/api/cupons/" + vigente.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.active", is(true)))
+                .andExpect(jsonPath("$.expired", is(false)));
+
+        mockMvc.perform(get("/api/cupons/" + expirado.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.active", is(false)))
+                .andExpect(jsonPath("$.expired", is(true)));
+
+        mockMvc.perform(get("/api/cupons/" + deletado.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted", is(true)))
+                .andExpect(jsonPath("$.active", is(false)))
+                .andExpect(jsonPath("$.expired", is(false)))
+                .andExpect(jsonPath("$.deletedAt", notNullValue()));
+
+        // Listagem filtra expirados no SQL, mesmo antes da varredura marcar o cupom
+        mockMvc.perform(get("/api/cupons"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].code", is("VIG123")))
+                .andExpect(jsonPath("$[0].active", is(true)));
+
+        assertThat(cupomExpiryService.expireBefore(LocalDate.now())).isEqualTo(1);
+        assertThat(cupomRepository.findById(expirado.getId())).get()
+                .extracting(Cupom::getExpired).isEqualTo(true);
+        assertThat(cupomRepository.findById(vigente.getId())).get()
+                .extracting(Cupom::getExpired).isEqualTo(false);
+        assertThat(cupomExpiryService.expireBefore(LocalDate.now())).isZero();
+    }
+
+    @Test
+    void testConditionalGetById() throws Exception {
+        Cupom cupom = new Cupom();
+        cupom.setCode("ETG123");
+        cupom.setDescription("Cupom com ETag");
+        cupom.setDiscountValue(BigDecimal.valueOf(10.00));
+        cupom.setExpirationDate(LocalDate.now().plusDays(30));
+        cupom = cupomRepository.save(cupom);
+
+        MvcResult first = mockMvc.perform(get("/api/cupons/" + cupom.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(header().exists("Last-Modified"))
+                .andExpect(header().string("Cache-Control", "no-cache"))
+                .andReturn();
+        String etag = first.getResponse().getHeader("ETag");
+        String lastModified = first.getResponse().getHeader("Last-Modified");
+
+        mockMvc.perform(get("/api/cupons/" + cupom.getId()).header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(content().string(""));
+
+        mockMvc.perform(get("/api/cupons/" + cupom.getId()).header("If-Modified-Since", lastModified))
+                .andExpect(status().isNotModified());
+
+        CupomRequest update = new CupomRequest();
+        update.setCode("ETG123");
+        update.setDescription("Descrição nova");
+        update.setDiscountValue(BigDecimal.valueOf(10.00));
+        update.setExpirationDate(LocalDate.now().plusDays(30));
+        mockMvc.perform(put("/api/cupons/" + cupom.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(update)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/cupons/" + cupom.getId()).header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", not(etag)))
+                .andExpect(jsonPath("$.description", is("Descrição nova")));
+
+        mockMvc.perform(get("/api/cupons/99999").header("If-None-Match", etag))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testIfMatchOnWrites() throws Exception {
+        Cupom cupom = new Cupom();
+        cupom.setCode("IFM123");
+        cupom.setDescription("Cupom com If-Match");
+        cupom.setDiscountValue(BigDecimal.valueOf(10.00));
+        cupom.setExpirationDate(LocalDate.now().plusDays(30));
+        cupom = cupomRepository.save(cupom);
+
+        String etag = mockMvc.perform(get("/api/cupons/" + cupom.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version", is(0)))
+                .andReturn().getResponse().getHeader("ETag");
+
+        String publishedEtag = mockMvc.perform(post("/api/cupons/" + cupom.getId() + "/publish")
+                        .header("If-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.published", is(true)))
+                .andExpect(jsonPath("$.version", is(1)))
+                .andExpect(header().string("ETag", not(etag)))
+                .andReturn().getResponse().getHeader("ETag");
+
+        CupomRequest update = new CupomRequest();
+        update.setCode("IFM123");
+        update.setDescription("Edição com versão antiga");
+        update.setDiscountValue(BigDecimal.valueOf(10.00));
+        update.setExpirationDate(LocalDate.now().plusDays(30));
+        mockMvc.perform(put("/api/cupons/" + cupom.getId())
+                        .header("If-Match", etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(update)))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(delete("/api/cupons/" + cupom.getId()).header("If-Match", etag))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(post("/api/cupons/" + cupom.getId() + "/unpublish").header("If-Match", "W/" + publishedEtag))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(put("/api/cupons/" + cupom.getId())
+                        .header("If-Match", publishedEtag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(update)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version", is(2)));
+
+        mockMvc.perform(delete("/api/cupons/" + cupom.getId()).header("If-Match", "*"))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(delete("/api/cupons/" + cupom.getId()))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testConditionalGetByCodeAndListing() throws Exception {
+        Cupom cupom = new Cupom();
+        cupom.setCode("ETG456");
+        cupom.setDescription("Cupom com ETag");
+        cupom.setDiscountValue(BigDecimal.valueOf(10.00));
+        cupom.setExpirationDate(LocalDate.now().plusDays(30));
+        cupom = cupomRepository.save(cupom);
+
+        String codeEtag = mockMvc.perform(get("/api/cupons/code/ETG456"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(get("/api/cupons/code/etg-456").header("If-None-Match", codeEtag))
+                .andExpect(status().isNotModified());
+
+        String listEtag = mockMvc.perform(get("/api/cupons"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Last-Modified"))
+                .andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(get("/api/cupons").header("If-None-Match", listEtag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(delete("/api/cupons/" + cupom.getId()))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/cupons").header("If-None-Match", listEtag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    void testRecreateCupomAfterSoftDelete() throws Exception {
+        CupomRequest request = new CupomRequest();
+        request.setCode("REU123");
+        request.setDescription("Cupom reutilizado");
+        request.setDiscountValue(BigDecimal.valueOf(10.00));
+        request.setExpirationDate(LocalDate.now().plusDays(30));
+
+        MvcResult created = mockMvc.perform(post("/api/cupons")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        long firstId = objectMapper.readTree(created.getResponse().getContentAsString()).get("id").asLong();
+
+        mockMvc.perform(delete("/api/cupons/" + firstId))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(post("/api/cupons")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id", not((int) firstId)));
+
+        mockMvc.perform(post("/api/cupons")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isConflict());
+
+        mockMvc.perform(get("/api/cupons/code/REU123"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted", is(false)));
+        assertThat(cupomRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    void testCreateCuponsInBatch() throws Exception {
+        Cupom existente = new Cupom();
+        existente.setCode("EXI123");
+        existente.setDescription("Cupom existente");
+        existente.setDiscountValue(BigDecimal.valueOf(10.00));
+        existente.setExpirationDate(LocalDate.now().plusDays(30));
+        cupomRepository.save(existente);
+
+        List<CupomRequest> cupons = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            CupomRequest request = new CupomRequest();
+            request.setCode(String.format("LOT%03d", i));
+            request.setDescription("Cupom de campanha " + i);
+            request.setDiscountValue(BigDecimal.valueOf(5.00));
+            request.setExpirationDate(LocalDate.now().plusDays(30));
+            cupons.add(request);
+        }
+        CupomRequest duplicado = new CupomRequest();
+        duplicado.setCode("EXI-123");
+        duplicado.setDescription("Duplicado");
+        duplicado.setDiscountValue(BigDecimal.valueOf(5.00));
+        duplicado.setExpirationDate(LocalDate.now().plusDays(30));
+        cupons.add(duplicado);
+        CupomRequest invalido = new CupomRequest();
+        invalido.setCode("INV123");
+        invalido.setDescription("");
+        invalido.setDiscountValue(BigDecimal.valueOf(5.00));
+        invalido.setExpirationDate(LocalDate.now().plusDays(30));
+        cupons.add(invalido);
+
+        mockMvc.perform(post("/api/cupons/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CupomBatchRequest(cupons))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total", is(122)))
+                .andExpect(jsonPath("$.created", is(120)))
+                .andExpect(jsonPath("$.failed", is(2)))
+                .andExpect(jsonPath("$.results[0].status", is("CREATED")))
+                .andExpect(jsonPath("$.results[0].id", notNullValue()))
+                .andExpect(jsonPath("$.results[120].status", is("DUPLICATE")))
+                .andExpect(jsonPath("$.results[121].status", is("INVALID")));
+
+        assertThat(cupomRepository.count()).isEqualTo(121);
+        mockMvc.perform(get("/api/cupons/code/LOT119"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testGetCuponsByCodes() throws Exception {
+        Cupom cupom = new Cupom();
+        cupom.setCode("CAR123");
+        cupom.setDescription("Cupom do carrinho");
+        cupom.setDiscountValue(BigDecimal.valueOf(10.00));
+        cupom.setExpirationDate(LocalDate.now().plusDays(30));
+        cupomRepository.save(cupom);
+
+        mockMvc.perform(post("/api/cupons/code/lookup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                            new CupomCodeLookupRequest(List.of("car-123", "XYZ999", "ab")))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total", is(3)))
+                .andExpect(jsonPath("$.found", is(1)))
+                .andExpect(jsonPath("$.results[0].status", is("FOUND")))
+                .andExpect(jsonPath("$.results[0].cupom.code", is("CAR123")))
+                .andExpect(jsonPath("$.results[1].status", is("NOT_FOUND")))
+                .andExpect(jsonPath("$.results[2].status", is("INVALID")));
+    }
+
+    @Test
+    void testGetCuponsByCodesEmpty() throws Exception {
+        mockMvc.perform(post("/api/cupons/code/lookup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CupomCodeLookupRequest(new ArrayList<>()))))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testCreateCuponsInBatchEmpty() throws Exception {
+        mockMvc.perform(post("/api/cupons/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CupomBatchRequest(new ArrayList<>()))))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void testCreateCupomWithPastExpirationDate() throws Exception {
         CupomRequest request = new CupomRequest();
@@ -210,6 +569,109 @@ class CupomControllerIntegrationTest {
                 .andExpect(jsonPath("$.message", containsString("Cupom não encontrado")));
     }
 
+    @Test
+    void testGetCupomByCodeAfterNegativeLookupAndCreate() throws Exception {
+        mockMvc.perform(get("/api/cupons/code/NEW123"))
+                .andExpect(status().isNotFound());
+
+        CupomRequest request = new CupomRequest();
+        request.setCode("NEW123");
+        request.setDescription("Cupom criado após busca negativa");
+        request.setDiscountValue(BigDecimal.valueOf(10.00));
+        request.setExpirationDate(LocalDate.now().plusDays(30));
+
+        mockMvc.perform(post("/api/cupons")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/cupons/code/NEW123"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.code", is("NEW123")));
+
+        mockMvc.perform(get("/api/cupons/cache/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.missCount", greaterThanOrEqualTo(2)));
+    }
+
+    @Test
+    void testRedeemCupomUntilLimitAndFlush() throws Exception {
+        Cupom cupom = new Cupom();
+        cupom.setCode("RES123");
+        cupom.setDescription("Cupom com limite");
+        cupom.setDiscountValue(BigDecimal.valueOf(10.00));
+        cupom.setExpirationDate(LocalDate.now().plusDays(30));
+        cupom.setPublished(true);
+        cupom.setMaxUses(2);
+        cupom = cupomRepository.save(cupom);
+
+        for (String pedido : List.of("PEDIDO-1", "PEDIDO-2")) {
+            mockMvc.perform(post("/api/cupons/code/RES123/redeem")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(new CupomRedemptionRequest(pedido))))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.orderId", is(pedido)));
+        }
+
+        mockMvc.perform(post("/api/cupons/code/RES123/redeem")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CupomRedemptionRequest("PEDIDO-3"))))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error", is("Usage Limit Reached")));
+
+        cupomRedemptionService.flush();
+
+        assertThat(cupomRepository.findById(cupom.getId()).orElseThrow().getUsedCount()).isEqualTo(2L);
+        assertThat(cupomRedemptionRepository.countByCupomId(cupom.getId())).isEqualTo(2L);
+    }
+
+    @Test
+    void testRedeemUnpublishedCupom() throws Exception {
+        Cupom cupom = new Cupom();
+        cupom.setCode("UNP123");
+        cupom.setDescription("Cupom não publicado");
+        cupom.setDiscountValue(BigDecimal.valueOf(10.00));
+        cupom.setExpirationDate(LocalDate.now().plusDays(30));
+        cupom.setPublished(false);
+        cupomRepository.save(cupom);
+
+        mockMvc.perform(post("/api/cupons/code/UNP123/redeem")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CupomRedemptionRequest("PEDIDO-1"))))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testActuatorHealth() throws Exception {
+        mockMvc.perform(get("/actuator/health"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status", is("UP")));
+    }
+
+    @Test
+    void testServiceMetricsTaggedByResult() throws Exception {
+        Cupom cupom = new Cupom();
+        cupom.setCode("MET123");
+        cupom.setDescription("Cupom de métricas");
+        cupom.setDiscountValue(BigDecimal.valueOf(10.00));
+        cupom.setExpirationDate(LocalDate.now().plusDays(30));
+        cupom.setPublished(true);
+        cupomRepository.save(cupom);
+
+        mockMvc.perform(get("/api/cupons/code/MET123")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/cupons/code/NOT404")).andExpect(status().isNotFound());
+
+        assertThat(meterRegistry.get(CupomServiceMetricsAspect.TIMER_NAME)
+                .tags("method", "getCupomByCode", "result", "success").timer().count()).isPositive();
+        assertThat(meterRegistry.get(CupomServiceMetricsAspect.TIMER_NAME)
+                .tags("method", "getCupomByCode", "result", "not-found").timer().count()).isPositive();
+        // Reconciliação (setUp) e listeners rodam fora da API: sem timer
+        assertThat(meterRegistry.find(CupomServiceMetricsAspect.TIMER_NAME)
+                .tag("service", "PublishedCupomSnapshotService").timers()).isEmpty();
+        assertThat(meterRegistry.get(CupomStateGauges.GAUGE_NAME).tag("state", "published").gauge())
+                .isNotNull();
+    }
+
     @Test
     void testDeleteCupom() throws Exception {
         Cupom cupom = new Cupom();
@@ -259,6 +721,340 @@ class CupomControllerIntegrationTest {
                 .andExpect(jsonPath("$", hasSize(3)));
     }
 
+    @Test
+    void testGetAllCuponsPaginatedByCursor() throws Exception {
+        Cupom cupom1 = new Cupom();
+        cupom1.setCode("ABC123");
+        cupom1.setDescription("Cupom 1");
+        cupom1.setDiscountValue(BigDecimal.valueOf(10.00));
+        cupom1.setExpirationDate(LocalDate.now().plusDays(30));
+        cupom1 = cupomRepository.save(cupom1);
+
+        Cupom cupom2 = new Cupom();
+        cupom2.setCode("DEF456");
+        cupom2.setDescription("Cupom 2");
+        cupom2.setDiscountValue(BigDecimal.valueOf(20.00));
+        cupom2.setExpirationDate(LocalDate.now().plusDays(60));
+        cupom2 = cupomRepository.save(cupom2);
+
+        mockMvc.perform(get("/api/cupons").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(CupomController.NEXT_CURSOR_HEADER, cupom1.getId().toString()))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].code", is("ABC123")));
+
+        mockMvc.perform(get("/api/cupons").param("limit", "1").param("after", cupom1.getId().toString()))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(CupomController.NEXT_CURSOR_HEADER))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(cupom2.getId().intValue())));
+    }
+
+    @Test
+    void testGetAllCuponsWithInvalidLimit() throws Exception {
+        mockMvc.perform(get("/api/cupons").param("limit", "0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", containsString("limit")));
+    }
+
+    @Test
+    void testStreamActiveCuponsAsNdjson() throws Exception {
+        Cupom cupom1 = new Cupom();
+        cupom1.setCode("ABC123");
+        cupom1.setDescription("Cupom 1");
+        cupom1.setDiscountValue(BigDecimal.valueOf(10.00));
+        cupom1.setExpirationDate(LocalDate.now().plusDays(30));
+        cupomRepository.save(cupom1);
+
+        Cupom cupom2 = new Cupom();
+        cupom2.setCode("DEF456");
+        cupom2.setDescription("Cupom 2");
+        cupom2.setDiscountValue(BigDecimal.valueOf(20.00));
+        cupom2.setExpirationDate(LocalDate.now().plusDays(60));
+        cupom2.setDeleted(true);
+        cupomRepository.save(cupom2);
+
+        MvcResult result = mockMvc.perform(get("/api/cupons/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(CupomController.NDJSON_MEDIA_TYPE));
+
+        String[] linhas = result.getResponse().getContentAsString().split("\n");
+        assertThat(linhas).hasSize(1);
+        assertThat(linhas[0]).contains("\"code\":\"ABC123\"");
+    }
+
+    @Test
+    void testSearchCuponsWithFiltersSortAndCursor() throws Exception {
+        String[][] dados = {
+            {"NATAL1", "Natal em família", "10.00", "true"},
+            {"NATAL2", "Ceia de NATAL", "25.00", "true"},
+            {"NATAL3", "Natal antecipado", "15.00", "false"},
+            {"PASCOA", "Páscoa natalina", "30.00", "true"},
+        };
+        for (String[] d : dados) {
+            Cupom cupom = new Cupom();
+            cupom.setCode(d[0]);
+            cupom.setDescription(d[1]);
+            cupom.setDiscountValue(new BigDecimal(d[2]));
+            cupom.setExpirationDate(LocalDate.now().plusDays(30));
+            cupom.setPublished(Boolean.parseBoolean(d[3]));
+            cupomRepository.save(cupom);
+        }
+        // Inseridos direto no repositório, fora do CupomService: recarrega o índice de descrições
+        cupomDescriptionIndexLoader.rebuild();
+
+        MvcResult primeira = mockMvc.perform(get("/api/cupons/search")
+                .param("codePrefix", "natal")
+                .param("sort", "discountValue,desc")
+                .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].code", contains("NATAL2", "NATAL3")))
+                .andExpect(header().exists(CupomController.NEXT_CURSOR_HEADER))
+                .andReturn();
+
+        mockMvc.perform(get("/api/cupons/search")
+                .param("codePrefix", "natal")
+                .param("sort", "discountValue,desc")
+                .param("limit", "2")
+                .param("after", primeira.getResponse().getHeader(CupomController.NEXT_CURSOR_HEADER)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].code", contains("NATAL1")))
+                .andExpect(header().doesNotExist(CupomController.NEXT_CURSOR_HEADER));
+
+        mockMvc.perform(get("/api/cupons/search")
+                .param("q", "NATAL")
+                .param("published", "true")
+                .param("minDiscount", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].code", contains("NATAL2", "PASCOA")));
+
+        mockMvc.perform(get("/api/cupons/search").param("sort", "description"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", containsString("Ordenação")));
+
+        mockMvc.perform(get("/api/cupons/search").param("codePrefix", "NA%"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testPublishedSnapshotFollowsPublishAndUnpublish() throws Exception {
+        CupomRequest request = new CupomRequest();
+        request.setCode("CHK001");
+        request.setDescription("Cupom do checkout");
+        request.setDiscountValue(BigDecimal.valueOf(5.00));
+        request.setExpirationDate(LocalDate.now().plusDays(30));
+        request.setPublished(false);
+
+        MvcResult criado = mockMvc.perform(post("/api/cupons")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        long id = objectMapper.readTree(criado.getResponse().getContentAsString()).get("id").asLong();
+        assertThat(publishedCupomSnapshot.find("CHK001", LocalDate.now())).isEmpty();
+
+        mockMvc.perform(post("/api/cupons/" + id + "/publish"))
+                .andExpect(status().isOk());
+        assertThat(publishedCupomSnapshot.find("CHK001", LocalDate.now()))
+                .hasValueSatisfying(cupom -> assertThat(cupom.getId()).isEqualTo(id));
+
+        mockMvc.perform(post("/api/cupons/" + id + "/unpublish"))
+                .andExpect(status().isOk());
+        assertThat(publishedCupomSnapshot.find("CHK001", LocalDate.now())).isEmpty();
+    }
+
+    @Test
+    void testSearchByDescriptionSameResultWithAndWithoutIndex() {
+        String[] descricoes = {
+            "Frete grátis em São Paulo",
+            "e-mail marketing: 10%OFF",
+            "Oferta™especial de Natal",
+            "Natal\tem família",
+            "ÉPOCA de PRÊMIOS (ação)",
+            "Ação «relâmpago»—hoje",
+        };
+        for (int i = 0; i < descricoes.length; i++) {
+            Cupom cupom = new Cupom();
+            cupom.setCode("DESC0" + i);
+            cupom.setDescription(descricoes[i]);
+            cupom.setDiscountValue(BigDecimal.TEN);
+            cupom.setExpirationDate(LocalDate.now().plusDays(30));
+            cupomRepository.save(cupom);
+        }
+        cupomDescriptionIndexLoader.rebuild();
+
+        String[] consultas = {"gratis", "são paulo", "mail", "off", "10", "oferta", "especial", "natal", "em",
+            "familia", "premios", "época prêmios", "acao", "relampago", "hoje"};
+        for (String consulta : consultas) {
+            Specification<Cupom> spec = Specification.where(CupomSpecifications.notDeleted())
+                    .and(CupomSpecifications.descriptionMatches(consulta));
+            List<Long> peloSql = cupomRepository.search(spec, CupomSearchSort.ID, false, 100, LocalDate.now())
+                    .stream().map(CupomResponse::getId).toList();
+
+            assertThat(cupomDescriptionIndex.search(consulta, 0L, 100)).as("consulta: %s", consulta)
+                    .containsExactlyElementsOf(peloSql);
+        }
+    }
+
+    @Test
+    void testSearchByDescriptionFollowsCreateUpdateAndDelete() throws Exception {
+        CupomRequest request = new CupomRequest();
+        request.setCode("INV001");
+        request.setDescription("Liquidação de inverno");
+        request.setDiscountValue(BigDecimal.valueOf(15.00));
+        request.setExpirationDate(LocalDate.now().plusDays(30));
+
+        MvcResult criado = mockMvc.perform(post("/api/cupons")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        long id = objectMapper.readTree(criado.getResponse().getContentAsString()).get("id").asLong();
+
+        mockMvc.perform(get("/api/cupons/search").param("q", "liquidacao inverno"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].code", contains("INV001")));
+        // Mesma regra com e sem o índice: trecho no meio da palavra não casa
+        mockMvc.perform(get("/api/cupons/search").param("q", "quidação"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", is(empty())));
+
+        request.setDescription("Liquidação de verão");
+        mockMvc.perform(put("/api/cupons/" + id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/cupons/search").param("q", "inverno"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", is(empty())));
+        mockMvc.perform(get("/api/cupons/search").param("q", "verão"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].code", contains("INV001")));
+
+        mockMvc.perform(delete("/api/cupons/" + id))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/cupons/search").param("q", "verao"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", is(empty())));
+    }
+
+    @Test
+    void testBulkPublishAndDeleteWithProgress() throws Exception {
+        List<Cupom> cupons = new ArrayList<>();
+        for (String code : List.of("PROMO1", "PROMO2", "PROMO3", "OUTRO1")) {
+            Cupom cupom = new Cupom();
+            cupom.setCode(code);
+            cupom.setDescription("Campanha " + code);
+            cupom.setDiscountValue(BigDecimal.valueOf(10.00));
+            cupom.setExpirationDate(LocalDate.now().plusDays(30));
+            cupons.add(cupomRepository.save(cupom));
+        }
+
+        String[] publicacao = bulk("publish", CupomBulkRequest.builder().codePrefix("promo").build());
+        assertThat(publicacao[publicacao.length - 1])
+                .contains("\"action\":\"PUBLISH\"", "\"updated\":3", "\"done\":true");
+        assertThat(cupomRepository.findPublishedActiveResponses(LocalDate.now()))
+                .extracting(CupomResponse::getCode)
+                .containsExactlyInAnyOrder("PROMO1", "PROMO2", "PROMO3");
+
+        CupomBulkRequest porIds = CupomBulkRequest.builder()
+                .ids(List.of(cupons.get(0).getId(), cupons.get(3).getId(), 999_999L))
+                .build();
+        String[] remocao = bulk("delete", porIds);
+        assertThat(remocao[remocao.length - 1]).contains("\"updated\":2", "\"done\":true");
+
+        mockMvc.perform(get("/api/cupons/" + cupons.get(0).getId()))
+                .andExpect(jsonPath("$.deleted").value(true))
+                .andExpect(jsonPath("$.version").value(2));
+
+        // Já no estado de destino: nada é regravado
+        String[] repeticao = bulk("publish", CupomBulkRequest.builder().codePrefix("PROMO").build());
+        assertThat(repeticao[repeticao.length - 1]).contains("\"updated\":0", "\"done\":true");
+    }
+
+    @Test
+    void testBulkWithoutCriteria() throws Exception {
+        mockMvc.perform(post("/api/cupons/bulk/delete")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", containsString("critério")));
+    }
+
+    private String[] bulk(String action, CupomBulkRequest request) throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/cupons/bulk/" + action)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(CupomController.NDJSON_MEDIA_TYPE));
+
+        return result.getResponse().getContentAsString().split("\n");
+    }
+
+    @Test
+    void testGenerateCuponsWithProgress() throws Exception {
+        Cupom existente = new Cupom();
+        existente.setCode("ABC123");
+        existente.setDescription("Cupom existente");
+        existente.setDiscountValue(BigDecimal.valueOf(10.00));
+        existente.setExpirationDate(LocalDate.now().plusDays(30));
+        cupomRepository.save(existente);
+
+        CupomGenerateRequest request = CupomGenerateRequest.builder()
+                .count(3)
+                .description("Campanha gerada")
+                .discountValue(BigDecimal.valueOf(15.00))
+                .expirationDate(LocalDate.now().plusDays(30))
+                .published(true)
+                .build();
+        MvcResult result = mockMvc.perform(post("/api/cupons/generate")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(CupomController.NDJSON_MEDIA_TYPE));
+
+        String[] lines = result.getResponse().getContentAsString().split("\n");
+        assertThat(lines[lines.length - 1]).contains("\"created\":3", "\"done\":true", "\"createdPerSecond\"");
+        List<String> codes = new ArrayList<>();
+        objectMapper.readTree(lines[0]).get("codes").forEach(code -> codes.add(code.asText()));
+        assertThat(codes).hasSize(3).doesNotHaveDuplicates().doesNotContain("ABC123");
+
+        mockMvc.perform(get("/api/cupons/code/" + codes.get(0)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.description", is("Campanha gerada")))
+                .andExpect(jsonPath("$.published", is(true)));
+        assertThat(cupomRepository.count()).isEqualTo(4);
+    }
+
+    @Test
+    void testGenerateCuponsAboveMaximum() throws Exception {
+        CupomGenerateRequest request = CupomGenerateRequest.builder()
+                .count(Integer.MAX_VALUE)
+                .description("Campanha gerada")
+                .discountValue(BigDecimal.valueOf(15.00))
+                .expirationDate(LocalDate.now().plusDays(30))
+                .build();
+
+        mockMvc.perform(post("/api/cupons/generate")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", containsString("máximo")));
+    }
+
     @Test
     void testDeleteAlreadyDeletedCupom() throws Exception {
         Cupom cupom = new Cupom();
@@ -4,6 +4,8 @@ import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Random;
 
 import static org.assertj.core.api.Assertions.*;
 
@@ -81,6 +83,67 @@ class CupomEntityTest {
                 .hasMessageContaining("Código do cupom não pode ser vazio");
     }
 
+    @Test
+    void testNormalizeCodeAlreadyNormalizedReturnsSameInstance() {
+        String code = "ABC123";
+        assertThat(Cupom.normalizeCode(code)).isSameAs(code);
+    }
+
+    @Test
+    void testNormalizeCodeIgnoresNonAsciiLetters() {
+        assertThat(Cupom.normalizeCode("çãÁB-c1234")).isEqualTo("BC1234");
+    }
+
+    @Test
+    void testNormalizeCodeMatchesRegexImplementation() {
+        // Propriedade: mesma saída (ou mesma mensagem de erro) que a implementação original com regex
+        String alphabet = "abcxyzABCXYZ0189 -_@#!.çÁé\t\u00DF\uD83D\uDE00";
+        Random random = new Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            StringBuilder raw = new StringBuilder();
+            int length = 1 + random.nextInt(16);
+            for (int j = 0; j < length; j++) {
+                raw.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            assertNormalizesLikeRegex(raw.toString());
+        }
+    }
+
+    private static void assertNormalizesLikeRegex(String raw) {
+        String expected;
+        String expectedError;
+        try {
+            expected = regexNormalizeCode(raw);
+            expectedError = null;
+        } catch (IllegalArgumentException e) {
+            expected = null;
+            expectedError = e.getMessage();
+        }
+
+        if (expectedError == null) {
+            assertThat(Cupom.normalizeCode(raw)).as("entrada: %s", raw).isEqualTo(expected);
+        } else {
+            assertThatThrownBy(() -> Cupom.normalizeCode(raw))
+                    .as("entrada: %s", raw)
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage(expectedError);
+        }
+    }
+
+    /**
+     * Implementação original (regex) usada como referência
+     */
+    private static String regexNormalizeCode(String rawCode) {
+        String normalized = rawCode.replaceAll("[^a-zA-Z0-9]", "").toUpperCase();
+        if (normalized.length() < 6) {
+            throw new IllegalArgumentException(
+                "Código deve ter pelo menos 6 caracteres alfanuméricos após remover caracteres especiais. "
+                + "Código fornecido resulta em apenas " + normalized.length() + " caracteres."
+            );
+        }
+        return normalized.substring(0, 6);
+    }
+
     @Test
     void testValidateDiscountValue() {
         assertThatNoException().isThrownBy(() ->
@@ -100,6 +163,22 @@ class CupomEntityTest {
                 .hasMessageContaining("Valor de desconto deve ser no mínimo 0.5");
     }
 
+    @Test
+    void testValidateDiscountValueBelowMinBeforeRounding() {
+        // Comparado antes de qualquer arredondamento para centavos: 0.499 não vira 0.50
+        assertThatThrownBy(() -> Cupom.validateDiscountValue(new BigDecimal("0.499")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Valor fornecido: 0.499");
+    }
+
+    @Test
+    void testValidateDiscountCents() {
+        assertThatNoException().isThrownBy(() -> Cupom.validateDiscountCents(Cupom.MIN_DISCOUNT_CENTS));
+        assertThatThrownBy(() -> Cupom.validateDiscountCents(49))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Valor fornecido: 0.49");
+    }
+
     @Test
     void testValidateDiscountValueNull() {
         assertThatThrownBy(() -> Cupom.validateDiscountValue(null))
@@ -109,7 +188,7 @@ class CupomEntityTest {
 
     @Test
     void testValidateExpirationDatePast() {
-        assertThatThrownBy(() -> Cupom.validateExpirationDate(LocalDate.now().minusDays(1)))
+        assertThatThrownBy(() -> Cupom.validateExpirationDate(LocalDate.now().minusDays(1), LocalDate.now()))
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("Data de expiração não pode ser no passado");
     }
@@ -117,18 +196,18 @@ class CupomEntityTest {
     @Test
     void testValidateExpirationDateToday() {
         assertThatNoException().isThrownBy(() ->
-                Cupom.validateExpirationDate(LocalDate.now()));
+                Cupom.validateExpirationDate(LocalDate.now(), LocalDate.now()));
     }
 
     @Test
     void testValidateExpirationDateFuture() {
         assertThatNoException().isThrownBy(() ->
-                Cupom.validateExpirationDate(LocalDate.now().plusDays(30)));
+                Cupom.validateExpirationDate(LocalDate.now().plusDays(30), LocalDate.now()));
     }
 
     @Test
     void testValidateExpirationDateNull() {
-        assertThatThrownBy(() -> Cupom.validateExpirationDate(null))
+        assertThatThrownBy(() -> Cupom.validateExpirationDate(null, LocalDate.now()))
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("obrigatória");
     }
@@ -138,7 +217,7 @@ class CupomEntityTest {
         Cupom cupom = new Cupom();
         cupom.setExpirationDate(LocalDate.now().minusDays(1));
 
-        assertThat(cupom.isExpired()).isTrue();
+        assertThat(cupom.isExpired(LocalDate.now())).isTrue();
     }
 
     @Test
@@ -146,7 +225,7 @@ class CupomEntityTest {
         Cupom cupom = new Cupom();
         cupom.setExpirationDate(LocalDate.now().plusDays(1));
 
-        assertThat(cupom.isExpired()).isFalse();
+        assertThat(cupom.isExpired(LocalDate.now())).isFalse();
     }
 
     @Test
@@ -154,7 +233,7 @@ class CupomEntityTest {
         Cupom cupom = new Cupom();
         cupom.setExpirationDate(LocalDate.now());
 
-        assertThat(cupom.isExpired()).isFalse();
+        assertThat(cupom.isExpired(LocalDate.now())).isFalse();
     }
 
     @Test
@@ -167,7 +246,7 @@ class CupomEntityTest {
         cupom.setPublished(true);
         cupom.setDeleted(false);
 
-        assertThat(cupom.isActive()).isTrue();
+        assertThat(cupom.isActive(LocalDate.now())).isTrue();
     }
 
     @Test
@@ -180,7 +259,7 @@ class CupomEntityTest {
         cupom.setPublished(true);
         cupom.setDeleted(true);
 
-        assertThat(cupom.isActive()).isFalse();
+        assertThat(cupom.isActive(LocalDate.now())).isFalse();
     }
 
     @Test
@@ -193,7 +272,7 @@ class CupomEntityTest {
         cupom.setPublished(true);
         cupom.setDeleted(false);
 
-        assertThat(cupom.isActive()).isFalse();
+        assertThat(cupom.isActive(LocalDate.now())).isFalse();
     }
 
     @Test
@@ -206,7 +285,7 @@ class CupomEntityTest {
         cupom.setPublished(false);
         cupom.setDeleted(false);
 
-        cupom.softDelete();
+        cupom.softDelete(LocalDateTime.now());
 
         assertThat(cupom.getDeleted()).isTrue();
         assertThat(cupom.getDeletedAt()).isNotNull();
@@ -0,0 +1,75 @@
+package com.cupom.api.entity;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Testes unitários para a conversão entre decimal e centavos.
+ */
+class MoneyTest {
+
+    @Test
+    void testToCents() {
+        assertThat(Money.toCents(new BigDecimal("10.50"))).isEqualTo(1050L);
+        assertThat(Money.toCents(new BigDecimal("10.5"))).isEqualTo(1050L);
+        assertThat(Money.toCents(BigDecimal.TEN)).isEqualTo(1000L);
+        assertThat(Money.toCents(new BigDecimal("0.5"))).isEqualTo(50L);
+        assertThat(Money.toCents(new BigDecimal("1E+2"))).isEqualTo(10000L);
+    }
+
+    @Test
+    void testToCentsRoundsHalfUpLikeTheColumn() {
+        assertThat(Money.toCents(new BigDecimal("0.125"))).isEqualTo(13L);
+        assertThat(Money.toCents(new BigDecimal("0.124"))).isEqualTo(12L);
+        assertThat(Money.toCents(new BigDecimal("-0.125"))).isEqualTo(-13L);
+    }
+
+    @Test
+    void testToCentsWithRounding() {
+        assertThat(Money.toCents(new BigDecimal("0.499"), RoundingMode.FLOOR)).isEqualTo(49L);
+        assertThat(Money.toCents(new BigDecimal("0.5"), RoundingMode.FLOOR)).isEqualTo(50L);
+    }
+
+    @Test
+    void testToCentsOverflow() {
+        assertThatThrownBy(() -> Money.toCents(new BigDecimal("1E+30")))
+                .isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void testToBigDecimal() {
+        assertThat(Money.toBigDecimal(1050)).isEqualTo(new BigDecimal("10.50"));
+        assertThat(Money.toBigDecimal(5)).isEqualTo(new BigDecimal("0.05"));
+        assertThat(Money.toBigDecimal(0)).isEqualTo(new BigDecimal("0.00"));
+    }
+
+    @Test
+    void testRoundTripMatchesScale2Semantics() {
+        // Propriedade: ida e volta igual ao BigDecimal na escala 2 da coluna (valor e escala)
+        Random random = new Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            BigDecimal value = BigDecimal.valueOf(random.nextLong(100_000_000_000L), random.nextInt(5));
+            BigDecimal expected = value.setScale(2, RoundingMode.HALF_UP);
+
+            assertThat(Money.toBigDecimal(Money.toCents(value))).as("valor: %s", value).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void testMinCheckMatchesDecimalComparison() {
+        // Propriedade: centavos arredondados para baixo recusam exatamente os valores menores que 0.5
+        Random random = new Random(7);
+        for (int i = 0; i < 20_000; i++) {
+            BigDecimal value = BigDecimal.valueOf(random.nextLong(2_000), random.nextInt(5));
+
+            assertThat(Money.toCents(value, RoundingMode.FLOOR) < Cupom.MIN_DISCOUNT_CENTS)
+                    .as("valor: %s", value)
+                    .isEqualTo(value.compareTo(new BigDecimal("0.5")) < 0);
+        }
+    }
+}
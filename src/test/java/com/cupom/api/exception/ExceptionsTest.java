@@ -51,6 +51,16 @@ class ExceptionsTest {
         assertThat(exception.getMessage()).isEqualTo(message);
     }
 
+    @Test
+    @DisplayName("CupomUsageLimitReachedException - Deve criar exceção com mensagem")
+    void testCupomUsageLimitReachedException() {
+        String message = "Limite de resgates atingido";
+        CupomUsageLimitReachedException exception = new CupomUsageLimitReachedException(message);
+
+        assertThat(exception).isInstanceOf(RuntimeException.class);
+        assertThat(exception.getMessage()).isEqualTo(message);
+    }
+
     @Test
     @DisplayName("GlobalExceptionHandler - Deve tratar CupomNotFoundException")
     void testGlobalExceptionHandlerCupomNotFound() {
@@ -111,6 +121,36 @@ class ExceptionsTest {
         assertThat(response.getBody().getMessage()).isEqualTo("Código duplicado");
     }
 
+    @Test
+    @DisplayName("GlobalExceptionHandler - Deve tratar CupomPreconditionFailedException")
+    void testGlobalExceptionHandlerPreconditionFailed() {
+        GlobalExceptionHandler handler = new GlobalExceptionHandler();
+        CupomPreconditionFailedException exception = new CupomPreconditionFailedException("Versão diferente");
+
+        var response = handler.handlePreconditionFailed(exception);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.PRECONDITION_FAILED);
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().getStatus()).isEqualTo(412);
+        assertThat(response.getBody().getError()).isEqualTo("Precondition Failed");
+        assertThat(response.getBody().getMessage()).isEqualTo("Versão diferente");
+    }
+
+    @Test
+    @DisplayName("GlobalExceptionHandler - Deve tratar CupomUsageLimitReachedException")
+    void testGlobalExceptionHandlerUsageLimitReached() {
+        GlobalExceptionHandler handler = new GlobalExceptionHandler();
+        CupomUsageLimitReachedException exception = new CupomUsageLimitReachedException("Limite atingido");
+
+        var response = handler.handleUsageLimitReached(exception);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().getStatus()).isEqualTo(409);
+        assertThat(response.getBody().getError()).isEqualTo("Usage Limit Reached");
+        assertThat(response.getBody().getMessage()).isEqualTo("Limite atingido");
+    }
+
     @Test
     @DisplayName("GlobalExceptionHandler - Deve tratar exceções genéricas")
     void testGlobalExceptionHandlerGenericException() {
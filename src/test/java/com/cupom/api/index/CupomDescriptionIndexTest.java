@@ -0,0 +1,93 @@
+package com.cupom.api.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Testes do Índice de Descrições")
+class CupomDescriptionIndexTest {
+
+    private CupomDescriptionIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new CupomDescriptionIndex(true);
+        index.beginRebuild();
+        index.load(1L, "Natal em família");
+        index.load(2L, "Ceia de NATAL");
+        index.load(3L, "Páscoa natalina");
+        index.load(5L, "Black Friday: 50% em eletrônicos");
+        index.finishRebuild();
+    }
+
+    @Test
+    @DisplayName("Deve separar termos sem acentos, em minúsculas e descartar palavras de um caractere")
+    void deveNormalizarTermos() {
+        assertThat(CupomDescriptionIndex.tokenize("Páscoa: 10% OFF e frete grátis, páscoa!"))
+                .containsExactly("pascoa", "10", "off", "frete", "gratis");
+    }
+
+    @Test
+    @DisplayName("Deve separar palavras só onde o TRANSLATE do SQL põe espaço")
+    void deveSepararComoOSql() {
+        assertThat(CupomDescriptionIndex.tokenize("e-mail «relâmpago»—hoje Oferta™especial"))
+                .containsExactly("mail", "relampago", "hoje", "oferta™especial");
+    }
+
+    @Test
+    @DisplayName("Deve casar cada palavra como início de termo e combinar as palavras com E")
+    void deveBuscarPorPrefixoCombinandoPalavras() {
+        assertThat(index.search("NATAL", 0L, 10)).containsExactly(1L, 2L, 3L);
+        assertThat(index.search("pascoa nata", 0L, 10)).containsExactly(3L);
+        assertThat(index.search("natal ceia", 0L, 10)).containsExactly(2L);
+        assertThat(index.search("natal friday", 0L, 10)).isEmpty();
+        assertThat(index.search("inexistente", 0L, 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Deve paginar pelo último ID recebido")
+    void devePaginarPorId() {
+        assertThat(index.search("natal", 0L, 2)).containsExactly(1L, 2L);
+        assertThat(index.search("natal", 2L, 2)).containsExactly(3L);
+    }
+
+    @Test
+    @DisplayName("Deve refletir criação, edição e deleção fora de transação")
+    void deveAplicarAlteracoes() {
+        index.add(4L, "Natal corporativo");
+        index.update(1L, "Natal em família", "Réveillon em família");
+        index.remove(2L, "Ceia de NATAL");
+
+        assertThat(index.search("natal", 0L, 10)).containsExactly(3L, 4L);
+        assertThat(index.search("familia", 0L, 10)).containsExactly(1L);
+    }
+
+    @Test
+    @DisplayName("Alteração durante a reconstrução não deve ser sobrescrita pela carga da tabela")
+    void deveManterAlteracaoFeitaDuranteReconstrucao() {
+        index.beginRebuild();
+        index.update(1L, "Natal em família", "Réveillon em família");
+        // Leitura da tabela anterior à edição
+        index.load(1L, "Natal em família");
+        index.load(3L, "Páscoa natalina");
+
+        assertThat(index.search("reveillon", 0L, 10)).containsExactly(1L);
+
+        index.finishRebuild();
+
+        assertThat(index.search("natal", 0L, 10)).containsExactly(3L);
+        assertThat(index.search("reveillon", 0L, 10)).containsExactly(1L);
+    }
+
+    @Test
+    @DisplayName("Índice desabilitado não deve ficar pronto nem indexar")
+    void indiceDesabilitadoNaoIndexa() {
+        CupomDescriptionIndex disabled = new CupomDescriptionIndex(false);
+        disabled.add(1L, "Natal em família");
+
+        assertThat(disabled.isReady()).isFalse();
+        assertThat(disabled.search("natal", 0L, 10)).isEmpty();
+    }
+}
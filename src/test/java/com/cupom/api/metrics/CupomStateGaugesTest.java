@@ -0,0 +1,91 @@
+package com.cupom.api.metrics;
+
+import com.cupom.api.exception.CupomNotFoundException;
+import com.cupom.api.exception.CupomPreconditionFailedException;
+import com.cupom.api.exception.DuplicateCupomCodeException;
+import com.cupom.api.exception.InvalidCupomException;
+import com.cupom.api.repository.CupomRepository;
+import com.cupom.api.repository.projection.CupomStateCounts;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Testes das Métricas de Cupons")
+class CupomStateGaugesTest {
+
+    private static final LocalDate HOJE = LocalDate.of(2025, 6, 1);
+
+    @Mock
+    private CupomRepository cupomRepository;
+
+    @Test
+    @DisplayName("Deve publicar gauges por estado com uma consulta agregada reaproveitada")
+    void devePublicarGaugesPorEstado() {
+        when(cupomRepository.countByState(any())).thenReturn(counts(7L, 3L, 2L));
+        MeterRegistry registry = new SimpleMeterRegistry();
+        new CupomStateGauges(cupomRepository, relogio(), Duration.ofMinutes(1)).bindTo(registry);
+
+        assertThat(registry.get(CupomStateGauges.GAUGE_NAME).tag("state", "active").gauge().value()).isEqualTo(7);
+        assertThat(registry.get(CupomStateGauges.GAUGE_NAME).tag("state", "published").gauge().value()).isEqualTo(3);
+        assertThat(registry.get(CupomStateGauges.GAUGE_NAME).tag("state", "expired").gauge().value()).isEqualTo(2);
+
+        verify(cupomRepository, times(1)).countByState(HOJE);
+    }
+
+    @Test
+    @DisplayName("Deve tratar tabela vazia como zero")
+    void deveTratarTabelaVaziaComoZero() {
+        when(cupomRepository.countByState(any())).thenReturn(counts(null, null, null));
+        MeterRegistry registry = new SimpleMeterRegistry();
+        new CupomStateGauges(cupomRepository, relogio(), Duration.ofMinutes(1)).bindTo(registry);
+
+        assertThat(registry.get(CupomStateGauges.GAUGE_NAME).tag("state", "active").gauge().value()).isZero();
+    }
+
+    @Test
+    @DisplayName("Deve classificar desfechos das operações pelo tipo de exceção")
+    void deveClassificarDesfechos() {
+        assertThat(CupomServiceMetricsAspect.resultOf(new CupomNotFoundException("x"))).isEqualTo("not-found");
+        assertThat(CupomServiceMetricsAspect.resultOf(new DuplicateCupomCodeException("x"))).isEqualTo("duplicate");
+        assertThat(CupomServiceMetricsAspect.resultOf(new InvalidCupomException("x"))).isEqualTo("invalid");
+        assertThat(CupomServiceMetricsAspect.resultOf(new CupomPreconditionFailedException("x"))).isEqualTo("conflict");
+        assertThat(CupomServiceMetricsAspect.resultOf(new IllegalStateException("x"))).isEqualTo("error");
+    }
+
+    private static Clock relogio() {
+        return Clock.fixed(HOJE.atStartOfDay(ZoneOffset.UTC).toInstant(), ZoneOffset.UTC);
+    }
+
+    private static CupomStateCounts counts(Long active, Long published, Long expired) {
+        return new CupomStateCounts() {
+            @Override
+            public Long getActive() {
+                return active;
+            }
+
+            @Override
+            public Long getPublished() {
+                return published;
+            }
+
+            @Override
+            public Long getExpired() {
+                return expired;
+            }
+        };
+    }
+}
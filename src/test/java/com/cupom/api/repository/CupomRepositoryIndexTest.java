@@ -0,0 +1,137 @@
+package com.cupom.api.repository;
+
+import com.cupom.api.entity.Cupom;
+import com.cupom.api.repository.specification.CupomSearchSort;
+import com.cupom.api.repository.specification.CupomSpecifications;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCallback;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Garante que as consultas do {@link CupomRepository} usam os índices criados pelas migrações.
+ * Cada teste executa o método do repositório, captura o SQL gerado pelo Hibernate ({@link SqlCapture}) e
+ * lê o plano dele via EXPLAIN do H2. Os parâmetros vão nulos: o H2 escolhe o plano ao preparar o comando,
+ * antes dos valores.
+ */
+@SpringBootTest(properties =
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.cupom.api.repository.CupomRepositoryIndexTest$SqlCapture")
+@ActiveProfiles("test")
+class CupomRepositoryIndexTest {
+
+    private static final LocalDate HOJE = LocalDate.of(2030, 1, 1);
+
+    @Autowired
+    private CupomRepository cupomRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        SqlCapture.STATEMENTS.clear();
+    }
+
+    @Test
+    @DisplayName("Busca de publicados e ativos deve usar o índice (published, deleted)")
+    void publishedAndActiveShouldUsePublishedIndex() {
+        cupomRepository.findPublishedActiveResponses(HOJE);
+
+        assertThat(explainLastStatement()).containsIgnoringCase("IDX_CUPONS_PUBLISHED_ACTIVE");
+    }
+
+    @Test
+    @DisplayName("Busca por faixa de expiração ordenada por expiração deve usar o índice de expiração")
+    void expirationRangeSearchShouldUseExpirationIndex() {
+        cupomRepository.search(notDeleted().and(CupomSpecifications.expirationBetween(HOJE, HOJE.plusDays(30))),
+            CupomSearchSort.EXPIRATION_DATE, false, 101, HOJE);
+
+        assertThat(explainLastStatement()).containsIgnoringCase("IDX_CUPONS_EXPIRATION_ACTIVE");
+    }
+
+    @Test
+    @DisplayName("Listagem por cursor deve continuar usando a chave primária (sem ordenação)")
+    void keysetPageShouldUsePrimaryKey() {
+        cupomRepository.findActiveResponsesAfter(0L, HOJE, PageRequest.of(0, 101));
+
+        assertThat(explainLastStatement()).containsIgnoringCase("PRIMARY_KEY").containsIgnoringCase("index sorted");
+    }
+
+    @Test
+    @DisplayName("Busca por código deve usar o índice do código")
+    void findByCodeShouldUseCodeIndex() {
+        cupomRepository.findActiveResponseByCode("ABC123", HOJE);
+
+        assertThat(explainLastStatement()).containsIgnoringCase("IDX_CUPONS_CODE");
+    }
+
+    @Test
+    @DisplayName("Busca por faixa de desconto ordenada por desconto deve usar o índice de desconto")
+    void discountRangeSearchShouldUseDiscountIndex() {
+        Specification<Cupom> spec = CupomSpecifications.discountBetween(BigDecimal.TEN, BigDecimal.valueOf(20));
+        cupomRepository.search(notDeleted().and(spec), CupomSearchSort.DISCOUNT_VALUE, false, 101, HOJE);
+
+        assertThat(explainLastStatement()).containsIgnoringCase("IDX_CUPONS_DISCOUNT_ACTIVE");
+    }
+
+    @Test
+    @DisplayName("Busca por prefixo de código deve usar o índice de código")
+    void codePrefixSearchShouldUseCodeIndex() {
+        cupomRepository.search(notDeleted().and(CupomSpecifications.codeStartsWith("ab")),
+            CupomSearchSort.ID, false, 101, HOJE);
+
+        assertThat(explainLastStatement()).containsIgnoringCase("IDX_CUPONS_CODE");
+    }
+
+    private static Specification<Cupom> notDeleted() {
+        return Specification.where(CupomSpecifications.notDeleted());
+    }
+
+    /**
+     * Plano do último SQL executado pelo Hibernate, com os parâmetros nulos
+     */
+    private String explainLastStatement() {
+        assertThat(SqlCapture.STATEMENTS).isNotEmpty();
+        String sql = SqlCapture.STATEMENTS.get(SqlCapture.STATEMENTS.size() - 1);
+        return jdbcTemplate.execute("EXPLAIN " + sql, (PreparedStatementCallback<String>) ps -> {
+            int parameters = ps.getParameterMetaData().getParameterCount();
+            for (int i = 1; i <= parameters; i++) {
+                ps.setObject(i, null);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return rs.getString(1);
+            }
+        });
+    }
+
+    /**
+     * Guarda o SQL de cada comando preparado pelo Hibernate (registrado nas propriedades do teste)
+     */
+    public static class SqlCapture implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
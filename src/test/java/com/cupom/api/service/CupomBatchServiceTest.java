@@ -0,0 +1,176 @@
+package com.cupom.api.service;
+
+import com.cupom.api.cache.CupomCodeCache;
+import com.cupom.api.dto.CupomBatchItemResult;
+import com.cupom.api.dto.CupomBatchResponse;
+import com.cupom.api.dto.CupomRequest;
+import com.cupom.api.entity.Cupom;
+import com.cupom.api.exception.InvalidCupomException;
+import com.cupom.api.index.CupomDescriptionIndex;
+import com.cupom.api.repository.CupomRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Testes do Serviço de Criação de Cupons em Lote")
+class CupomBatchServiceTest {
+
+    private static final LocalDate HOJE = LocalDate.of(2025, 6, 1);
+
+    private static jakarta.validation.ValidatorFactory validatorFactory;
+
+    @Mock
+    private CupomRepository cupomRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private CupomBatchService cupomBatchService;
+
+    @BeforeAll
+    static void setUpValidator() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+    }
+
+    @AfterAll
+    static void tearDownValidator() {
+        validatorFactory.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        Validator validator = validatorFactory.getValidator();
+        CupomCodeCache cache = new CupomCodeCache(100, Duration.ofMinutes(5), Duration.ofSeconds(30));
+        cupomBatchService = new CupomBatchService(cupomRepository, entityManager, validator, cache,
+            new CupomDescriptionIndex(true), event -> { },
+            Clock.fixed(HOJE.atStartOfDay(ZoneOffset.UTC).toInstant(), ZoneOffset.UTC));
+        ReflectionTestUtils.setField(cupomBatchService, "jdbcBatchSize", 2);
+        ReflectionTestUtils.setField(cupomBatchService, "maxBatchSize", 10);
+    }
+
+    @Test
+    @DisplayName("Deve criar itens válidos e reportar inválidos e duplicados por item")
+    void deveReportarResultadoPorItem() {
+        when(cupomRepository.findActiveCodes(anyCollection())).thenReturn(List.of("EXI123"));
+        AtomicLong ids = new AtomicLong(100);
+        when(cupomRepository.saveAll(anyCollection())).thenAnswer(invocation -> {
+            Collection<Cupom> cupons = invocation.getArgument(0);
+            cupons.forEach(cupom -> cupom.setId(ids.incrementAndGet()));
+            return new ArrayList<>(cupons);
+        });
+
+        CupomBatchResponse response = cupomBatchService.createCupons(Arrays.asList(
+            request("ABC-123", "10.00"),
+            request("abc123", "10.00"),
+            request("EXI123", "10.00"),
+            request("DEF456", "0.10"),
+            request("GHI789", "5.00"),
+            request("JKL012", "5.00")
+        ));
+
+        assertThat(response.getTotal()).isEqualTo(6);
+        assertThat(response.getCreated()).isEqualTo(3);
+        assertThat(response.getFailed()).isEqualTo(3);
+        assertThat(response.getResults()).extracting(CupomBatchItemResult::getStatus).containsExactly(
+            CupomBatchItemResult.Status.CREATED,
+            CupomBatchItemResult.Status.DUPLICATE,
+            CupomBatchItemResult.Status.DUPLICATE,
+            CupomBatchItemResult.Status.INVALID,
+            CupomBatchItemResult.Status.CREATED,
+            CupomBatchItemResult.Status.CREATED
+        );
+        assertThat(response.getResults().get(0).getId()).isEqualTo(101L);
+        assertThat(response.getResults().get(3).getMessage()).contains("0.5");
+
+        // Uma consulta de duplicidade e blocos de INSERT do tamanho do batch JDBC
+        verify(cupomRepository, times(1)).findActiveCodes(anyCollection());
+        verify(cupomRepository, times(2)).saveAll(anyCollection());
+        verify(entityManager, times(2)).flush();
+        verify(entityManager, times(2)).clear();
+    }
+
+    @Test
+    @DisplayName("Deve consultar duplicidade em blocos limitados")
+    void deveConsultarDuplicidadeEmBlocos() {
+        ReflectionTestUtils.setField(cupomBatchService, "maxBatchSize", 5000);
+        when(cupomRepository.findActiveCodes(anyCollection())).thenReturn(List.of());
+        List<CupomRequest> requests = new ArrayList<>();
+        for (int i = 0; i < CupomBatchService.LOOKUP_CHUNK_SIZE + 1; i++) {
+            requests.add(request(String.format("C%05d", i), "10.00"));
+        }
+
+        CupomBatchResponse response = cupomBatchService.createCupons(requests);
+
+        assertThat(response.getCreated()).isEqualTo(requests.size());
+        verify(cupomRepository, times(2)).findActiveCodes(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Deve lançar exceção quando o lote excede o tamanho máximo")
+    void deveLancarExcecaoLoteMuitoGrande() {
+        List<CupomRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 11; i++) {
+            requests.add(request(String.format("C%05d", i), "10.00"));
+        }
+
+        assertThatThrownBy(() -> cupomBatchService.createCupons(requests))
+                .isInstanceOf(InvalidCupomException.class)
+                .hasMessageContaining("máximo");
+
+        verify(cupomRepository, never()).saveAll(any());
+    }
+
+    @Test
+    @DisplayName("Deve validar a expiração pela data do relógio da aplicação")
+    void deveValidarExpiracaoPeloRelogio() {
+        when(cupomRepository.findActiveCodes(anyCollection())).thenReturn(List.of());
+        when(cupomRepository.saveAll(anyCollection())).thenAnswer(invocation -> new ArrayList<>(invocation.getArgument(0)));
+        CupomRequest vencido = request("VEN123", "10.00");
+        vencido.setExpirationDate(HOJE.minusDays(1));
+        CupomRequest venceHoje = request("HOJ123", "10.00");
+        venceHoje.setExpirationDate(HOJE);
+
+        CupomBatchResponse response = cupomBatchService.createCupons(List.of(vencido, venceHoje));
+
+        assertThat(response.getResults()).extracting(CupomBatchItemResult::getStatus).containsExactly(
+            CupomBatchItemResult.Status.INVALID,
+            CupomBatchItemResult.Status.CREATED
+        );
+    }
+
+    private static CupomRequest request(String code, String discountValue) {
+        return CupomRequest.builder()
+                .code(code)
+                .description("Cupom de campanha")
+                .discountValue(new BigDecimal(discountValue))
+                .expirationDate(LocalDate.now().plusDays(30))
+                .build();
+    }
+}
@@ -0,0 +1,133 @@
+package com.cupom.api.service;
+
+import com.cupom.api.cache.CupomCodeCache;
+import com.cupom.api.dto.CupomBulkProgress;
+import com.cupom.api.dto.CupomBulkRequest;
+import com.cupom.api.exception.InvalidCupomException;
+import com.cupom.api.index.CupomDescriptionIndex;
+import com.cupom.api.repository.CupomRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Testes do Serviço de Operações em Massa")
+class CupomBulkServiceTest {
+
+    private static final CupomBulkProgress.Action PUBLISH = CupomBulkProgress.Action.PUBLISH;
+
+    @Mock
+    private CupomRepository cupomRepository;
+
+    @Mock
+    private CupomCodeCache cupomCodeCache;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private CupomBulkService cupomBulkService;
+
+    @BeforeEach
+    void setUp() {
+        cupomBulkService = new CupomBulkService(cupomRepository, cupomCodeCache,
+            new CupomDescriptionIndex(false), transactionTemplate, event -> { }, Clock.systemDefaultZone());
+        ReflectionTestUtils.setField(cupomBulkService, "chunkSize", 2);
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    @DisplayName("Deve percorrer os cupons do filtro em blocos pela PK e informar o progresso de cada bloco")
+    void devePercorrerFiltroEmBlocos() {
+        CupomBulkRequest request = CupomBulkRequest.builder().codePrefix("PROMO").build();
+        when(cupomRepository.findBulkTargets(eq(PUBLISH), eq(request), isNull(), eq(0L), eq(2)))
+                .thenReturn(targets(1L, "PROMO1", 2L, "PROMO2"));
+        when(cupomRepository.findBulkTargets(eq(PUBLISH), eq(request), isNull(), eq(2L), eq(2)))
+                .thenReturn(targets(5L, "PROMO5"));
+        when(cupomRepository.bulkUpdate(eq(PUBLISH), anyCollection(), any(LocalDateTime.class)))
+                .thenReturn(2, 1);
+
+        List<CupomBulkProgress> progress = new ArrayList<>();
+        CupomBulkProgress result = cupomBulkService.execute(PUBLISH, request, progress::add);
+
+        assertThat(progress).extracting(CupomBulkProgress::getUpdated).containsExactly(2L, 3L, 3L);
+        assertThat(progress).extracting(CupomBulkProgress::getLastId).containsExactly(2L, 5L, 5L);
+        assertThat(result.isDone()).isTrue();
+        assertThat(result.getChunks()).isEqualTo(2);
+        verify(transactionTemplate, times(2)).execute(any());
+        verify(cupomCodeCache).invalidateAll(argThat(codes -> List.copyOf(codes).equals(List.of("PROMO1", "PROMO2"))));
+        verify(cupomCodeCache).invalidateAll(argThat(codes -> List.copyOf(codes).equals(List.of("PROMO5"))));
+    }
+
+    @Test
+    @DisplayName("Deve dividir a lista de IDs em blocos ordenados e sem repetição")
+    void deveDividirListaDeIds() {
+        CupomBulkRequest request = CupomBulkRequest.builder().ids(List.of(3L, 1L, 3L, 2L)).build();
+        when(cupomRepository.findBulkTargets(eq(PUBLISH), eq(request), anyCollection(), anyLong(), anyInt()))
+                .thenReturn(targets(1L, "AAA111", 2L, "BBB222"), targets());
+        when(cupomRepository.bulkUpdate(eq(PUBLISH), anyCollection(), any(LocalDateTime.class))).thenReturn(2);
+
+        CupomBulkProgress result = cupomBulkService.execute(PUBLISH, request, progress -> { });
+
+        verify(cupomRepository).findBulkTargets(PUBLISH, request, List.of(1L, 2L), 0L, 2);
+        verify(cupomRepository).findBulkTargets(PUBLISH, request, List.of(3L), 0L, 2);
+        verify(cupomRepository, times(1)).bulkUpdate(eq(PUBLISH), anyCollection(), any(LocalDateTime.class));
+        assertThat(result.getMatched()).isEqualTo(2);
+        assertThat(result.getLastId()).isEqualTo(3L);
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar operação sem IDs nem critérios")
+    void deveRejeitarSemCriterios() {
+        assertThatThrownBy(() -> cupomBulkService.execute(PUBLISH, new CupomBulkRequest(), progress -> { }))
+                .isInstanceOf(InvalidCupomException.class);
+
+        verifyNoInteractions(cupomRepository);
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar intervalo de expiração invertido")
+    void deveRejeitarIntervaloInvertido() {
+        CupomBulkRequest request = CupomBulkRequest.builder()
+                .expirationFrom(LocalDate.now().plusDays(10))
+                .expirationTo(LocalDate.now())
+                .build();
+
+        assertThatThrownBy(() -> cupomBulkService.validate(request))
+                .isInstanceOf(InvalidCupomException.class)
+                .hasMessageContaining("expirationFrom");
+    }
+
+    private static Map<Long, String> targets(Object... idsAndCodes) {
+        Map<Long, String> targets = new LinkedHashMap<>();
+        for (int i = 0; i < idsAndCodes.length; i += 2) {
+            targets.put((Long) idsAndCodes[i], (String) idsAndCodes[i + 1]);
+        }
+        return targets;
+    }
+}
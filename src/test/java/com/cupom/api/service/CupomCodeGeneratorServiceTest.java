@@ -0,0 +1,202 @@
+package com.cupom.api.service;
+
+import com.cupom.api.cache.CupomCodeCache;
+import com.cupom.api.cache.CupomCodeSpace;
+import com.cupom.api.dto.CupomGenerateProgress;
+import com.cupom.api.dto.CupomGenerateRequest;
+import com.cupom.api.entity.Cupom;
+import com.cupom.api.exception.InvalidCupomException;
+import com.cupom.api.index.CupomDescriptionIndex;
+import com.cupom.api.repository.CupomRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.random.RandomGenerator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Testes do Serviço de Geração de Códigos")
+class CupomCodeGeneratorServiceTest {
+
+    @Mock
+    private CupomRepository cupomRepository;
+
+    @Mock
+    private CupomCodeIndexService cupomCodeIndexService;
+
+    @Mock
+    private CupomCodeCache cupomCodeCache;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private CupomCodeSpace cupomCodeSpace;
+
+    private CupomCodeGeneratorService cupomCodeGeneratorService;
+
+    private final AtomicLong nextId = new AtomicLong();
+
+    @BeforeEach
+    void setUp() {
+        cupomCodeSpace = new CupomCodeSpace();
+        cupomCodeGeneratorService = new CupomCodeGeneratorService(cupomRepository, cupomCodeSpace,
+            cupomCodeIndexService, cupomCodeCache, new CupomDescriptionIndex(false), entityManager,
+            transactionTemplate, event -> { }, Clock.systemDefaultZone());
+        ReflectionTestUtils.setField(cupomCodeGeneratorService, "chunkSize", 2);
+        lenient().doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        lenient().when(cupomRepository.saveAll(anyIterable())).thenAnswer(invocation -> {
+            List<Cupom> cupons = invocation.getArgument(0);
+            cupons.forEach(cupom -> cupom.setId(nextId.incrementAndGet()));
+            return cupons;
+        });
+    }
+
+    @Test
+    @DisplayName("Deve gerar códigos únicos em blocos e informar os códigos e a vazão de cada bloco")
+    void deveGerarCodigosEmBlocos() {
+        List<CupomGenerateProgress> progress = new ArrayList<>();
+        CupomGenerateProgress result = cupomCodeGeneratorService.generate(request(5), progress::add);
+
+        assertThat(progress).extracting(CupomGenerateProgress::getCreated).containsExactly(2L, 4L, 5L, 5L);
+        assertThat(result.isDone()).isTrue();
+        assertThat(result.getChunks()).isEqualTo(3);
+        assertThat(result.getCodes()).isNull();
+        assertThat(result.getCreatedPerSecond()).isPositive();
+
+        List<String> codes = progress.stream()
+                .filter(line -> line.getCodes() != null)
+                .flatMap(line -> line.getCodes().stream())
+                .toList();
+        assertThat(codes).hasSize(5).doesNotHaveDuplicates().allMatch(code -> code.matches("[A-Z0-9]{6}"));
+        assertThat(codes).allMatch(cupomCodeSpace::isOccupied);
+
+        verify(cupomCodeIndexService).loadCodeSpace();
+        verify(cupomRepository, times(3)).saveAll(anyIterable());
+        verify(cupomRepository, never()).findActiveCodes(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Deve sortear de novo quando o código já está ocupado")
+    void deveSortearDeNovoCodigoOcupado() {
+        cupomCodeSpace.beginLoad();
+        cupomCodeSpace.load("ABC123");
+        cupomCodeSpace.finishLoad();
+        ReflectionTestUtils.setField(cupomCodeGeneratorService, "random", sequence("ABC123", "XYZ999"));
+
+        List<CupomGenerateProgress> progress = new ArrayList<>();
+        CupomGenerateProgress result = cupomCodeGeneratorService.generate(request(1), progress::add);
+
+        assertThat(progress.get(0).getCodes()).containsExactly("XYZ999");
+        assertThat(result.getCollisions()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Em conflito no índice único, deve trocar só os códigos já existentes e reenviar o bloco")
+    void deveTrocarCodigosEmConflito() {
+        ReflectionTestUtils.setField(cupomCodeGeneratorService, "random", sequence("AAA111", "BBB222", "CCC333"));
+        AtomicInteger attempts = new AtomicInteger();
+        doAnswer(invocation -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw integrityViolation(Cupom.ACTIVE_CODE_CONSTRAINT.toUpperCase());
+            }
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        // Criado por outra instância depois da carga do espaço de códigos
+        when(cupomRepository.findActiveCodes(anyCollection())).thenReturn(List.of("AAA111"));
+
+        List<CupomGenerateProgress> progress = new ArrayList<>();
+        CupomGenerateProgress result = cupomCodeGeneratorService.generate(request(2), progress::add);
+
+        assertThat(progress.get(0).getCodes()).containsExactly("CCC333", "BBB222");
+        assertThat(result.getRetries()).isEqualTo(1);
+        assertThat(result.getCreated()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar quantidade acima do máximo e dados inválidos antes de iniciar o job")
+    void deveRejeitarRequisicaoInvalida() {
+        ReflectionTestUtils.setField(cupomCodeGeneratorService, "maxCount", 10);
+
+        assertThatThrownBy(() -> cupomCodeGeneratorService.generate(request(11), progress -> { }))
+                .isInstanceOf(InvalidCupomException.class)
+                .hasMessageContaining("máximo de 10");
+
+        CupomGenerateRequest expirado = request(1);
+        expirado.setExpirationDate(LocalDate.now().minusDays(1));
+        assertThatThrownBy(() -> cupomCodeGeneratorService.generate(expirado, progress -> { }))
+                .isInstanceOf(InvalidCupomException.class);
+
+        verifyNoInteractions(cupomRepository, cupomCodeIndexService, transactionTemplate);
+    }
+
+    private static CupomGenerateRequest request(int count) {
+        return CupomGenerateRequest.builder()
+                .count(count)
+                .description("Campanha de lançamento")
+                .discountValue(BigDecimal.TEN)
+                .expirationDate(LocalDate.now().plusDays(30))
+                .build();
+    }
+
+    /**
+     * Sorteio determinístico: devolve os códigos informados, em ordem
+     */
+    private static RandomGenerator sequence(String... codes) {
+        Iterator<String> iterator = List.of(codes).iterator();
+        return new RandomGenerator() {
+            @Override
+            public long nextLong() {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public long nextLong(long bound) {
+                String code = iterator.next();
+                long packed = 0;
+                for (char c : code.toCharArray()) {
+                    packed = packed * 36 + Character.digit(c, 36);
+                }
+                return packed;
+            }
+        };
+    }
+
+    private static DataIntegrityViolationException integrityViolation(String constraintName) {
+        return new DataIntegrityViolationException("could not execute statement",
+            new ConstraintViolationException("Unique index or primary key violation",
+                new SQLException("Unique index or primary key violation", "23505"), constraintName));
+    }
+}
@@ -0,0 +1,60 @@
+package com.cupom.api.service;
+
+import com.cupom.api.cache.CupomCodeBloomFilter;
+import com.cupom.api.cache.CupomCodeIndex;
+import com.cupom.api.cache.CupomCodeSpace;
+import com.cupom.api.event.CupomChangedEvent;
+import com.cupom.api.repository.CupomRepository;
+import com.cupom.api.repository.projection.CupomCodeState;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Testes do Serviço do Índice de Códigos")
+class CupomCodeIndexServiceTest {
+
+    @Mock
+    private CupomRepository cupomRepository;
+
+    private final CupomCodeIndex cupomCodeIndex = new CupomCodeIndex(16);
+
+    private CupomCodeIndexService cupomCodeIndexService;
+
+    @BeforeEach
+    void setUp() {
+        cupomCodeIndexService = new CupomCodeIndexService(cupomRepository, cupomCodeIndex,
+            new CupomCodeBloomFilter(true, 1000, 0.01), new CupomCodeSpace());
+    }
+
+    @Test
+    @DisplayName("Não deve reler o banco para escritas que o entity listener já aplicou")
+    void naoDeveRelerEscritasViaJpa() {
+        cupomCodeIndexService.onCupomChanged(CupomChangedEvent.of(List.of(1L, 2L)));
+
+        verifyNoInteractions(cupomRepository);
+    }
+
+    @Test
+    @DisplayName("Deve reler o estado dos cupons alterados por UPDATE nativo")
+    void deveRelerAlteracoesNativas() {
+        cupomCodeIndex.apply(1L, "ABC123", true, false, false);
+        CupomCodeState deletado = mock(CupomCodeState.class);
+        when(deletado.getId()).thenReturn(1L);
+        when(deletado.getCode()).thenReturn("ABC123");
+        when(deletado.getDeleted()).thenReturn(true);
+        when(cupomRepository.findCodeStatesByIds(List.of(1L))).thenReturn(List.of(deletado));
+
+        cupomCodeIndexService.onCupomChanged(CupomChangedEvent.ofCodeStateChange(1L));
+
+        assertThat(cupomCodeIndex.contains("ABC123")).isFalse();
+    }
+}
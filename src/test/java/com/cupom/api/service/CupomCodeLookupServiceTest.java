@@ -0,0 +1,146 @@
+package com.cupom.api.service;
+
+import com.cupom.api.cache.CupomCodeBloomFilter;
+import com.cupom.api.cache.CupomCodeCache;
+import com.cupom.api.cache.CupomCodeIndex;
+import com.cupom.api.cache.CupomCodeSpace;
+import com.cupom.api.dto.CupomCodeLookupItemResult;
+import com.cupom.api.dto.CupomCodeLookupResponse;
+import com.cupom.api.dto.CupomResponse;
+import com.cupom.api.exception.InvalidCupomException;
+import com.cupom.api.repository.CupomRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Testes do Serviço de Busca por Vários Códigos")
+class CupomCodeLookupServiceTest {
+
+    @Mock
+    private CupomRepository cupomRepository;
+
+    private CupomCodeIndex cupomCodeIndex;
+
+    private CupomCodeLookupService cupomCodeLookupService;
+
+    @BeforeEach
+    void setUp() {
+        CupomCodeCache cache = new CupomCodeCache(10_000, Duration.ofMinutes(5), Duration.ofSeconds(30));
+        cupomCodeIndex = new CupomCodeIndex(16);
+        CupomCodeIndexService cupomCodeIndexService = new CupomCodeIndexService(cupomRepository, cupomCodeIndex,
+            new CupomCodeBloomFilter(false, 1, 0.01), new CupomCodeSpace());
+        cupomCodeLookupService = new CupomCodeLookupService(cupomRepository, cache, cupomCodeIndexService,
+            Clock.systemDefaultZone());
+    }
+
+    @Test
+    @DisplayName("Deve normalizar os códigos e reportar o resultado de cada um na ordem recebida")
+    void deveReportarResultadoPorCodigo() {
+        when(cupomRepository.findActiveResponsesByCodes(anyCollection(), any(LocalDate.class)))
+                .thenReturn(List.of(cupom(1L, "ABC123")));
+
+        CupomCodeLookupResponse response = cupomCodeLookupService.getCuponsByCodes(
+            List.of("abc-123", "XYZ999", "ab", "ABC123"));
+
+        assertThat(response.getTotal()).isEqualTo(4);
+        assertThat(response.getFound()).isEqualTo(2);
+        assertThat(response.getResults()).extracting(CupomCodeLookupItemResult::getStatus).containsExactly(
+            CupomCodeLookupItemResult.Status.FOUND,
+            CupomCodeLookupItemResult.Status.NOT_FOUND,
+            CupomCodeLookupItemResult.Status.INVALID,
+            CupomCodeLookupItemResult.Status.FOUND);
+        assertThat(response.getResults().get(0).getCupom().getId()).isEqualTo(1L);
+        assertThat(response.getResults().get(2).getCode()).isEqualTo("ab");
+        // Códigos repetidos após a normalização são buscados uma vez, em uma única consulta
+        verify(cupomRepository, times(1)).findActiveResponsesByCodes(
+            argThat((Collection<String> codes) -> codes.size() == 2), any(LocalDate.class));
+    }
+
+    @Test
+    @DisplayName("Deve usar o cache por código na segunda busca, inclusive para códigos inexistentes")
+    void deveUsarCacheNaSegundaBusca() {
+        when(cupomRepository.findActiveResponsesByCodes(anyCollection(), any(LocalDate.class)))
+                .thenReturn(List.of(cupom(1L, "ABC123")));
+
+        cupomCodeLookupService.getCuponsByCodes(List.of("ABC123", "XYZ999"));
+        CupomCodeLookupResponse response = cupomCodeLookupService.getCuponsByCodes(List.of("XYZ999", "ABC123"));
+
+        assertThat(response.getFound()).isEqualTo(1);
+        verify(cupomRepository, times(1)).findActiveResponsesByCodes(anyCollection(), any(LocalDate.class));
+    }
+
+    @Test
+    @DisplayName("Deve consultar em blocos de no máximo 1000 códigos")
+    void deveConsultarEmBlocos() {
+        when(cupomRepository.findActiveResponsesByCodes(anyCollection(), any(LocalDate.class))).thenReturn(List.of());
+        List<String> codes = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) {
+            codes.add(String.format("C%05d", i));
+        }
+
+        CupomCodeLookupResponse response = cupomCodeLookupService.getCuponsByCodes(codes);
+
+        assertThat(response.getFound()).isZero();
+        verify(cupomRepository, times(3)).findActiveResponsesByCodes(anyCollection(), any(LocalDate.class));
+    }
+
+    @Test
+    @DisplayName("Códigos fora do índice de códigos não devem ir ao banco; os que o banco não encontra saem do índice")
+    void deveConsultarSoCodigosDoIndice() {
+        // DEF456 deletado fora da aplicação: o índice ainda o conhece
+        cupomCodeIndex.beginLoad();
+        cupomCodeIndex.load(1L, "ABC123", true, false);
+        cupomCodeIndex.load(2L, "DEF456", true, false);
+        cupomCodeIndex.finishLoad();
+        when(cupomRepository.findActiveResponsesByCodes(anyCollection(), any(LocalDate.class)))
+                .thenReturn(List.of(cupom(1L, "ABC123")));
+
+        CupomCodeLookupResponse response = cupomCodeLookupService.getCuponsByCodes(
+            List.of("ABC123", "DEF456", "XYZ999"));
+
+        assertThat(response.getFound()).isEqualTo(1);
+        verify(cupomRepository).findActiveResponsesByCodes(
+            argThat((Collection<String> codes) -> codes.size() == 2 && !codes.contains("XYZ999")),
+            any(LocalDate.class));
+        assertThat(cupomCodeIndex.contains("DEF456")).isFalse();
+        assertThat(cupomCodeIndex.mismatches()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar consulta acima do tamanho máximo")
+    void deveRejeitarConsultaAcimaDoMaximo() {
+        ReflectionTestUtils.setField(cupomCodeLookupService, "maxLookupSize", 2);
+
+        assertThatThrownBy(() -> cupomCodeLookupService.getCuponsByCodes(List.of("ABC123", "DEF456", "GHI789")))
+                .isInstanceOf(InvalidCupomException.class);
+
+        verifyNoInteractions(cupomRepository);
+    }
+
+    private static CupomResponse cupom(Long id, String code) {
+        return CupomResponse.builder()
+                .id(id)
+                .code(code)
+                .published(true)
+                .active(true)
+                .build();
+    }
+}
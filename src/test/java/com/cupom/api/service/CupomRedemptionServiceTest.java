@@ -0,0 +1,312 @@
+package com.cupom.api.service;
+
+import com.cupom.api.cache.CupomCodeCache;
+import com.cupom.api.dto.CupomRedemptionResponse;
+import com.cupom.api.dto.CupomResponse;
+import com.cupom.api.event.CupomChangedEvent;
+import com.cupom.api.exception.CupomUsageLimitReachedException;
+import com.cupom.api.exception.InvalidCupomException;
+import com.cupom.api.repository.CupomRedemptionRepository;
+import com.cupom.api.repository.CupomRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Testes do Serviço de Resgate de Cupons")
+class CupomRedemptionServiceTest {
+
+    @Mock
+    private CupomService cupomService;
+
+    @Mock
+    private CupomRepository cupomRepository;
+
+    @Mock
+    private CupomRedemptionRepository cupomRedemptionRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private CupomCodeCache cupomCodeCache;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private CupomRedemptionService cupomRedemptionService;
+
+    private CupomResponse cupom;
+
+    @BeforeEach
+    void setUp() {
+        cupomRedemptionService = new CupomRedemptionService(cupomService, cupomRepository, cupomRedemptionRepository,
+            jdbcTemplate, transactionTemplate, cupomCodeCache, eventPublisher, Clock.systemDefaultZone());
+        cupom = CupomResponse.builder()
+                .id(1L)
+                .code("ABC123")
+                .published(true)
+                .active(true)
+                .maxUses(3)
+                .usedCount(0L)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Deve resgatar cupom e reduzir usos restantes")
+    void deveResgatarCupom() {
+        when(cupomService.getCheckoutCupomByCode("ABC123")).thenReturn(cupom);
+        when(cupomRepository.findUsedCountById(1L)).thenReturn(Optional.of(1L));
+
+        CupomRedemptionResponse response = cupomRedemptionService.redeem("ABC123", "PEDIDO-1");
+
+        assertThat(response.getUsedCount()).isEqualTo(2L);
+        assertThat(response.getRemainingUses()).isEqualTo(1L);
+        assertThat(response.getAlreadyRedeemed()).isFalse();
+        assertThat(cupomRedemptionService.pendingCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Deve tratar resgate repetido do mesmo pedido como idempotente")
+    void deveTratarResgateRepetidoComoIdempotente() {
+        when(cupomService.getCheckoutCupomByCode("ABC123")).thenReturn(cupom);
+        when(cupomRepository.findUsedCountById(1L)).thenReturn(Optional.of(0L));
+
+        cupomRedemptionService.redeem("ABC123", "PEDIDO-1");
+        CupomRedemptionResponse repetido = cupomRedemptionService.redeem("ABC123", "PEDIDO-1");
+
+        assertThat(repetido.getAlreadyRedeemed()).isTrue();
+        assertThat(repetido.getUsedCount()).isEqualTo(1L);
+        assertThat(cupomRedemptionService.pendingCount()).isEqualTo(1);
+        verify(cupomRepository, times(1)).findUsedCountById(1L);
+    }
+
+    @Test
+    @DisplayName("Deve lançar exceção ao atingir o limite de resgates")
+    void deveLancarExcecaoLimiteAtingido() {
+        when(cupomService.getCheckoutCupomByCode("ABC123")).thenReturn(cupom);
+        when(cupomRepository.findUsedCountById(1L)).thenReturn(Optional.of(3L));
+
+        assertThatThrownBy(() -> cupomRedemptionService.redeem("ABC123", "PEDIDO-1"))
+                .isInstanceOf(CupomUsageLimitReachedException.class);
+        assertThat(cupomRedemptionService.pendingCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Deve tratar como idempotente pedido já gravado quando o limite foi atingido")
+    void deveTratarPedidoGravadoNoLimiteComoIdempotente() {
+        cupom.setMaxUses(1);
+        when(cupomService.getCheckoutCupomByCode("ABC123")).thenReturn(cupom);
+        when(cupomRepository.findUsedCountById(1L)).thenReturn(Optional.of(1L));
+        when(cupomRedemptionRepository.existsByCupomIdAndOrderId(1L, "PEDIDO-1")).thenReturn(true);
+
+        CupomRedemptionResponse repetido = cupomRedemptionService.redeem("ABC123", "PEDIDO-1");
+
+        assertThat(repetido.getAlreadyRedeemed()).isTrue();
+        assertThat(repetido.getUsedCount()).isEqualTo(1L);
+        assertThat(cupomRedemptionService.pendingCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Deve tratar como idempotente pedido repetido depois de gravado, sem reservar outro uso")
+    void deveTratarPedidoRepetidoAposFlushComoIdempotente() {
+        when(cupomService.getCheckoutCupomByCode("ABC123")).thenReturn(cupom);
+        when(cupomRepository.findUsedCountById(1L)).thenReturn(Optional.of(0L));
+        executeTransactions();
+        when(jdbcTemplate.batchUpdate(anyString(), anyList(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenReturn(new int[][] {{1}});
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[] {1});
+
+        cupomRedemptionService.redeem("ABC123", "PEDIDO-1");
+        cupomRedemptionService.flush();
+        CupomRedemptionResponse repetido = cupomRedemptionService.redeem("ABC123", "PEDIDO-1");
+
+        assertThat(repetido.getAlreadyRedeemed()).isTrue();
+        assertThat(repetido.getUsedCount()).isEqualTo(1L);
+        assertThat(cupomRedemptionService.pendingCount()).isZero();
+        verifyNoInteractions(cupomRedemptionRepository);
+    }
+
+    @Test
+    @DisplayName("Deve descartar o contador ocioso após gravar os resgates")
+    void deveDescartarContadorOciosoAposFlush() {
+        ReflectionTestUtils.setField(cupomRedemptionService, "counterIdleTimeout", Duration.ZERO);
+        when(cupomService.getCheckoutCupomByCode("ABC123")).thenReturn(cupom);
+        when(cupomRepository.findUsedCountById(1L)).thenReturn(Optional.of(0L), Optional.of(1L));
+        when(transactionTemplate.execute(any())).thenReturn(new CupomRedemptionService.WriteResult(Map.of(), Set.of()));
+
+        cupomRedemptionService.redeem("ABC123", "PEDIDO-1");
+        cupomRedemptionService.flush();
+        CupomRedemptionResponse response = cupomRedemptionService.redeem("ABC123", "PEDIDO-2");
+
+        assertThat(response.getUsedCount()).isEqualTo(2L);
+        verify(cupomRepository, times(2)).findUsedCountById(1L);
+    }
+
+    @Test
+    @DisplayName("Deve manter o contador enquanto houver resgates não gravados")
+    void deveManterContadorComResgatesPendentes() {
+        ReflectionTestUtils.setField(cupomRedemptionService, "counterIdleTimeout", Duration.ZERO);
+        when(cupomService.getCheckoutCupomByCode("ABC123")).thenReturn(cupom);
+        when(cupomRepository.findUsedCountById(1L)).thenReturn(Optional.of(0L));
+        when(transactionTemplate.execute(any())).thenThrow(new IllegalStateException("banco indisponível"));
+
+        cupomRedemptionService.redeem("ABC123", "PEDIDO-1");
+        cupomRedemptionService.flush();
+        CupomRedemptionResponse repetido = cupomRedemptionService.redeem("ABC123", "PEDIDO-1");
+
+        assertThat(repetido.getAlreadyRedeemed()).isTrue();
+        assertThat(cupomRedemptionService.pendingCount()).isEqualTo(1);
+        verify(cupomRepository, times(1)).findUsedCountById(1L);
+    }
+
+    @Test
+    @DisplayName("Deve invalidar o cache e publicar o evento dos cupons gravados no flush")
+    void deveInvalidarCacheEPublicarEventoNoFlush() {
+        when(cupomService.getCheckoutCupomByCode("ABC123")).thenReturn(cupom);
+        when(cupomRepository.findUsedCountById(1L)).thenReturn(Optional.of(0L));
+        executeTransactions();
+        when(jdbcTemplate.batchUpdate(anyString(), anyList(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenReturn(new int[][] {{1}});
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[] {1});
+
+        cupomRedemptionService.redeem("ABC123", "PEDIDO-1");
+        cupomRedemptionService.flush();
+
+        verify(cupomCodeCache).invalidate("ABC123");
+        verify(eventPublisher).publishEvent(CupomChangedEvent.of(1L));
+        assertThat(cupomRedemptionService.pendingCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Não deve invalidar o cache quando o pedido já estava gravado")
+    void naoDeveInvalidarCacheQuandoPedidoJaGravado() {
+        when(cupomService.getCheckoutCupomByCode("ABC123")).thenReturn(cupom);
+        when(cupomRepository.findUsedCountById(1L)).thenReturn(Optional.of(0L));
+        executeTransactions();
+        when(jdbcTemplate.batchUpdate(anyString(), anyList(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenReturn(new int[][] {{0}});
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[0]);
+
+        cupomRedemptionService.redeem("ABC123", "PEDIDO-1");
+        cupomRedemptionService.flush();
+        CupomRedemptionResponse response = cupomRedemptionService.redeem("ABC123", "PEDIDO-2");
+
+        assertThat(response.getUsedCount()).isEqualTo(1L);
+        verifyNoInteractions(cupomCodeCache, eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Deve desfazer os resgates do lote e reler o contador quando o banco recusa o limite")
+    void deveDesfazerResgatesQuandoBancoRecusaLimite() {
+        cupom.setMaxUses(1);
+        when(cupomService.getCheckoutCupomByCode("ABC123")).thenReturn(cupom);
+        // Outra instância gravou o único uso depois que este contador foi carregado
+        when(cupomRepository.findUsedCountById(1L)).thenReturn(Optional.of(0L), Optional.of(1L));
+        executeTransactions();
+        when(jdbcTemplate.batchUpdate(anyString(), anyList(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenReturn(new int[][] {{1}});
+        when(jdbcTemplate.batchUpdate(startsWith("UPDATE"), anyList())).thenReturn(new int[] {0});
+
+        cupomRedemptionService.redeem("ABC123", "PEDIDO-1");
+        cupomRedemptionService.flush();
+
+        verify(jdbcTemplate).batchUpdate(startsWith("DELETE"),
+            argThat((List<Object[]> rows) -> rows.size() == 1 && "PEDIDO-1".equals(rows.get(0)[1])));
+        verifyNoInteractions(cupomCodeCache, eventPublisher);
+        assertThatThrownBy(() -> cupomRedemptionService.redeem("ABC123", "PEDIDO-2"))
+                .isInstanceOf(CupomUsageLimitReachedException.class);
+        verify(cupomRepository, times(2)).findUsedCountById(1L);
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar resgate de cupom não publicado")
+    void deveRejeitarCupomNaoPublicado() {
+        cupom.setPublished(false);
+        when(cupomService.getCheckoutCupomByCode("ABC123")).thenReturn(cupom);
+
+        assertThatThrownBy(() -> cupomRedemptionService.redeem("ABC123", "PEDIDO-1"))
+                .isInstanceOf(InvalidCupomException.class);
+        verifyNoInteractions(cupomRepository);
+    }
+
+    @Test
+    @DisplayName("Nunca deve ultrapassar o limite sob resgates concorrentes")
+    void naoDeveUltrapassarLimiteSobConcorrencia() throws Exception {
+        cupom.setMaxUses(100);
+        when(cupomService.getCheckoutCupomByCode("ABC123")).thenReturn(cupom);
+        when(cupomRepository.findUsedCountById(1L)).thenReturn(Optional.of(0L));
+
+        int threads = 16;
+        int attemptsPerThread = 50;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            Callable<Integer> task = () -> {
+                start.await();
+                int accepted = 0;
+                for (int i = 0; i < attemptsPerThread; i++) {
+                    try {
+                        cupomRedemptionService.redeem("ABC123", "PEDIDO-" + thread + "-" + i);
+                        accepted++;
+                    } catch (CupomUsageLimitReachedException e) {
+                        // esperado após o limite
+                    }
+                }
+                return accepted;
+            };
+            results.add(executor.submit(task));
+        }
+        start.countDown();
+
+        int accepted = 0;
+        for (Future<Integer> result : results) {
+            accepted += result.get();
+        }
+        executor.shutdown();
+
+        assertThat(accepted).isEqualTo(100);
+        assertThat(cupomRedemptionService.pendingCount()).isEqualTo(100);
+    }
+
+    private void executeTransactions() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+}
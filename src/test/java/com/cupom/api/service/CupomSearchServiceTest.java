@@ -0,0 +1,120 @@
+package com.cupom.api.service;
+
+import com.cupom.api.dto.CupomResponse;
+import com.cupom.api.dto.CupomSearchRequest;
+import com.cupom.api.dto.CupomSearchResult;
+import com.cupom.api.exception.InvalidCupomException;
+import com.cupom.api.index.CupomDescriptionIndex;
+import com.cupom.api.repository.CupomRepository;
+import com.cupom.api.repository.specification.CupomSearchSort;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Testes do Serviço de Busca de Cupons")
+class CupomSearchServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 1);
+
+    @Mock
+    private CupomRepository cupomRepository;
+
+    private CupomDescriptionIndex cupomDescriptionIndex;
+
+    private CupomSearchService cupomSearchService;
+
+    @BeforeEach
+    void setUp() {
+        Clock clock = Clock.fixed(TODAY.atStartOfDay().toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+        cupomDescriptionIndex = new CupomDescriptionIndex(true);
+        cupomSearchService = new CupomSearchService(cupomRepository, cupomDescriptionIndex, clock);
+    }
+
+    @Test
+    @DisplayName("Deve buscar um item a mais e gerar o cursor a partir do último item da página")
+    void deveGerarCursorDaProximaPagina() {
+        when(cupomRepository.search(any(), eq(CupomSearchSort.DISCOUNT_VALUE), eq(true), eq(3), eq(TODAY)))
+                .thenReturn(List.of(cupom(7L, "30.00"), cupom(4L, "20.00"), cupom(9L, "10.00")));
+
+        CupomSearchResult result = cupomSearchService.search(
+                CupomSearchRequest.builder().sort("discountValue,desc").limit(2).build());
+
+        assertThat(result.getItems()).extracting(CupomResponse::getId).containsExactly(7L, 4L);
+        assertThat(result.getNextCursor())
+                .isEqualTo(CupomSearchService.encodeCursor(CupomSearchSort.DISCOUNT_VALUE, cupom(4L, "20.00")));
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar cursor gerado para outra ordenação")
+    void deveRejeitarCursorDeOutraOrdenacao() {
+        String cursor = CupomSearchService.encodeCursor(CupomSearchSort.CODE, cupom(4L, "20.00"));
+
+        assertThatThrownBy(() -> cupomSearchService.search(
+                CupomSearchRequest.builder().sort("discountValue").after(cursor).build()))
+                .isInstanceOf(InvalidCupomException.class)
+                .hasMessageContaining("Cursor");
+
+        verifyNoInteractions(cupomRepository);
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar faixa de desconto invertida")
+    void deveRejeitarFaixaDeDescontoInvertida() {
+        CupomSearchRequest request = CupomSearchRequest.builder()
+                .minDiscount(new BigDecimal("50"))
+                .maxDiscount(new BigDecimal("10"))
+                .build();
+
+        assertThatThrownBy(() -> cupomSearchService.search(request))
+                .isInstanceOf(InvalidCupomException.class)
+                .hasMessageContaining("minDiscount");
+    }
+
+    @Test
+    @DisplayName("Com o índice carregado, termo sem correspondência não deve consultar o banco")
+    void deveResolverTermoPeloIndiceSemConsultarBanco() {
+        cupomDescriptionIndex.beginRebuild();
+        cupomDescriptionIndex.load(1L, "Natal em família");
+        cupomDescriptionIndex.finishRebuild();
+
+        CupomSearchResult result = cupomSearchService.search(CupomSearchRequest.builder().q("páscoa").build());
+
+        assertThat(result.getItems()).isEmpty();
+        assertThat(result.getNextCursor()).isNull();
+        verifyNoInteractions(cupomRepository);
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar termo sem palavra pesquisável")
+    void deveRejeitarTermoSemPalavraPesquisavel() {
+        assertThatThrownBy(() -> cupomSearchService.search(CupomSearchRequest.builder().q("a - b").build()))
+                .isInstanceOf(InvalidCupomException.class)
+                .hasMessageContaining("Termo de busca");
+
+        verifyNoInteractions(cupomRepository);
+    }
+
+    private static CupomResponse cupom(Long id, String discount) {
+        return CupomResponse.builder()
+                .id(id)
+                .code("CUP" + id)
+                .discountValue(new BigDecimal(discount))
+                .build();
+    }
+}
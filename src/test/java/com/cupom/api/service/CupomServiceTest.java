@@ -1,29 +1,57 @@
 package com.cupom.api.service;
 
+import com.cupom.api.cache.CupomCodeBloomFilter;
+import com.cupom.api.cache.CupomCodeCache;
+import com.cupom.api.cache.CupomCodeIndex;
+import com.cupom.api.cache.CupomCodeSpace;
+import com.cupom.api.cache.CupomLookupCoalescer;
+import com.cupom.api.cache.PublishedCupomSnapshot;
+import com.cupom.api.dto.CupomPageResponse;
 import com.cupom.api.dto.CupomRequest;
 import com.cupom.api.dto.CupomResponse;
 import com.cupom.api.entity.Cupom;
+import com.cupom.api.event.CupomChangedEvent;
 import com.cupom.api.exception.*;
+import com.cupom.api.index.CupomDescriptionIndex;
 import com.cupom.api.repository.CupomRepository;
+import com.cupom.api.repository.projection.CupomRevision;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 
 import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -33,7 +61,24 @@ class CupomServiceTest {
     @Mock
     private CupomRepository cupomRepository;
 
-    @InjectMocks
+    @Spy
+    private CupomCodeCache cupomCodeCache = new CupomCodeCache(100, Duration.ofMinutes(5), Duration.ofSeconds(30));
+
+    private final CupomCodeIndex cupomCodeIndex = new CupomCodeIndex(16);
+
+    private final CupomCodeBloomFilter cupomCodeBloomFilter = new CupomCodeBloomFilter(true, 1000, 0.01);
+
+    private CupomCodeIndexService cupomCodeIndexService;
+
+    private final CupomLookupCoalescer lookupCoalescer = new CupomLookupCoalescer();
+
+    private final CupomDescriptionIndex cupomDescriptionIndex = new CupomDescriptionIndex(true);
+
+    private final PublishedCupomSnapshot publishedCupomSnapshot = new PublishedCupomSnapshot();
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     private CupomService cupomService;
 
     private Cupom cupomExemplo;
@@ -41,6 +86,11 @@ class CupomServiceTest {
 
     @BeforeEach
     void setUp() {
+        cupomCodeIndexService = new CupomCodeIndexService(cupomRepository, cupomCodeIndex, cupomCodeBloomFilter,
+            new CupomCodeSpace());
+        cupomService = new CupomService(cupomRepository, cupomCodeCache, cupomCodeIndexService,
+            lookupCoalescer, cupomDescriptionIndex, publishedCupomSnapshot, eventPublisher, Clock.systemDefaultZone());
+
         cupomExemplo = Cupom.builder()
                 .id(1L)
                 .code("ABC123")
@@ -65,14 +115,13 @@ class CupomServiceTest {
     @Test
     @DisplayName("Deve criar cupom com sucesso")
     void deveCriarCupomComSucesso() {
-        when(cupomRepository.existsByCodeAndNotDeleted(anyString())).thenReturn(false);
-        when(cupomRepository.save(any(Cupom.class))).thenReturn(cupomExemplo);
+        when(cupomRepository.saveAndFlush(any(Cupom.class))).thenReturn(cupomExemplo);
 
         CupomResponse response = cupomService.createCupom(requisicaoExemplo);
 
         assertThat(response).isNotNull();
         assertThat(response.getCode()).isEqualTo("ABC123");
-        verify(cupomRepository, times(1)).save(any(Cupom.class));
+        verify(cupomRepository, times(1)).saveAndFlush(any(Cupom.class));
     }
 
     @Test
@@ -85,8 +134,7 @@ class CupomServiceTest {
                 .expirationDate(LocalDate.now().plusDays(30))
                 .build();
 
-        when(cupomRepository.existsByCodeAndNotDeleted("ABC123")).thenReturn(false);
-        when(cupomRepository.save(any(Cupom.class))).thenReturn(cupomExemplo);
+        when(cupomRepository.saveAndFlush(any(Cupom.class))).thenReturn(cupomExemplo);
 
         CupomResponse response = cupomService.createCupom(request);
 
@@ -96,12 +144,35 @@ class CupomServiceTest {
     @Test
     @DisplayName("Deve lançar exceção ao criar cupom com código duplicado")
     void deveLancarExcecaoCodigoDuplicado() {
-        when(cupomRepository.existsByCodeAndNotDeleted("ABC123")).thenReturn(true);
+        when(cupomRepository.saveAndFlush(any(Cupom.class)))
+                .thenThrow(integrityViolation(Cupom.ACTIVE_CODE_CONSTRAINT.toUpperCase()));
 
         assertThatThrownBy(() -> cupomService.createCupom(requisicaoExemplo))
                 .isInstanceOf(DuplicateCupomCodeException.class);
 
-        verify(cupomRepository, never()).save(any(Cupom.class));
+        verify(cupomCodeCache, never()).invalidate(anyString());
+    }
+
+    @Test
+    @DisplayName("Deve recusar código duplicado pelo índice de códigos sem tentar o INSERT")
+    void deveRecusarCodigoDuplicadoPeloIndice() {
+        cupomCodeIndex.beginLoad();
+        cupomCodeIndex.load(1L, "ABC123", false, false);
+        cupomCodeIndex.finishLoad();
+
+        assertThatThrownBy(() -> cupomService.createCupom(requisicaoExemplo))
+                .isInstanceOf(DuplicateCupomCodeException.class);
+
+        verify(cupomRepository, never()).saveAndFlush(any(Cupom.class));
+    }
+
+    @Test
+    @DisplayName("Deve propagar violação de integridade que não seja de código duplicado")
+    void devePropagarOutraViolacaoDeIntegridade() {
+        when(cupomRepository.saveAndFlush(any(Cupom.class))).thenThrow(integrityViolation("PK_CUPONS"));
+
+        assertThatThrownBy(() -> cupomService.createCupom(requisicaoExemplo))
+                .isInstanceOf(DataIntegrityViolationException.class);
     }
 
     @Test
@@ -114,12 +185,29 @@ class CupomServiceTest {
                 .expirationDate(LocalDate.now().minusDays(1))
                 .build();
 
-        when(cupomRepository.existsByCodeAndNotDeleted(anyString())).thenReturn(false);
-
         assertThatThrownBy(() -> cupomService.createCupom(request))
                 .isInstanceOf(InvalidCupomException.class);
     }
 
+    @Test
+    @DisplayName("Deve validar e mapear com a data do relógio injetado")
+    void deveUsarDataDoRelogio() {
+        LocalDate hoje = LocalDate.of(2030, 1, 10);
+        Clock relogio = Clock.fixed(hoje.atStartOfDay(ZoneOffset.UTC).toInstant(), ZoneOffset.UTC);
+        cupomService = new CupomService(cupomRepository, cupomCodeCache, cupomCodeIndexService,
+            lookupCoalescer, cupomDescriptionIndex, publishedCupomSnapshot, eventPublisher, relogio);
+        when(cupomRepository.saveAndFlush(any(Cupom.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        requisicaoExemplo.setExpirationDate(hoje.minusDays(1));
+        assertThatThrownBy(() -> cupomService.createCupom(requisicaoExemplo))
+                .isInstanceOf(InvalidCupomException.class);
+
+        requisicaoExemplo.setExpirationDate(hoje);
+        CupomResponse response = cupomService.createCupom(requisicaoExemplo);
+        assertThat(response.getActive()).isTrue();
+        assertThat(response.getExpired()).isFalse();
+    }
+
     @Test
     @DisplayName("Deve lançar exceção com valor inválido")
     void deveLancarExcecaoValorInvalido() {
@@ -130,27 +218,70 @@ class CupomServiceTest {
                 .expirationDate(LocalDate.now().plusDays(30))
                 .build();
 
-        when(cupomRepository.existsByCodeAndNotDeleted(anyString())).thenReturn(false);
-
         assertThatThrownBy(() -> cupomService.createCupom(request))
                 .isInstanceOf(InvalidCupomException.class);
     }
 
     @Test
-    @DisplayName("Deve buscar todos cupons ativos")
-    void deveBuscarTodosCuponsAtivos() {
-        when(cupomRepository.findAllActive()).thenReturn(Arrays.asList(cupomExemplo));
+    @DisplayName("Deve buscar página de cupons ativos sem próxima página")
+    void deveBuscarPaginaCuponsAtivos() {
+        when(cupomRepository.findActiveResponsesAfter(eq(0L), any(LocalDate.class), any()))
+                .thenReturn(Arrays.asList(CupomService.mapToResponse(cupomExemplo, LocalDate.now())));
+
+        CupomPageResponse page = cupomService.getActiveCuponsPage(null, 10);
+
+        assertThat(page.getItems()).hasSize(1);
+        assertThat(page.getNextCursor()).isNull();
+        verify(cupomRepository, times(1)).findActiveResponsesAfter(eq(0L), eq(LocalDate.now()), any());
+    }
+
+    @Test
+    @DisplayName("Deve informar cursor da próxima página quando há mais itens")
+    void deveInformarCursorProximaPagina() {
+        Cupom segundo = Cupom.builder()
+                .id(2L)
+                .code("DEF456")
+                .description("Outro")
+                .discountValue(new BigDecimal("5.00"))
+                .expirationDate(LocalDate.now().plusDays(30))
+                .build();
+        when(cupomRepository.findActiveResponsesAfter(eq(0L), any(LocalDate.class), any()))
+                .thenReturn(Arrays.asList(CupomService.mapToResponse(cupomExemplo, LocalDate.now()), CupomService.mapToResponse(segundo, LocalDate.now())));
+
+        CupomPageResponse page = cupomService.getActiveCuponsPage(0L, 1);
+
+        assertThat(page.getItems()).hasSize(1);
+        assertThat(page.getNextCursor()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("Deve lançar exceção com limite de página inválido")
+    void deveLancarExcecaoLimiteInvalido() {
+        assertThatThrownBy(() -> cupomService.getActiveCuponsPage(null, 0))
+                .isInstanceOf(InvalidCupomException.class);
+        assertThatThrownBy(() -> cupomService.getActiveCuponsPage(null, CupomService.MAX_PAGE_LIMIT + 1))
+                .isInstanceOf(InvalidCupomException.class);
+
+        verify(cupomRepository, never()).findActiveResponsesAfter(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Deve exportar cupons ativos em streaming")
+    void deveExportarCuponsEmStreaming() {
+        when(cupomRepository.streamAllActiveResponses(any(LocalDate.class)))
+                .thenReturn(Stream.of(CupomService.mapToResponse(cupomExemplo, LocalDate.now())));
+        List<CupomResponse> exportados = new ArrayList<>();
 
-        List<CupomResponse> cupons = cupomService.getAllActiveCupons();
+        cupomService.streamActiveCupons(exportados::add);
 
-        assertThat(cupons).hasSize(1);
-        verify(cupomRepository, times(1)).findAllActive();
+        assertThat(exportados).extracting(CupomResponse::getCode).containsExactly("ABC123");
     }
 
     @Test
     @DisplayName("Deve buscar cupom por ID")
     void deveBuscarPorId() {
-        when(cupomRepository.findById(1L)).thenReturn(Optional.of(cupomExemplo));
+        when(cupomRepository.findResponseById(eq(1L), any(LocalDate.class)))
+                .thenReturn(Optional.of(CupomService.mapToResponse(cupomExemplo, LocalDate.now())));
 
         CupomResponse response = cupomService.getCupomById(1L);
 
@@ -160,64 +291,337 @@ class CupomServiceTest {
     @Test
     @DisplayName("Deve lançar exceção ao buscar ID inexistente")
     void deveLancarExcecaoIdInexistente() {
-        when(cupomRepository.findById(999L)).thenReturn(Optional.empty());
+        when(cupomRepository.findResponseById(eq(999L), any(LocalDate.class))).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> cupomService.getCupomById(999L))
                 .isInstanceOf(CupomNotFoundException.class);
     }
 
+    @Test
+    @DisplayName("Deve buscar cupom por código usando cache na segunda chamada")
+    void deveBuscarPorCodigoComCache() {
+        when(cupomRepository.findActiveResponseByCode(eq("ABC123"), any(LocalDate.class)))
+                .thenReturn(Optional.of(CupomService.mapToResponse(cupomExemplo, LocalDate.now())));
+
+        CupomResponse primeira = cupomService.getCupomByCode("abc-123");
+        CupomResponse segunda = cupomService.getCupomByCode("ABC123");
+
+        assertThat(primeira.getCode()).isEqualTo("ABC123");
+        assertThat(segunda.getId()).isEqualTo(1L);
+        verify(cupomRepository, times(1)).findActiveResponseByCode(eq("ABC123"), any(LocalDate.class));
+        assertThat(cupomService.getCodeCacheStats().getHitCount()).isEqualTo(1);
+        assertThat(cupomService.getCodeCacheStats().getMissCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Buscas concorrentes pelo mesmo código devem resultar em uma única consulta")
+    void deveColapsarBuscasConcorrentesPorCodigo() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(cupomRepository.findActiveResponseByCode(eq("ABC123"), any(LocalDate.class))).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.of(CupomService.mapToResponse(cupomExemplo, LocalDate.now()));
+        });
+
+        // Quem chega durante a carga espera por ela no cache; quem chega depois acerta o cache
+        List<CupomResponse> responses = stampede(32, () -> cupomService.getCupomByCode("abc-123"), release,
+            () -> loading.getCount() == 0);
+
+        assertThat(responses).hasSize(32).extracting(CupomResponse::getId).containsOnly(1L);
+        verify(cupomRepository, times(1)).findActiveResponseByCode(eq("ABC123"), any(LocalDate.class));
+    }
+
+    @Test
+    @DisplayName("Buscas concorrentes pelo mesmo ID devem resultar em uma única consulta")
+    void deveColapsarBuscasConcorrentesPorId() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(cupomRepository.findResponseById(eq(1L), any(LocalDate.class))).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.of(CupomService.mapToResponse(cupomExemplo, LocalDate.now()));
+        });
+
+        List<CupomResponse> responses = stampede(32, () -> cupomService.getCupomById(1L), release,
+            () -> lookupCoalescer.coalescedCount() == 31);
+
+        assertThat(responses).hasSize(32).extracting(CupomResponse::getId).containsOnly(1L);
+        verify(cupomRepository, times(1)).findResponseById(eq(1L), any(LocalDate.class));
+    }
+
+    @Test
+    @DisplayName("Código fora do índice de códigos deve dar 404 sem consultar o banco")
+    void deveResponderCodigoForaDoIndiceSemBanco() {
+        cupomCodeIndex.beginLoad();
+        cupomCodeIndex.finishLoad();
+
+        assertThatThrownBy(() -> cupomService.getCupomByCode("XYZ999"))
+                .isInstanceOf(CupomNotFoundException.class);
+
+        verify(cupomRepository, never()).findActiveResponseByCode(anyString(), any(LocalDate.class));
+    }
+
+    @Test
+    @DisplayName("Código do índice que o banco não encontra deve sair do índice")
+    void deveCorrigirIndiceQuandoBancoNaoEncontra() {
+        // Cupom deletado fora da aplicação: o índice ainda conhece o código
+        cupomCodeIndex.beginLoad();
+        cupomCodeIndex.load(1L, "ABC123", true, false);
+        cupomCodeIndex.finishLoad();
+        when(cupomRepository.findActiveResponseByCode(eq("ABC123"), any(LocalDate.class)))
+                .thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> cupomService.getCupomByCode("ABC123"))
+                .isInstanceOf(CupomNotFoundException.class);
+
+        assertThat(cupomCodeIndex.contains("ABC123")).isFalse();
+        assertThat(cupomCodeIndex.mismatches()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("Sem o índice de códigos, código fora do filtro de Bloom deve dar 404 sem consultar o banco")
+    void deveResponderCodigoForaDoFiltroDeBloomSemBanco() {
+        cupomCodeBloomFilter.beginLoad();
+        cupomCodeBloomFilter.load("ABC123");
+        cupomCodeBloomFilter.finishLoad();
+        when(cupomRepository.findActiveResponseByCode(eq("ABC123"), any(LocalDate.class)))
+                .thenReturn(Optional.of(CupomService.mapToResponse(cupomExemplo, LocalDate.now())));
+
+        assertThat(cupomService.getCupomByCode("ABC123").getId()).isEqualTo(1L);
+        assertThatThrownBy(() -> cupomService.getCupomByCode("XYZ999"))
+                .isInstanceOf(CupomNotFoundException.class);
+
+        verify(cupomRepository, never()).findActiveResponseByCode(eq("XYZ999"), any(LocalDate.class));
+    }
+
+    @Test
+    @DisplayName("Checkout deve usar o snapshot de publicados sem consultar o banco")
+    void deveBuscarCupomDoCheckoutNoSnapshot() {
+        cupomExemplo.setPublished(true);
+        publishedCupomSnapshot.replace(List.of(CupomService.mapToResponse(cupomExemplo, LocalDate.now())));
+
+        CupomResponse response = cupomService.getCheckoutCupomByCode("abc-123");
+
+        assertThat(response.getId()).isEqualTo(1L);
+        verifyNoInteractions(cupomRepository);
+    }
+
+    @Test
+    @DisplayName("Checkout deve cair na busca por código para cupom fora do snapshot")
+    void deveBuscarCupomDoCheckoutForaDoSnapshotNoBanco() {
+        publishedCupomSnapshot.replace(List.of());
+        when(cupomRepository.findActiveResponseByCode(eq("ABC123"), any(LocalDate.class)))
+                .thenReturn(Optional.of(CupomService.mapToResponse(cupomExemplo, LocalDate.now())));
+
+        CupomResponse response = cupomService.getCheckoutCupomByCode("ABC123");
+
+        assertThat(response.getPublished()).isFalse();
+        verify(cupomRepository).findActiveResponseByCode(eq("ABC123"), any(LocalDate.class));
+    }
+
+    @Test
+    @DisplayName("Deve publicar evento de alteração ao publicar cupom")
+    void devePublicarEventoAoPublicar() {
+        cupomExemplo.setPublished(true);
+        when(cupomRepository.publish(eq(1L), isNull(), any(LocalDateTime.class), any(LocalDate.class)))
+                .thenReturn(Optional.of(CupomService.mapToResponse(cupomExemplo, LocalDate.now())));
+
+        cupomService.publishCupom(1L);
+
+        verify(eventPublisher).publishEvent(CupomChangedEvent.ofCodeStateChange(1L));
+    }
+
+    @Test
+    @DisplayName("Deve guardar código inexistente no cache negativo")
+    void deveGuardarCodigoInexistenteNoCacheNegativo() {
+        when(cupomRepository.findActiveResponseByCode(eq("XYZ999"), any(LocalDate.class))).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> cupomService.getCupomByCode("XYZ999"))
+                .isInstanceOf(CupomNotFoundException.class);
+        assertThatThrownBy(() -> cupomService.getCupomByCode("XYZ999"))
+                .isInstanceOf(CupomNotFoundException.class);
+
+        verify(cupomRepository, times(1)).findActiveResponseByCode(eq("XYZ999"), any(LocalDate.class));
+    }
+
+    @Test
+    @DisplayName("Deve invalidar cache por código ao criar, atualizar, deletar e publicar")
+    void deveInvalidarCacheNasEscritas() {
+        when(cupomRepository.findById(1L)).thenReturn(Optional.of(cupomExemplo));
+        when(cupomRepository.saveAndFlush(any(Cupom.class))).thenReturn(cupomExemplo);
+        when(cupomRepository.publish(eq(1L), any(), any(), any())).thenReturn(Optional.of(CupomService.mapToResponse(cupomExemplo, LocalDate.now())));
+        when(cupomRepository.unpublish(eq(1L), any(), any(), any())).thenReturn(Optional.of(CupomService.mapToResponse(cupomExemplo, LocalDate.now())));
+        when(cupomRepository.softDelete(eq(1L), any(), any(), any())).thenReturn(Optional.of(CupomService.mapToResponse(cupomExemplo, LocalDate.now())));
+
+        cupomService.createCupom(requisicaoExemplo);
+        cupomService.updateCupom(1L, requisicaoExemplo);
+        cupomService.publishCupom(1L);
+        cupomService.unpublishCupom(1L);
+        cupomService.deleteCupom(1L);
+
+        verify(cupomCodeCache, times(5)).invalidate("ABC123");
+    }
+
+    @Test
+    @DisplayName("Deve recarregar cupom do banco após invalidação")
+    void deveRecarregarAposInvalidacao() {
+        when(cupomRepository.findActiveResponseByCode(eq("ABC123"), any(LocalDate.class)))
+                .thenAnswer(invocation -> Optional.of(CupomService.mapToResponse(cupomExemplo, LocalDate.now())));
+        when(cupomRepository.publish(eq(1L), any(), any(), any())).thenAnswer(invocation -> {
+            cupomExemplo.publish();
+            return Optional.of(CupomService.mapToResponse(cupomExemplo, LocalDate.now()));
+        });
+
+        cupomService.getCupomByCode("ABC123");
+        cupomService.publishCupom(1L);
+        CupomResponse response = cupomService.getCupomByCode("ABC123");
+
+        assertThat(response.getPublished()).isTrue();
+        verify(cupomRepository, times(2)).findActiveResponseByCode(eq("ABC123"), any(LocalDate.class));
+    }
+
     @Test
     @DisplayName("Deve atualizar cupom")
     void deveAtualizarCupom() {
         when(cupomRepository.findById(1L)).thenReturn(Optional.of(cupomExemplo));
-        when(cupomRepository.save(any(Cupom.class))).thenReturn(cupomExemplo);
+        when(cupomRepository.saveAndFlush(any(Cupom.class))).thenReturn(cupomExemplo);
 
         CupomResponse response = cupomService.updateCupom(1L, requisicaoExemplo);
 
         assertThat(response).isNotNull();
-        verify(cupomRepository, times(1)).save(any(Cupom.class));
+        verify(cupomRepository, times(1)).saveAndFlush(any(Cupom.class));
     }
 
     @Test
-    @DisplayName("Deve deletar cupom (soft delete)")
-    void deveDeletarCupom() {
+    @DisplayName("Deve rejeitar atualização com versão diferente da atual (If-Match)")
+    void deveRejeitarAtualizacaoComVersaoDiferente() {
+        cupomExemplo.setVersion(3L);
         when(cupomRepository.findById(1L)).thenReturn(Optional.of(cupomExemplo));
 
+        assertThatThrownBy(() -> cupomService.updateCupom(1L, requisicaoExemplo, 2L))
+                .isInstanceOf(CupomPreconditionFailedException.class);
+
+        verify(cupomRepository, never()).saveAndFlush(any(Cupom.class));
+    }
+
+    @Test
+    @DisplayName("Deve deletar cupom (soft delete) com um único UPDATE")
+    void deveDeletarCupom() {
+        when(cupomRepository.softDelete(eq(1L), isNull(), any(LocalDateTime.class), any(LocalDate.class)))
+                .thenReturn(Optional.of(CupomService.mapToResponse(cupomExemplo, LocalDate.now())));
+
         cupomService.deleteCupom(1L);
 
-        verify(cupomRepository, times(1)).save(any(Cupom.class));
+        verify(cupomRepository, never()).findById(any());
+        verify(cupomRepository, never()).findResponseById(any(), any());
+        verify(cupomRepository, never()).save(any(Cupom.class));
     }
 
     @Test
     @DisplayName("Deve lançar exceção ao deletar cupom já deletado")
     void deveLancarExcecaoCupomJaDeletado() {
-        cupomExemplo.setDeleted(true);
-        when(cupomRepository.findById(1L)).thenReturn(Optional.of(cupomExemplo));
+        when(cupomRepository.softDelete(eq(1L), isNull(), any(LocalDateTime.class), any(LocalDate.class))).thenReturn(Optional.empty());
+        CupomRevision revisao = revision(0L, true);
+        when(cupomRepository.findRevisionById(1L)).thenReturn(Optional.of(revisao));
 
         assertThatThrownBy(() -> cupomService.deleteCupom(1L))
                 .isInstanceOf(CupomAlreadyDeletedException.class);
     }
 
     @Test
-    @DisplayName("Deve publicar cupom")
+    @DisplayName("Deve lançar exceção ao deletar cupom inexistente")
+    void deveLancarExcecaoDeletarInexistente() {
+        when(cupomRepository.softDelete(eq(999L), isNull(), any(LocalDateTime.class), any(LocalDate.class))).thenReturn(Optional.empty());
+        when(cupomRepository.findRevisionById(999L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> cupomService.deleteCupom(999L))
+                .isInstanceOf(CupomNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("Deve publicar cupom com um único UPDATE")
     void devePublicarCupom() {
-        when(cupomRepository.findById(1L)).thenReturn(Optional.of(cupomExemplo));
-        when(cupomRepository.save(any(Cupom.class))).thenReturn(cupomExemplo);
+        when(cupomRepository.publish(eq(1L), isNull(), any(LocalDateTime.class), any(LocalDate.class)))
+                .thenReturn(Optional.of(CupomService.mapToResponse(cupomExemplo, LocalDate.now())));
 
         CupomResponse response = cupomService.publishCupom(1L);
 
         assertThat(response).isNotNull();
+        verify(cupomRepository, never()).findById(any());
+        verify(cupomRepository, never()).findResponseById(any(), any());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar publicação de cupom deletado")
+    void deveRejeitarPublicacaoDeCupomDeletado() {
+        when(cupomRepository.publish(eq(1L), isNull(), any(LocalDateTime.class), any(LocalDate.class))).thenReturn(Optional.empty());
+        CupomRevision revisao = revision(0L, true);
+        when(cupomRepository.findRevisionById(1L)).thenReturn(Optional.of(revisao));
+
+        assertThatThrownBy(() -> cupomService.publishCupom(1L))
+                .isInstanceOf(InvalidCupomException.class);
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar publicação com versão diferente da atual (If-Match)")
+    void deveRejeitarPublicacaoComVersaoDiferente() {
+        when(cupomRepository.publish(eq(1L), eq(2L), any(LocalDateTime.class), any(LocalDate.class))).thenReturn(Optional.empty());
+        CupomRevision revisao = revision(3L, false);
+        when(cupomRepository.findRevisionById(1L)).thenReturn(Optional.of(revisao));
+
+        assertThatThrownBy(() -> cupomService.publishCupom(1L, 2L))
+                .isInstanceOf(CupomPreconditionFailedException.class);
     }
 
     @Test
     @DisplayName("Deve despublicar cupom")
     void deveDespublicarCupom() {
         cupomExemplo.setPublished(true);
-        when(cupomRepository.findById(1L)).thenReturn(Optional.of(cupomExemplo));
-        when(cupomRepository.save(any(Cupom.class))).thenReturn(cupomExemplo);
+        when(cupomRepository.unpublish(eq(1L), isNull(), any(LocalDateTime.class), any(LocalDate.class)))
+                .thenReturn(Optional.of(CupomService.mapToResponse(cupomExemplo, LocalDate.now())));
 
         CupomResponse response = cupomService.unpublishCupom(1L);
 
         assertThat(response).isNotNull();
     }
+
+    private static CupomRevision revision(Long version, boolean deleted) {
+        CupomRevision revision = mock(CupomRevision.class);
+        lenient().when(revision.getVersion()).thenReturn(version);
+        lenient().when(revision.getDeleted()).thenReturn(deleted);
+        return revision;
+    }
+
+    private static DataIntegrityViolationException integrityViolation(String constraintName) {
+        return new DataIntegrityViolationException("could not execute statement",
+            new ConstraintViolationException("Unique index or primary key violation",
+                new SQLException("Unique index or primary key violation", "23505"), constraintName));
+    }
+
+    /**
+     * Dispara {@code callers} buscas simultâneas; a consulta (bloqueada em {@code release}) só termina
+     * depois de {@code waiting} indicar que as outras chamadas aguardam por ela
+     */
+    private List<CupomResponse> stampede(int callers, Callable<CupomResponse> lookup, CountDownLatch release,
+                                         BooleanSupplier waiting) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<CupomResponse>> futures = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                futures.add(executor.submit(lookup));
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (!waiting.getAsBoolean() && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+
+            List<CupomResponse> responses = new ArrayList<>();
+            for (Future<CupomResponse> future : futures) {
+                responses.add(future.get(5, TimeUnit.SECONDS));
+            }
+            return responses;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
 }